@@ -0,0 +1,33 @@
+package codeislive63.dependencyInjection;
+
+/**
+ * Признак того, что приложение привязывало области через {@link AmbientServiceScope}.
+ * <p>
+ * {@link AmbientServiceScope} использует preview API {@link ScopedValue} и без флага
+ * {@code --enable-preview} не загружается. Провайдер проверяет этот признак перед
+ * обращением к текущей области, поэтому приложения, которые не используют текущую
+ * область, разрешают scoped сервисы без загрузки preview класса.
+ * </p>
+ */
+public final class AmbientScopeState {
+
+    private static volatile boolean isUsed;
+
+    private AmbientScopeState() {
+    }
+
+    /**
+     * Возвращает признак того, что область хотя бы раз привязывалась через {@link AmbientServiceScope}.
+     *
+     * @return {@code true}, если текущая область могла быть привязана.
+     */
+    public static boolean isUsed() {
+        return isUsed;
+    }
+
+    static void markUsed() {
+        if (!isUsed) {
+            isUsed = true;
+        }
+    }
+}
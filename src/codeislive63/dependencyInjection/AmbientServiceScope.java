@@ -0,0 +1,101 @@
+package codeislive63.dependencyInjection;
+
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Класс, позволяющий выполнить задачу с привязанной текущей областью сервисов.
+ * <p>
+ * Область привязывается через {@link ScopedValue}, поэтому привязка не требует записи
+ * в карту потока и автоматически наследуется подзадачами {@code StructuredTaskScope}.
+ * Пока задача выполняется, вызовы {@code getService} корневого провайдера разрешают
+ * scoped сервисы в привязанной области. Для передачи привязки в задачи обычного
+ * {@link Executor} используйте методы {@code wrap}.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * try (ServiceScope scope = serviceProvider.createScope()) {
+ *     AmbientServiceScope.run(scope, () -> handler.handle(request));
+ * }
+ * }
+ * </pre>
+ */
+public final class AmbientServiceScope {
+
+    private static final ScopedValue<ServiceScope> CURRENT = ScopedValue.newInstance();
+
+    private AmbientServiceScope() {
+    }
+
+    /**
+     * Возвращает область, привязанную к текущему потоку.
+     *
+     * @return Текущая область или {@code null}, если область не привязана.
+     */
+    public static ServiceScope current() {
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    /**
+     * Выполняет задачу с указанной областью в качестве текущей.
+     *
+     * @param scope Привязываемая область.
+     * @param task  Выполняемая задача.
+     */
+    public static void run(ServiceScope scope, Runnable task) {
+        AmbientScopeState.markUsed();
+        ScopedValue.where(CURRENT, scope).run(task);
+    }
+
+    /**
+     * Выполняет задачу с указанной областью в качестве текущей и возвращает её результат.
+     *
+     * @param <TResult> Тип результата задачи.
+     * @param scope     Привязываемая область.
+     * @param task      Выполняемая задача.
+     * @return Результат задачи.
+     * @throws Exception Если задача завершилась с исключением.
+     */
+    public static <TResult> TResult call(ServiceScope scope, Callable<TResult> task) throws Exception {
+        AmbientScopeState.markUsed();
+        return ScopedValue.where(CURRENT, scope).call(task::call);
+    }
+
+    /**
+     * Оборачивает задачу так, чтобы она выполнялась с текущей областью вызывающего потока.
+     *
+     * @param task Оборачиваемая задача.
+     * @return Задача с привязкой текущей области или исходная задача, если область не привязана.
+     */
+    public static Runnable wrap(Runnable task) {
+        ServiceScope scope = current();
+        return scope == null ? task : () -> run(scope, task);
+    }
+
+    /**
+     * Оборачивает задачу так, чтобы она выполнялась с текущей областью вызывающего потока.
+     *
+     * @param <TResult> Тип результата задачи.
+     * @param task      Оборачиваемая задача.
+     * @return Задача с привязкой текущей области или исходная задача, если область не привязана.
+     */
+    public static <TResult> Callable<TResult> wrap(Callable<TResult> task) {
+        ServiceScope scope = current();
+        return scope == null ? task : () -> call(scope, task);
+    }
+
+    /**
+     * Оборачивает исполнитель так, чтобы каждая переданная ему задача выполнялась
+     * с областью, текущей в момент передачи задачи.
+     *
+     * @param executor Оборачиваемый исполнитель.
+     * @return Исполнитель, передающий привязку области.
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+}
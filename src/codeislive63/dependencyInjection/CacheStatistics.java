@@ -0,0 +1,86 @@
+package codeislive63.dependencyInjection;
+
+/**
+ * Класс, описывающий статистику кэша результатов методов, помеченных
+ * {@link codeislive63.dependencyInjection.annotations.Cached}.
+ */
+public class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long size;
+
+    /**
+     * Инициализирует новый экземпляр {@link CacheStatistics}.
+     *
+     * @param hitCount      Количество вызовов, обслуженных без выполнения метода.
+     * @param missCount     Количество вызовов, выполнивших метод.
+     * @param evictionCount Количество вытесненных и устаревших записей.
+     * @param size          Текущее количество записей.
+     */
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * Возвращает количество вызовов, обслуженных без выполнения метода, включая вызовы,
+     * ожидавшие результат одновременного вычисления.
+     *
+     * @return Количество попаданий.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Возвращает количество вызовов, выполнивших метод.
+     *
+     * @return Количество промахов.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Возвращает количество вытесненных и устаревших записей.
+     *
+     * @return Количество вытеснений.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Возвращает текущее количество записей.
+     *
+     * @return Размер кэша.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает долю попаданий среди всех вызовов.
+     *
+     * @return Доля попаданий или {@code 1.0}, если вызовов не было.
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Возвращает статистику, объединяющую текущую и указанную.
+     *
+     * @param other Статистика другого кэша.
+     * @return Объединённая статистика.
+     */
+    public CacheStatistics plus(CacheStatistics other) {
+        return new CacheStatistics(hitCount + other.hitCount, missCount + other.missCount,
+                evictionCount + other.evictionCount, size + other.size);
+    }
+}
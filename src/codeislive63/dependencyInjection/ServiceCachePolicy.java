@@ -0,0 +1,72 @@
+package codeislive63.dependencyInjection;
+
+/**
+ * Класс, описывающий параметры кэширования для сервисов со временем жизни {@link ServiceLifetime#CACHED}.
+ * Содержит время жизни экземпляра, признак хранения экземпляра по мягкой ссылке и признак
+ * закрытия вытесненных экземпляров.
+ *
+ * @param <TService> Тип сервиса.
+ */
+public class ServiceCachePolicy<TService> {
+
+    private final long timeToLiveMillis;
+    private final boolean isSoftReferenced;
+    private final boolean isClosingEvicted;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceCachePolicy}, хранящий экземпляр по обычной
+     * ссылке и не закрывающий вытесненные экземпляры.
+     *
+     * @param timeToLiveMillis Время жизни экземпляра в миллисекундах или {@code 0}, если экземпляр не устаревает.
+     * @throws IllegalArgumentException Если время жизни отрицательно.
+     */
+    public ServiceCachePolicy(long timeToLiveMillis) {
+        this(timeToLiveMillis, false, false);
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceCachePolicy} с указанными параметрами.
+     *
+     * @param timeToLiveMillis Время жизни экземпляра в миллисекундах или {@code 0}, если экземпляр не устаревает.
+     * @param isSoftReferenced Хранить ли экземпляр по мягкой ссылке, чтобы сборщик мусора мог
+     *                         освободить его при нехватке памяти.
+     * @param isClosingEvicted Закрывать ли вытесненные экземпляры, реализующие {@link AutoCloseable}.
+     * @throws IllegalArgumentException Если время жизни отрицательно.
+     */
+    public ServiceCachePolicy(long timeToLiveMillis, boolean isSoftReferenced, boolean isClosingEvicted) {
+        if (timeToLiveMillis < 0) {
+            throw new IllegalArgumentException("Время жизни экземпляра не может быть отрицательным: " + timeToLiveMillis);
+        }
+
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.isSoftReferenced = isSoftReferenced;
+        this.isClosingEvicted = isClosingEvicted;
+    }
+
+    /**
+     * Возвращает время жизни экземпляра.
+     *
+     * @return Время жизни в миллисекундах или {@code 0}, если экземпляр не устаревает.
+     */
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * Возвращает признак хранения экземпляра по мягкой ссылке.
+     *
+     * @return {@code true}, если сборщик мусора может освободить экземпляр при нехватке памяти.
+     */
+    public boolean isSoftReferenced() {
+        return isSoftReferenced;
+    }
+
+    /**
+     * Возвращает признак закрытия вытесненных экземпляров.
+     *
+     * @return {@code true}, если вытесненные экземпляры, реализующие {@link AutoCloseable}, закрываются.
+     */
+    public boolean isClosingEvicted() {
+        return isClosingEvicted;
+    }
+}
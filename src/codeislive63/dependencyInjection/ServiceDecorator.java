@@ -0,0 +1,41 @@
+package codeislive63.dependencyInjection;
+
+/**
+ * Класс, описывающий декоратор сервиса. Декоратор оборачивает каждый экземпляр
+ * сервиса указанного типа и получает оборачиваемый экземпляр через параметр
+ * конструктора с типом сервиса.
+ */
+public class ServiceDecorator {
+
+    private final Class<?> serviceType;
+    private final Class<?> decoratorType;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceDecorator}.
+     *
+     * @param serviceType   Тип декорируемого сервиса.
+     * @param decoratorType Тип декоратора.
+     */
+    public ServiceDecorator(Class<?> serviceType, Class<?> decoratorType) {
+        this.serviceType = serviceType;
+        this.decoratorType = decoratorType;
+    }
+
+    /**
+     * Возвращает тип декорируемого сервиса.
+     *
+     * @return Тип сервиса.
+     */
+    public Class<?> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * Возвращает тип декоратора.
+     *
+     * @return Тип декоратора.
+     */
+    public Class<?> getDecoratorType() {
+        return decoratorType;
+    }
+}
@@ -0,0 +1,111 @@
+package codeislive63.dependencyInjection;
+
+import codeislive63.collections.generic.List;
+
+/**
+ * Класс, описывающий изменения регистраций, по которым из существующего провайдера
+ * строится новый.
+ * <p>
+ * Изменения применяются в фиксированном порядке: сначала удаляются регистрации типов,
+ * затем выполняются замены и в конце добавляются новые регистрации. По умолчанию новый
+ * провайдер создаёт все синглтоны заново; метод {@link #carryOverSingletons()} переносит
+ * в него синглтоны, которых изменения не затронули.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * ServiceProvider next = serviceProvider.rebuildWith(new ServiceDelta()
+ *         .add(new ServiceDescriptor(ExportPlugin.class, CsvExportPlugin.class, ServiceLifetime.SINGLETON))
+ *         .carryOverSingletons());
+ * }
+ * </pre>
+ */
+public class ServiceDelta {
+
+    private final List<Class<?>> removedTypes = new List<>();
+    private final List<ServiceDescriptor> replacements = new List<>();
+    private final List<ServiceDescriptor> additions = new List<>();
+    private boolean isCarryingOverSingletons = false;
+
+    /**
+     * Удаляет все регистрации указанного типа сервиса.
+     *
+     * @param serviceType Тип сервиса.
+     * @return Текущий набор изменений.
+     */
+    public ServiceDelta remove(Class<?> serviceType) {
+        removedTypes.add(serviceType);
+        return this;
+    }
+
+    /**
+     * Заменяет все регистрации типа сервиса указанным дескриптором. Если тип не
+     * зарегистрирован, дескриптор добавляется в конец.
+     *
+     * @param descriptor Новый дескриптор сервиса.
+     * @return Текущий набор изменений.
+     */
+    public ServiceDelta replace(ServiceDescriptor descriptor) {
+        replacements.add(descriptor);
+        return this;
+    }
+
+    /**
+     * Добавляет регистрацию сервиса.
+     *
+     * @param descriptor Добавляемый дескриптор сервиса.
+     * @return Текущий набор изменений.
+     */
+    public ServiceDelta add(ServiceDescriptor descriptor) {
+        additions.add(descriptor);
+        return this;
+    }
+
+    /**
+     * Переносит в новый провайдер синглтоны, которые изменения не затронули ни прямо,
+     * ни через зависимости. Перенесённые экземпляры общие для обоих провайдеров.
+     *
+     * @return Текущий набор изменений.
+     */
+    public ServiceDelta carryOverSingletons() {
+        isCarryingOverSingletons = true;
+        return this;
+    }
+
+    /**
+     * Возвращает типы сервисов, регистрации которых удаляются.
+     *
+     * @return Удаляемые типы сервисов.
+     */
+    public List<Class<?>> getRemovedTypes() {
+        return removedTypes;
+    }
+
+    /**
+     * Возвращает дескрипторы, заменяющие регистрации своих типов.
+     *
+     * @return Заменяющие дескрипторы.
+     */
+    public List<ServiceDescriptor> getReplacements() {
+        return replacements;
+    }
+
+    /**
+     * Возвращает добавляемые дескрипторы.
+     *
+     * @return Добавляемые дескрипторы.
+     */
+    public List<ServiceDescriptor> getAdditions() {
+        return additions;
+    }
+
+    /**
+     * Проверяет, переносятся ли незатронутые синглтоны в новый провайдер.
+     *
+     * @return {@code true}, если синглтоны переносятся.
+     */
+    public boolean isCarryingOverSingletons() {
+        return isCarryingOverSingletons;
+    }
+}
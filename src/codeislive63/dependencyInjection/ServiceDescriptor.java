@@ -15,6 +15,8 @@ public class ServiceDescriptor {
     private final Object implementationInstance;
     private final Func<ServiceProvider, ?> implementationFactory;
     private final ServiceLifetime lifetime;
+    private final ServicePoolPolicy<?> poolPolicy;
+    private final ServiceCachePolicy<?> cachePolicy;
 
     /**
      * Инициализирует новый экземпляр {@link ServiceDescriptor} с указанным фабричным методом.
@@ -29,6 +31,8 @@ public class ServiceDescriptor {
         this.implementationInstance = null;
         this.implementationFactory = implementationFactory;
         this.lifetime = lifetime;
+        this.poolPolicy = null;
+        this.cachePolicy = null;
     }
 
     /**
@@ -44,6 +48,80 @@ public class ServiceDescriptor {
         this.implementationInstance = null;
         this.implementationFactory = null;
         this.lifetime = lifetime;
+        this.poolPolicy = null;
+        this.cachePolicy = null;
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceDescriptor} для сервиса со временем жизни
+     * {@link ServiceLifetime#POOLED}, создаваемого фабричным методом.
+     *
+     * @param serviceType           Тип сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param poolPolicy            Параметры пула экземпляров.
+     */
+    public ServiceDescriptor(Class<?> serviceType, Func<ServiceProvider, ?> implementationFactory, ServicePoolPolicy<?> poolPolicy) {
+        this.serviceType = serviceType;
+        this.implementationType = null;
+        this.implementationInstance = null;
+        this.implementationFactory = implementationFactory;
+        this.lifetime = ServiceLifetime.POOLED;
+        this.poolPolicy = poolPolicy;
+        this.cachePolicy = null;
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceDescriptor} для сервиса со временем жизни
+     * {@link ServiceLifetime#POOLED} с указанным типом реализации.
+     *
+     * @param serviceType        Тип сервиса.
+     * @param implementationType Тип реализации сервиса.
+     * @param poolPolicy         Параметры пула экземпляров.
+     */
+    public ServiceDescriptor(Class<?> serviceType, Class<?> implementationType, ServicePoolPolicy<?> poolPolicy) {
+        this.serviceType = serviceType;
+        this.implementationType = implementationType;
+        this.implementationInstance = null;
+        this.implementationFactory = null;
+        this.lifetime = ServiceLifetime.POOLED;
+        this.poolPolicy = poolPolicy;
+        this.cachePolicy = null;
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceDescriptor} для сервиса со временем жизни
+     * {@link ServiceLifetime#CACHED}, создаваемого фабричным методом.
+     *
+     * @param serviceType           Тип сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param cachePolicy           Параметры кэширования экземпляра.
+     */
+    public ServiceDescriptor(Class<?> serviceType, Func<ServiceProvider, ?> implementationFactory, ServiceCachePolicy<?> cachePolicy) {
+        this.serviceType = serviceType;
+        this.implementationType = null;
+        this.implementationInstance = null;
+        this.implementationFactory = implementationFactory;
+        this.lifetime = ServiceLifetime.CACHED;
+        this.poolPolicy = null;
+        this.cachePolicy = cachePolicy;
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceDescriptor} для сервиса со временем жизни
+     * {@link ServiceLifetime#CACHED} с указанным типом реализации.
+     *
+     * @param serviceType        Тип сервиса.
+     * @param implementationType Тип реализации сервиса.
+     * @param cachePolicy        Параметры кэширования экземпляра.
+     */
+    public ServiceDescriptor(Class<?> serviceType, Class<?> implementationType, ServiceCachePolicy<?> cachePolicy) {
+        this.serviceType = serviceType;
+        this.implementationType = implementationType;
+        this.implementationInstance = null;
+        this.implementationFactory = null;
+        this.lifetime = ServiceLifetime.CACHED;
+        this.poolPolicy = null;
+        this.cachePolicy = cachePolicy;
     }
 
     /**
@@ -90,4 +168,22 @@ public class ServiceDescriptor {
     public ServiceLifetime getLifetime() {
         return lifetime;
     }
+
+    /**
+     * Возвращает параметры пула для сервиса со временем жизни {@link ServiceLifetime#POOLED}.
+     *
+     * @return Параметры пула или {@code null}, если они не заданы.
+     */
+    public ServicePoolPolicy<?> getPoolPolicy() {
+        return poolPolicy;
+    }
+
+    /**
+     * Возвращает параметры кэширования для сервиса со временем жизни {@link ServiceLifetime#CACHED}.
+     *
+     * @return Параметры кэширования или {@code null}, если они не заданы.
+     */
+    public ServiceCachePolicy<?> getCachePolicy() {
+        return cachePolicy;
+    }
 }
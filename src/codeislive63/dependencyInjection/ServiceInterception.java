@@ -0,0 +1,43 @@
+package codeislive63.dependencyInjection;
+
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+
+/**
+ * Класс, описывающий перехватчик, зарегистрированный для интерфейса сервиса.
+ * Каждый экземпляр сервиса указанного типа оборачивается прокси, который вызывает
+ * перехватчик до и после каждого метода интерфейса.
+ */
+public class ServiceInterception {
+
+    private final Class<?> serviceType;
+    private final ServiceInterceptor interceptor;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceInterception}.
+     *
+     * @param serviceType Интерфейс перехватываемого сервиса.
+     * @param interceptor Перехватчик вызовов.
+     */
+    public ServiceInterception(Class<?> serviceType, ServiceInterceptor interceptor) {
+        this.serviceType = serviceType;
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * Возвращает интерфейс перехватываемого сервиса.
+     *
+     * @return Тип сервиса.
+     */
+    public Class<?> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * Возвращает перехватчик вызовов.
+     *
+     * @return Перехватчик вызовов.
+     */
+    public ServiceInterceptor getInterceptor() {
+        return interceptor;
+    }
+}
@@ -3,11 +3,14 @@ package codeislive63.dependencyInjection;
 /**
  * Перечисление, представляющее время жизни сервиса в контейнере зависимостей.
  * <p>
- * Существуют три основных времени жизни сервиса:
+ * Существуют следующие времена жизни сервиса:
  * <ul>
  *     <li>{@link #SINGLETON} - Сервис создается один раз и используется на протяжении всего времени работы приложения.</li>
  *     <li>{@link #SCOPED} - Сервис создается один раз на каждую область и используется в течение этой области.</li>
  *     <li>{@link #TRANSIENT} - Сервис создается каждый раз, когда он запрашивается.</li>
+ *     <li>{@link #POOLED} - Сервис берется из ограниченного пула и возвращается в него после использования.</li>
+ *     <li>{@link #PER_THREAD} - Сервис создается один раз для каждого потока и используется в пределах этого потока.</li>
+ *     <li>{@link #CACHED} - Сервис создается один раз и пересоздается после вытеснения.</li>
  * </ul>
  * </p>
  */
@@ -25,5 +28,29 @@ public enum ServiceLifetime {
     /**
      * Сервис создается каждый раз, когда он запрашивается.
      */
-    TRANSIENT
+    TRANSIENT,
+
+    /**
+     * Сервис берется из ограниченного пула при каждом запросе и возвращается в пул
+     * при закрытии области, в которой был получен, или явным вызовом
+     * {@link codeislive63.dependencyInjection.interfaces.ServiceProvider#release(Class, Object)}.
+     * Если пул пуст, создается новый экземпляр.
+     */
+    POOLED,
+
+    /**
+     * Сервис создается один раз для каждого потока и используется в пределах этого потока.
+     * Экземпляр завершившегося потока может быть передан другому потоку, поэтому короткоживущие
+     * виртуальные потоки не создают по экземпляру на каждый поток. Экземпляры удаляются
+     * при закрытии провайдера.
+     */
+    PER_THREAD,
+
+    /**
+     * Сервис создается один раз и используется, пока не будет вытеснен: по истечении времени
+     * жизни или сборщиком мусора при нехватке памяти, если экземпляр хранится по мягкой ссылке.
+     * При следующем запросе после вытеснения создается новый экземпляр. Параметры задаются
+     * {@link ServiceCachePolicy}.
+     */
+    CACHED
 }
@@ -0,0 +1,61 @@
+package codeislive63.dependencyInjection;
+
+import codeislive63.delegates.generic.Func;
+
+/**
+ * Класс, описывающий параметры пула для сервисов со временем жизни {@link ServiceLifetime#POOLED}.
+ * Содержит максимальный размер пула и необязательный метод сброса, который вызывается
+ * перед возвратом экземпляра в пул.
+ *
+ * @param <TService> Тип сервиса.
+ */
+public class ServicePoolPolicy<TService> {
+
+    private final int maxSize;
+    private final Func<TService, Boolean> resetHook;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServicePoolPolicy} без метода сброса.
+     *
+     * @param maxSize Максимальное количество экземпляров, хранимых в пуле.
+     * @throws IllegalArgumentException Если размер пула меньше единицы.
+     */
+    public ServicePoolPolicy(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServicePoolPolicy} с указанным методом сброса.
+     *
+     * @param maxSize   Максимальное количество экземпляров, хранимых в пуле.
+     * @param resetHook Метод сброса состояния экземпляра. Возвращает {@code false},
+     *                  если экземпляр нельзя использовать повторно.
+     * @throws IllegalArgumentException Если размер пула меньше единицы.
+     */
+    public ServicePoolPolicy(int maxSize, Func<TService, Boolean> resetHook) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Размер пула должен быть положительным: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.resetHook = resetHook;
+    }
+
+    /**
+     * Возвращает максимальное количество экземпляров, хранимых в пуле.
+     *
+     * @return Максимальный размер пула.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Возвращает метод сброса состояния экземпляра.
+     *
+     * @return Метод сброса или {@code null}, если он не задан.
+     */
+    public Func<TService, Boolean> getResetHook() {
+        return resetHook;
+    }
+}
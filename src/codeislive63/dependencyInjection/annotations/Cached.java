@@ -0,0 +1,52 @@
+package codeislive63.dependencyInjection.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Обозначает, что результат метода интерфейса сервиса должен запоминаться.
+ *
+ * <p>Аннотация учитывается для сервисов со временем жизни
+ * {@link codeislive63.dependencyInjection.ServiceLifetime#SINGLETON}, зарегистрированных
+ * по интерфейсу. Контейнер оборачивает такой сервис прокси, который хранит результаты
+ * для каждого набора аргументов в ограниченном кэше. Одновременные вызовы с одинаковыми
+ * аргументами выполняют метод один раз, остальные вызовы ожидают его результат.
+ * Исключения не запоминаются.</p>
+ *
+ * <p>Когда число записей превышает {@link #maximumSize()}, вытесняются самые старые записи.
+ * Если задано {@link #expireAfterWriteMillis()}, запись считается устаревшей по истечении
+ * указанного времени после вычисления.</p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * public interface CurrencyService {
+ *
+ *     @Cached(maximumSize = 256, expireAfterWriteMillis = 60_000)
+ *     BigDecimal getRate(String from, String to);
+ * }
+ * }
+ * </pre>
+ *
+ * @see codeislive63.dependencyInjection.interfaces.CachedService
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+
+    /**
+     * Максимальное количество запоминаемых результатов.
+     *
+     * @return Максимальный размер кэша.
+     */
+    int maximumSize() default 1024;
+
+    /**
+     * Время жизни результата в миллисекундах после его вычисления.
+     *
+     * @return Время жизни результата или {@code 0}, если результат не устаревает.
+     */
+    long expireAfterWriteMillis() default 0;
+}
@@ -0,0 +1,42 @@
+package codeislive63.dependencyInjection.annotations;
+
+import codeislive63.dependencyInjection.ServiceLifetime;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Обозначает, что аннотированный класс должен быть зарегистрирован в контейнере
+ * зависимостей со временем жизни {@link ServiceLifetime#SINGLETON}.
+ *
+ * <p>Сервис создается один раз и используется на протяжении всего времени работы приложения. Регистрация выполняется не во время выполнения, а на этапе сборки:
+ * {@link codeislive63.dependencyInjection.index.ServiceIndexProcessor} записывает класс
+ * в индекс сервисов, который затем загружается методом
+ * {@link codeislive63.dependencyInjection.interfaces.ServiceCollection#addIndexedServices()}.</p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * @Singleton(LoggingService.class)
+ * public class LoggingServiceImplementation implements LoggingService {
+ *     ...
+ * }
+ * }
+ * </pre>
+ *
+ * @see codeislive63.dependencyInjection.index.ServiceIndex
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Singleton {
+
+    /**
+     * Тип сервиса, под которым регистрируется аннотированный класс.
+     * По умолчанию класс регистрируется под собственным типом.
+     *
+     * @return Класс типа сервиса.
+     */
+    Class<?> value() default void.class;
+}
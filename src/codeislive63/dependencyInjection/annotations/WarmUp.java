@@ -0,0 +1,34 @@
+package codeislive63.dependencyInjection.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Обозначает метод прогрева singleton сервиса.
+ *
+ * <p>После построения провайдера контейнер создаёт синглтоны, реализация которых содержит
+ * методы с этой аннотацией или реализует
+ * {@link codeislive63.dependencyInjection.interfaces.Warmable}, и вызывает их прогрев
+ * в фоновых потоках. Завершение прогрева можно ожидать через
+ * {@link codeislive63.dependencyInjection.interfaces.ServiceProvider#whenReady()}.
+ * Метод должен быть публичным, нестатическим и не принимать параметров.</p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * public class SearchIndex {
+ *
+ *     @WarmUp
+ *     public void preload() {
+ *         // загрузка индекса
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WarmUp {
+}
@@ -0,0 +1,97 @@
+package codeislive63.dependencyInjection.configuration;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Неизменяемый набор значений конфигурации, загруженный из файлов в формате properties.
+ * <p>
+ * Ключи разделов записываются через точку, например {@code database.url}. Файлы читаются
+ * один раз при загрузке, после чего разделы связываются с типизированными параметрами
+ * методом {@link #bind(String, Class)}. Для каждого типа параметров связыватель составляется
+ * один раз и используется повторно.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * Configuration configuration = Configuration.load(Path.of("application.properties"));
+ * DatabaseOptions options = configuration.bind("database", DatabaseOptions.class);
+ * }
+ * </pre>
+ */
+public final class Configuration {
+
+    private final Map<String, String> values;
+
+    private Configuration(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Загружает конфигурацию из указанных файлов. Файлы отображаются в память и читаются
+     * по порядку; значения следующих файлов заменяют значения предыдущих с теми же ключами.
+     *
+     * @param files Пути к файлам конфигурации.
+     * @return Загруженная конфигурация.
+     * @throws java.io.UncheckedIOException Если файл не удалось прочитать.
+     * @throws IllegalArgumentException     Если строка файла не содержит разделителя.
+     */
+    public static Configuration load(Path... files) {
+        Map<String, String> values = new HashMap<>();
+
+        for (Path file : files) {
+            ConfigurationFile.read(file, values);
+        }
+
+        return new Configuration(values);
+    }
+
+    /**
+     * Создаёт конфигурацию из указанных значений.
+     *
+     * @param values Значения конфигурации по ключам.
+     * @return Конфигурация с копией значений.
+     */
+    public static Configuration of(Map<String, String> values) {
+        return new Configuration(new HashMap<>(values));
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key Ключ значения.
+     * @return Значение или {@code null}, если ключ не задан.
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Проверяет, задан ли ключ.
+     *
+     * @param key Ключ значения.
+     * @return {@code true}, если ключ задан.
+     */
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Связывает раздел конфигурации с типом параметров. Тип параметров должен быть записью
+     * ({@code record}) или иметь единственный открытый конструктор, скомпилированный с флагом
+     * {@code -parameters}. Каждый компонент записи или параметр конструктора получает значение
+     * ключа {@code section.name}; вложенные записи связываются с вложенными разделами.
+     *
+     * @param section     Имя раздела или пустая строка для корня конфигурации.
+     * @param optionsType Класс параметров.
+     * @param <TOptions>  Тип параметров.
+     * @return Экземпляр параметров.
+     * @throws IllegalStateException Если тип параметров не поддерживается, обязательное значение
+     *                               не задано или значение не удалось преобразовать.
+     */
+    public <TOptions> TOptions bind(String section, Class<TOptions> optionsType) {
+        return optionsType.cast(OptionsBinder.of(optionsType).bind(this, section));
+    }
+}
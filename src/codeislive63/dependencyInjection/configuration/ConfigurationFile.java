@@ -0,0 +1,111 @@
+package codeislive63.dependencyInjection.configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Чтение файла конфигурации в формате properties.
+ * <p>
+ * Файл отображается в память через {@link FileChannel#map}, поэтому его содержимое не копируется
+ * в кучу целиком: строки просматриваются непосредственно в отображённом буфере, а в строки
+ * преобразуются только ключи и значения. Поддерживаются разделители {@code =} и {@code :},
+ * комментарии, начинающиеся с {@code #} или {@code !}, и кодировка UTF-8.
+ * </p>
+ */
+final class ConfigurationFile {
+
+    private ConfigurationFile() {
+    }
+
+    /**
+     * Читает файл и добавляет его значения в указанную таблицу. Значения файла заменяют
+     * значения с теми же ключами, добавленные ранее.
+     *
+     * @param path   Путь к файлу.
+     * @param values Таблица значений.
+     * @throws UncheckedIOException     Если файл не удалось прочитать.
+     * @throws IllegalArgumentException Если строка файла не содержит разделителя.
+     */
+    static void read(Path path, Map<String, String> values) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            parse(buffer, path, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать файл конфигурации: " + path, e);
+        }
+    }
+
+    private static void parse(MappedByteBuffer buffer, Path path, Map<String, String> values) {
+        int limit = buffer.limit();
+        int lineStart = hasByteOrderMark(buffer) ? 3 : 0;
+        int lineNumber = 0;
+        byte[] text = new byte[256];
+
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            lineNumber++;
+            int start = skipWhitespace(buffer, lineStart, lineEnd);
+            int end = trimEnd(buffer, start, lineEnd);
+
+            if (start < end && buffer.get(start) != '#' && buffer.get(start) != '!') {
+                int separator = start;
+
+                while (separator < end && buffer.get(separator) != '=' && buffer.get(separator) != ':') {
+                    separator++;
+                }
+
+                if (separator == end) {
+                    throw new IllegalArgumentException("Строка " + lineNumber + " файла " + path + " не содержит разделителя '=' или ':'.");
+                }
+
+                int valueStart = skipWhitespace(buffer, separator + 1, end);
+                String key = decode(buffer, start, trimEnd(buffer, start, separator), text);
+                values.put(key, decode(buffer, valueStart, end, text));
+            }
+
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static boolean hasByteOrderMark(MappedByteBuffer buffer) {
+        return buffer.limit() >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF;
+    }
+
+    private static int skipWhitespace(MappedByteBuffer buffer, int from, int to) {
+        while (from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+
+        return from;
+    }
+
+    private static int trimEnd(MappedByteBuffer buffer, int from, int to) {
+        while (to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+
+        return to;
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\t' || value == '\r' || value == '\f';
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to, byte[] text) {
+        int length = to - from;
+        byte[] bytes = length <= text.length ? text : new byte[length];
+        buffer.get(from, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
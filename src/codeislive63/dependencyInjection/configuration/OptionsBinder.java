@@ -0,0 +1,286 @@
+package codeislive63.dependencyInjection.configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Связыватель раздела конфигурации с типом параметров.
+ * <p>
+ * Связыватель составляется один раз для каждого типа: конструктор преобразуется
+ * в {@link MethodHandle}, а для каждого параметра заранее выбирается преобразование
+ * строкового значения или вложенный связыватель. При связывании выполняются только
+ * поиск значений по ключам и вызов конструктора.
+ * </p>
+ */
+final class OptionsBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final ClassValue<OptionsBinder> BINDERS = new ClassValue<>() {
+        @Override
+        protected OptionsBinder computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final Class<?> optionsType;
+    private final MethodHandle constructor;
+    private final Property[] properties;
+
+    private OptionsBinder(Class<?> optionsType, MethodHandle constructor, Property[] properties) {
+        this.optionsType = optionsType;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    /**
+     * Возвращает связыватель для указанного типа параметров.
+     *
+     * @param optionsType Класс параметров.
+     * @return Связыватель.
+     * @throws IllegalStateException Если тип параметров не поддерживается.
+     */
+    static OptionsBinder of(Class<?> optionsType) {
+        return BINDERS.get(optionsType);
+    }
+
+    /**
+     * Создаёт экземпляр параметров из значений раздела конфигурации.
+     *
+     * @param configuration Конфигурация.
+     * @param section       Имя раздела или пустая строка для корня конфигурации.
+     * @return Экземпляр параметров.
+     * @throws IllegalStateException Если обязательное значение не задано или значение не удалось преобразовать.
+     */
+    Object bind(Configuration configuration, String section) {
+        Object[] arguments = new Object[properties.length];
+
+        for (int i = 0; i < properties.length; i++) {
+            arguments[i] = properties[i].resolve(configuration, section.isEmpty() ? properties[i].name() : section + "." + properties[i].name());
+        }
+
+        try {
+            return (Object) constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось создать параметры " + optionsType.getName(), e);
+        }
+    }
+
+    private static OptionsBinder compile(Class<?> type) {
+        Constructor<?> constructor;
+        String[] names;
+
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            names = new String[components.length];
+
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+                names[i] = components[i].getName();
+            }
+
+            try {
+                constructor = type.getDeclaredConstructor(parameterTypes);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Не найден канонический конструктор " + type.getName(), e);
+            }
+        } else {
+            Constructor<?>[] constructors = type.getConstructors();
+
+            if (constructors.length != 1 || Modifier.isAbstract(type.getModifiers())) {
+                throw new IllegalStateException("Тип параметров " + type.getName()
+                        + " должен быть записью или иметь единственный открытый конструктор.");
+            }
+
+            constructor = constructors[0];
+            Parameter[] parameters = constructor.getParameters();
+            names = new String[parameters.length];
+
+            for (int i = 0; i < parameters.length; i++) {
+                if (!parameters[i].isNamePresent()) {
+                    throw new IllegalStateException("Имена параметров конструктора " + type.getName()
+                            + " недоступны: скомпилируйте его с флагом -parameters или объявите запись.");
+                }
+
+                names[i] = parameters[i].getName();
+            }
+        }
+
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Property[] properties = new Property[parameterTypes.length];
+
+        for (int i = 0; i < properties.length; i++) {
+            Function<String, Object> converter = converterFor(parameterTypes[i]);
+            properties[i] = new Property(names[i], parameterTypes[i], converter, converter == null ? of(parameterTypes[i]) : null);
+        }
+
+        return new OptionsBinder(type, unreflectConstructor(constructor), properties);
+    }
+
+    private static MethodHandle unreflectConstructor(Constructor<?> constructor) {
+        try {
+            if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+                constructor.trySetAccessible();
+            }
+
+            return LOOKUP.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Нет доступа к " + constructor, e);
+        }
+    }
+
+    /**
+     * Возвращает преобразование строкового значения в указанный тип или {@code null},
+     * если тип связывается как вложенный раздел.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converterFor(Class<?> type) {
+        if (type == String.class) {
+            return value -> value;
+        }
+
+        if (type == int.class || type == Integer.class) {
+            return Integer::valueOf;
+        }
+
+        if (type == long.class || type == Long.class) {
+            return Long::valueOf;
+        }
+
+        if (type == double.class || type == Double.class) {
+            return Double::valueOf;
+        }
+
+        if (type == float.class || type == Float.class) {
+            return Float::valueOf;
+        }
+
+        if (type == short.class || type == Short.class) {
+            return Short::valueOf;
+        }
+
+        if (type == byte.class || type == Byte.class) {
+            return Byte::valueOf;
+        }
+
+        if (type == boolean.class || type == Boolean.class) {
+            return OptionsBinder::parseBoolean;
+        }
+
+        if (type == char.class || type == Character.class) {
+            return OptionsBinder::parseCharacter;
+        }
+
+        if (type.isEnum()) {
+            return value -> Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+
+        if (type == Duration.class) {
+            return Duration::parse;
+        }
+
+        if (type == Path.class) {
+            return Path::of;
+        }
+
+        if (type == URI.class) {
+            return URI::create;
+        }
+
+        if (type.isArray()) {
+            Function<String, Object> elementConverter = converterFor(type.getComponentType());
+
+            if (elementConverter == null) {
+                throw new IllegalStateException("Массив параметров конфигурации должен содержать простые значения: " + type.getName());
+            }
+
+            return value -> parseArray(value, type.getComponentType(), elementConverter);
+        }
+
+        if (type.isPrimitive() || type.isInterface() || type == Object.class) {
+            throw new IllegalStateException("Тип не поддерживается в параметрах конфигурации: " + type.getName());
+        }
+
+        return null;
+    }
+
+    private static Object parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+
+        if (value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+
+        throw new IllegalArgumentException("Ожидалось true или false: " + value);
+    }
+
+    private static Object parseCharacter(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Ожидался один символ: " + value);
+        }
+
+        return value.charAt(0);
+    }
+
+    private static Object parseArray(String value, Class<?> elementType, Function<String, Object> elementConverter) {
+        String[] items = value.isBlank() ? new String[0] : value.split(",");
+        Object array = Array.newInstance(elementType, items.length);
+
+        for (int i = 0; i < items.length; i++) {
+            Array.set(array, i, elementConverter.apply(items[i].trim()));
+        }
+
+        return array;
+    }
+
+    /**
+     * Параметр типа параметров конфигурации.
+     *
+     * @param name      Имя компонента записи или параметра конструктора.
+     * @param type      Тип параметра.
+     * @param converter Преобразование строкового значения или {@code null} для вложенного раздела.
+     * @param nested    Связыватель вложенного раздела или {@code null} для простого значения.
+     */
+    private record Property(String name, Class<?> type, Function<String, Object> converter, OptionsBinder nested) {
+
+        Object resolve(Configuration configuration, String key) {
+            if (nested != null) {
+                return nested.bind(configuration, key);
+            }
+
+            String value = configuration.get(key);
+
+            if (value == null) {
+                if (type.isPrimitive()) {
+                    throw new IllegalStateException("Не задано обязательное значение конфигурации: " + key);
+                }
+
+                return null;
+            }
+
+            try {
+                return converter.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Не удалось преобразовать значение конфигурации " + key + " в " + type.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+/**
+ * Ребро графа зависимостей: сервис {@link #getSource()} получает сервис {@link #getTarget()}.
+ */
+public final class DependencyEdge {
+
+    private final DependencyNode source;
+    private final DependencyNode target;
+    private final DependencyKind kind;
+
+    /**
+     * Инициализирует новый экземпляр {@link DependencyEdge}.
+     *
+     * @param source Зависимый сервис.
+     * @param target Сервис, от которого зависит {@code source}.
+     * @param kind   Способ получения зависимости.
+     */
+    public DependencyEdge(DependencyNode source, DependencyNode target, DependencyKind kind) {
+        this.source = source;
+        this.target = target;
+        this.kind = kind;
+    }
+
+    /**
+     * Возвращает зависимый сервис.
+     *
+     * @return Узел зависимого сервиса.
+     */
+    public DependencyNode getSource() {
+        return source;
+    }
+
+    /**
+     * Возвращает сервис, от которого зависит источник ребра.
+     *
+     * @return Узел зависимости.
+     */
+    public DependencyNode getTarget() {
+        return target;
+    }
+
+    /**
+     * Возвращает способ получения зависимости.
+     *
+     * @return Способ получения зависимости.
+     */
+    public DependencyKind getKind() {
+        return kind;
+    }
+}
@@ -0,0 +1,149 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+import codeislive63.collections.generic.List;
+
+/**
+ * Граф зависимостей сервисов, составленный провайдером по планам активации.
+ * <p>
+ * Узлы графа — регистрации сервисов, рёбра — параметры конструкторов, методов
+ * {@code @Inject} и декораторов. Зависимость указывает на регистрацию, которую провайдер
+ * выбирает для её типа. Зависимости, которые фабрика запрашивает у провайдера, в граф
+ * не попадают. Если провайдер измеряет создание экземпляров, узлы содержат количество
+ * созданных экземпляров и время их создания.
+ * </p>
+ */
+public final class DependencyGraph {
+
+    private final List<DependencyNode> nodes;
+    private final List<DependencyEdge> edges;
+
+    /**
+     * Инициализирует новый экземпляр {@link DependencyGraph}.
+     *
+     * @param nodes Узлы графа в порядке регистрации сервисов.
+     * @param edges Рёбра графа.
+     */
+    public DependencyGraph(List<DependencyNode> nodes, List<DependencyEdge> edges) {
+        this.nodes = nodes;
+        this.edges = edges;
+
+        for (DependencyEdge edge : edges) {
+            edge.getSource().addDependency(edge);
+        }
+    }
+
+    /**
+     * Возвращает узлы графа в порядке регистрации сервисов.
+     *
+     * @return Коллекция узлов.
+     */
+    public List<DependencyNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Возвращает рёбра графа.
+     *
+     * @return Коллекция рёбер.
+     */
+    public List<DependencyEdge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * Возвращает первый узел указанного типа сервиса.
+     *
+     * @param serviceType Тип сервиса.
+     * @return Узел сервиса или {@code null}, если сервис не зарегистрирован.
+     */
+    public DependencyNode getNode(Class<?> serviceType) {
+        for (DependencyNode node : nodes) {
+            if (node.getServiceType() == serviceType) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Формирует граф в формате DOT для Graphviz.
+     *
+     * @return Граф в формате DOT.
+     */
+    public String toDot() {
+        StringBuilder dot = new StringBuilder("digraph services {\n");
+
+        for (DependencyNode node : nodes) {
+            String label = node.getServiceType().getName() + "\\n" + node.getLifetime()
+                    + "\\n" + node.getActivationCount() + " x " + node.getAverageNanos() + " ns"
+                    + "\\nobjects: " + node.getCreatedObjects();
+
+            dot.append("  ").append(node.getId()).append(" [label=\"").append(label.replace("\"", "\\\"")).append("\"];\n");
+        }
+
+        for (DependencyEdge edge : edges) {
+            dot.append("  ").append(edge.getSource().getId()).append(" -> ").append(edge.getTarget().getId())
+                    .append(" [label=\"").append(edge.getKind().name().toLowerCase()).append("\"];\n");
+        }
+
+        return dot.append("}\n").toString();
+    }
+
+    /**
+     * Формирует граф в формате JSON.
+     *
+     * @return Граф в формате JSON.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"nodes\":[");
+
+        for (int i = 0; i < nodes.count(); i++) {
+            DependencyNode node = nodes.get(i);
+
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"id\":");
+            Json.appendString(json, node.getId());
+            json.append(",\"serviceType\":");
+            Json.appendString(json, node.getServiceType().getName());
+            json.append(",\"implementationType\":");
+
+            if (node.getImplementationType() != null) {
+                Json.appendString(json, node.getImplementationType().getName());
+            } else {
+                json.append("null");
+            }
+
+            json.append(",\"lifetime\":");
+            Json.appendString(json, node.getLifetime().name());
+            json.append(",\"activationCount\":").append(node.getActivationCount());
+            json.append(",\"totalNanos\":").append(node.getTotalNanos());
+            json.append(",\"averageNanos\":").append(node.getAverageNanos());
+            json.append(",\"createdObjects\":").append(node.getCreatedObjects());
+            json.append('}');
+        }
+
+        json.append("],\"edges\":[");
+
+        for (int i = 0; i < edges.count(); i++) {
+            DependencyEdge edge = edges.get(i);
+
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"source\":");
+            Json.appendString(json, edge.getSource().getId());
+            json.append(",\"target\":");
+            Json.appendString(json, edge.getTarget().getId());
+            json.append(",\"kind\":");
+            Json.appendString(json, edge.getKind().name());
+            json.append('}');
+        }
+
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,22 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+/**
+ * Способ, которым сервис получает зависимость.
+ */
+public enum DependencyKind {
+
+    /**
+     * Параметр конструктора реализации.
+     */
+    CONSTRUCTOR,
+
+    /**
+     * Параметр метода, помеченного {@code @Inject}.
+     */
+    INJECT_METHOD,
+
+    /**
+     * Параметр конструктора декоратора, кроме оборачиваемого экземпляра.
+     */
+    DECORATOR
+}
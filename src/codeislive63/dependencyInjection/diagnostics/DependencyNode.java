@@ -0,0 +1,144 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.ServiceLifetime;
+
+/**
+ * Узел графа зависимостей: одна регистрация сервиса вместе с измеренной стоимостью
+ * создания её экземпляров.
+ */
+public final class DependencyNode {
+
+    private final String id;
+    private final Class<?> serviceType;
+    private final Class<?> implementationType;
+    private final ServiceLifetime lifetime;
+    private final long activationCount;
+    private final long totalNanos;
+    private final List<DependencyEdge> dependencies = new List<>();
+
+    /**
+     * Инициализирует новый экземпляр {@link DependencyNode}.
+     *
+     * @param id                 Идентификатор узла, уникальный в графе.
+     * @param serviceType        Тип сервиса.
+     * @param implementationType Тип реализации или {@code null}, если сервис создаётся фабрикой.
+     * @param lifetime           Время жизни сервиса.
+     * @param activationCount    Количество созданных экземпляров.
+     * @param totalNanos         Суммарное время создания экземпляров вместе с зависимостями.
+     */
+    public DependencyNode(String id, Class<?> serviceType, Class<?> implementationType, ServiceLifetime lifetime,
+                          long activationCount, long totalNanos) {
+        this.id = id;
+        this.serviceType = serviceType;
+        this.implementationType = implementationType;
+        this.lifetime = lifetime;
+        this.activationCount = activationCount;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Возвращает идентификатор узла.
+     *
+     * @return Идентификатор узла.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Возвращает тип сервиса.
+     *
+     * @return Тип сервиса.
+     */
+    public Class<?> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * Возвращает тип реализации.
+     *
+     * @return Тип реализации или {@code null}, если сервис создаётся фабрикой.
+     */
+    public Class<?> getImplementationType() {
+        return implementationType;
+    }
+
+    /**
+     * Возвращает время жизни сервиса.
+     *
+     * @return Время жизни сервиса.
+     */
+    public ServiceLifetime getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * Возвращает количество экземпляров, созданных с начала измерения.
+     *
+     * @return Количество экземпляров.
+     */
+    public long getActivationCount() {
+        return activationCount;
+    }
+
+    /**
+     * Возвращает суммарное время создания экземпляров вместе с созданием их зависимостей.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Возвращает среднее время создания одного экземпляра вместе с зависимостями.
+     *
+     * @return Время в наносекундах или {@code 0}, если экземпляры не создавались.
+     */
+    public long getAverageNanos() {
+        return activationCount > 0 ? totalNanos / activationCount : 0;
+    }
+
+    /**
+     * Возвращает количество объектов, создаваемых вместе с одним экземпляром сервиса:
+     * сам экземпляр и transient зависимости всех уровней. Синглтоны, scoped и per-thread
+     * зависимости не учитываются, так как обычно уже созданы.
+     *
+     * @return Количество объектов.
+     */
+    public int getCreatedObjects() {
+        return countCreatedObjects(this, new List<>());
+    }
+
+    /**
+     * Возвращает зависимости сервиса в порядке параметров.
+     *
+     * @return Исходящие рёбра узла.
+     */
+    public List<DependencyEdge> getDependencies() {
+        return dependencies;
+    }
+
+    void addDependency(DependencyEdge edge) {
+        dependencies.add(edge);
+    }
+
+    private static int countCreatedObjects(DependencyNode node, List<DependencyNode> path) {
+        if (path.contains(node)) {
+            return 0;
+        }
+
+        path.add(node);
+        int count = 1;
+
+        for (DependencyEdge edge : node.dependencies) {
+            if (edge.getTarget().lifetime == ServiceLifetime.TRANSIENT) {
+                count += countCreatedObjects(edge.getTarget(), path);
+            }
+        }
+
+        path.removeAt(path.count() - 1);
+        return count;
+    }
+}
@@ -0,0 +1,41 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+/**
+ * Вспомогательные методы формирования отчётов в формате JSON.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Добавляет строку в кавычках, экранируя служебные символы.
+     *
+     * @param json  Формируемый документ.
+     * @param value Добавляемая строка.
+     */
+    static void appendString(StringBuilder json, String value) {
+        json.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char symbol = value.charAt(i);
+
+            switch (symbol) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (symbol < 0x20) {
+                        json.append(String.format("\\u%04x", (int) symbol));
+                    } else {
+                        json.append(symbol);
+                    }
+                }
+            }
+        }
+
+        json.append('"');
+    }
+}
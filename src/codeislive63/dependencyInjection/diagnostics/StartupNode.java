@@ -0,0 +1,74 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+import codeislive63.collections.generic.List;
+
+/**
+ * Узел отчёта о запуске: один этап построения провайдера или создание одного экземпляра
+ * сервиса вместе с этапами, выполненными внутри него.
+ */
+public final class StartupNode {
+
+    private final String kind;
+    private final String name;
+    private final long inclusiveNanos;
+    private final List<StartupNode> children;
+
+    StartupNode(String kind, String name, long inclusiveNanos, List<StartupNode> children) {
+        this.kind = kind;
+        this.name = name;
+        this.inclusiveNanos = inclusiveNanos;
+        this.children = children;
+    }
+
+    /**
+     * Возвращает вид этапа, например {@code build}, {@code plan} или время жизни сервиса.
+     *
+     * @return Вид этапа.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Возвращает имя этапа, для сервисов — полное имя типа сервиса.
+     *
+     * @return Имя этапа.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает время этапа вместе с вложенными этапами.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getInclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    /**
+     * Возвращает время этапа без учёта вложенных этапов, то есть время, потраченное
+     * самим конструктором или фабричным методом.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getExclusiveNanos() {
+        long exclusiveNanos = inclusiveNanos;
+
+        for (StartupNode child : children) {
+            exclusiveNanos -= child.inclusiveNanos;
+        }
+
+        return Math.max(exclusiveNanos, 0);
+    }
+
+    /**
+     * Возвращает вложенные этапы в порядке их выполнения.
+     *
+     * @return Коллекция вложенных этапов.
+     */
+    public List<StartupNode> getChildren() {
+        return children;
+    }
+}
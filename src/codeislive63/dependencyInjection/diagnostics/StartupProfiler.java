@@ -0,0 +1,117 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+import codeislive63.collections.generic.List;
+
+/**
+ * Профилировщик запуска контейнера.
+ * <p>
+ * Профилировщик подключается методом
+ * {@link codeislive63.dependencyInjection.interfaces.ServiceCollection#profileStartup(StartupProfiler)}
+ * и измеряет построение провайдера, составление планов активации и первое разрешение
+ * каждого синглтона вместе со всеми экземплярами, созданными при этом разрешении.
+ * Этапы, начатые внутри другого этапа в том же потоке, становятся его вложенными узлами.
+ * Собственные этапы приложения можно измерить методом {@link #start(String, String)}.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * StartupProfiler profiler = new StartupProfiler();
+ * ServiceProvider serviceProvider = serviceCollection.profileStartup(profiler).buildServiceProvider();
+ * serviceProvider.getService(Application.class);
+ *
+ * Files.writeString(Path.of("startup.collapsed"), profiler.getReport().toCollapsedStacks());
+ * }
+ * </pre>
+ */
+public final class StartupProfiler {
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final List<StartupNode> roots = new List<>();
+
+    /**
+     * Начинает этап. Этап завершается закрытием возвращённого объекта, обычно
+     * в блоке {@code try}-with-resources.
+     *
+     * @param kind Вид этапа.
+     * @param name Имя этапа.
+     * @return Открытый этап.
+     */
+    public Span start(String kind, String name) {
+        Span span = new Span(this, current.get(), kind, name);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Проверяет, выполняется ли в текущем потоке какой-либо этап.
+     *
+     * @return {@code true}, если в текущем потоке открыт этап.
+     */
+    public boolean isRecording() {
+        return current.get() != null;
+    }
+
+    /**
+     * Возвращает отчёт по всем завершённым этапам верхнего уровня.
+     *
+     * @return Отчёт о запуске.
+     */
+    public StartupReport getReport() {
+        List<StartupNode> snapshot = new List<>();
+
+        synchronized (roots) {
+            for (StartupNode root : roots) {
+                snapshot.add(root);
+            }
+        }
+
+        return new StartupReport(snapshot);
+    }
+
+    private void complete(Span span, StartupNode node) {
+        if (span.parent != null) {
+            span.parent.children.add(node);
+            current.set(span.parent);
+            return;
+        }
+
+        current.remove();
+
+        synchronized (roots) {
+            roots.add(node);
+        }
+    }
+
+    /**
+     * Открытый этап профилирования.
+     */
+    public static final class Span implements AutoCloseable {
+
+        private final StartupProfiler profiler;
+        private final Span parent;
+        private final String kind;
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        private final List<StartupNode> children = new List<>();
+        private boolean isClosed;
+
+        private Span(StartupProfiler profiler, Span parent, String kind, String name) {
+            this.profiler = profiler;
+            this.parent = parent;
+            this.kind = kind;
+            this.name = name;
+        }
+
+        /**
+         * Завершает этап. Повторный вызов не имеет эффекта.
+         */
+        @Override
+        public void close() {
+            if (!isClosed) {
+                isClosed = true;
+                profiler.complete(this, new StartupNode(kind, name, System.nanoTime() - startNanos, children));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package codeislive63.dependencyInjection.diagnostics;
+
+import codeislive63.collections.generic.List;
+
+/**
+ * Отчёт о запуске контейнера, собранный {@link StartupProfiler}.
+ * <p>
+ * Отчёт содержит дерево этапов с временем каждого узла, включающим и не включающим
+ * вложенные этапы, и критический путь — цепочку от самого долгого этапа верхнего
+ * уровня через самый долгий вложенный этап на каждом уровне. Сокращение времени
+ * узлов критического пути сильнее всего сокращает время запуска.
+ * </p>
+ */
+public final class StartupReport {
+
+    private final List<StartupNode> roots;
+
+    StartupReport(List<StartupNode> roots) {
+        this.roots = roots;
+    }
+
+    /**
+     * Возвращает этапы верхнего уровня в порядке их завершения.
+     *
+     * @return Коллекция этапов верхнего уровня.
+     */
+    public List<StartupNode> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Возвращает суммарное время этапов верхнего уровня.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getTotalNanos() {
+        long totalNanos = 0;
+
+        for (StartupNode root : roots) {
+            totalNanos += root.getInclusiveNanos();
+        }
+
+        return totalNanos;
+    }
+
+    /**
+     * Возвращает критический путь: самый долгий этап верхнего уровня и далее на каждом
+     * уровне самый долгий вложенный этап.
+     *
+     * @return Узлы критического пути, начиная с этапа верхнего уровня.
+     */
+    public List<StartupNode> getCriticalPath() {
+        List<StartupNode> path = new List<>();
+        StartupNode node = slowest(roots);
+
+        while (node != null) {
+            path.add(node);
+            node = slowest(node.getChildren());
+        }
+
+        return path;
+    }
+
+    /**
+     * Формирует отчёт в формате JSON.
+     *
+     * @return Отчёт в формате JSON.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"totalNanos\":").append(getTotalNanos()).append(",\"criticalPath\":[");
+
+        List<StartupNode> criticalPath = getCriticalPath();
+
+        for (int i = 0; i < criticalPath.count(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+
+            Json.appendString(json, criticalPath.get(i).getName());
+        }
+
+        json.append("],\"nodes\":");
+        appendNodes(json, roots);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Формирует отчёт в формате свёрнутых стеков, который принимают инструменты
+     * построения flame-графов. Каждая строка содержит цепочку этапов через {@code ;}
+     * и собственное время последнего этапа в микросекундах.
+     *
+     * @return Отчёт в формате свёрнутых стеков.
+     */
+    public String toCollapsedStacks() {
+        StringBuilder stacks = new StringBuilder();
+
+        for (StartupNode root : roots) {
+            appendStacks(stacks, "", root);
+        }
+
+        return stacks.toString();
+    }
+
+    private static StartupNode slowest(List<StartupNode> nodes) {
+        StartupNode slowest = null;
+
+        for (StartupNode node : nodes) {
+            if (slowest == null || node.getInclusiveNanos() > slowest.getInclusiveNanos()) {
+                slowest = node;
+            }
+        }
+
+        return slowest;
+    }
+
+    private static void appendNodes(StringBuilder json, List<StartupNode> nodes) {
+        json.append('[');
+
+        for (int i = 0; i < nodes.count(); i++) {
+            StartupNode node = nodes.get(i);
+
+            if (i > 0) {
+                json.append(',');
+            }
+
+            json.append("{\"kind\":");
+            Json.appendString(json, node.getKind());
+            json.append(",\"name\":");
+            Json.appendString(json, node.getName());
+            json.append(",\"inclusiveNanos\":").append(node.getInclusiveNanos());
+            json.append(",\"exclusiveNanos\":").append(node.getExclusiveNanos());
+            json.append(",\"children\":");
+            appendNodes(json, node.getChildren());
+            json.append('}');
+        }
+
+        json.append(']');
+    }
+
+    private static void appendStacks(StringBuilder stacks, String prefix, StartupNode node) {
+        String stack = prefix + node.getName().replace(';', ':').replace(' ', '_');
+        long exclusiveMicros = node.getExclusiveNanos() / 1_000;
+
+        if (exclusiveMicros > 0) {
+            stacks.append(stack).append(' ').append(exclusiveMicros).append('\n');
+        }
+
+        for (StartupNode child : node.getChildren()) {
+            appendStacks(stacks, stack + ";", child);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Количество созданных экземпляров и время их создания для каждой регистрации сервиса.
+ * Счётчики не требуют блокировки, поэтому измерение можно включать под нагрузкой.
+ */
+final class ActivationCosts {
+
+    private final Map<ServiceDescriptor, Cost> costs = new ConcurrentHashMap<>();
+
+    /**
+     * Учитывает создание одного экземпляра сервиса.
+     *
+     * @param descriptor Дескриптор сервиса.
+     * @param nanos      Время создания вместе с зависимостями.
+     */
+    void record(ServiceDescriptor descriptor, long nanos) {
+        Cost cost = costs.computeIfAbsent(descriptor, key -> new Cost());
+        cost.count.increment();
+        cost.nanos.add(nanos);
+    }
+
+    /**
+     * Возвращает количество созданных экземпляров сервиса.
+     *
+     * @param descriptor Дескриптор сервиса.
+     * @return Количество экземпляров.
+     */
+    long getCount(ServiceDescriptor descriptor) {
+        Cost cost = costs.get(descriptor);
+        return cost != null ? cost.count.sum() : 0;
+    }
+
+    /**
+     * Возвращает суммарное время создания экземпляров сервиса.
+     *
+     * @param descriptor Дескриптор сервиса.
+     * @return Время в наносекундах.
+     */
+    long getNanos(ServiceDescriptor descriptor) {
+        Cost cost = costs.get(descriptor);
+        return cost != null ? cost.nanos.sum() : 0;
+    }
+
+    private static final class Cost {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
@@ -0,0 +1,117 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.ServiceCachePolicy;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Экземпляр сервиса со временем жизни {@code Cached}.
+ * <p>
+ * Действующий экземпляр читается без блокировки. Устаревший или освобождённый сборщиком
+ * мусора экземпляр пересоздаётся под монитором кэша, поэтому одновременные запросы
+ * ожидают одно пересоздание, а не создают по экземпляру каждый. Время жизни проверяется
+ * при запросе: вытесненный по времени экземпляр закрывается, когда его заменяет новый.
+ * Экземпляр, освобождённый сборщиком мусора, закрыть невозможно.
+ * </p>
+ */
+final class CachedInstance {
+
+    private final long timeToLiveNanos;
+    private final boolean isSoftReferenced;
+    private final boolean isClosingEvicted;
+
+    private volatile Entry entry;
+
+    /**
+     * Инициализирует новый экземпляр {@link CachedInstance} с указанными параметрами.
+     *
+     * @param policy Параметры кэширования.
+     */
+    CachedInstance(ServiceCachePolicy<?> policy) {
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(policy.getTimeToLiveMillis());
+        this.isSoftReferenced = policy.isSoftReferenced();
+        this.isClosingEvicted = policy.isClosingEvicted();
+    }
+
+    /**
+     * Возвращает действующий экземпляр или создаёт новый, если экземпляр ещё не создан или вытеснен.
+     *
+     * @param factory Метод создания экземпляра.
+     * @return Экземпляр сервиса.
+     */
+    Object getOrCreate(Supplier<Object> factory) {
+        Object instance = current(entry);
+        return instance != null ? instance : rebuild(factory);
+    }
+
+    /**
+     * Вытесняет экземпляр, закрывая его, если это предусмотрено параметрами кэширования.
+     */
+    synchronized void evict() {
+        Entry evicted = entry;
+        entry = null;
+
+        if (evicted != null) {
+            close(evicted.get());
+        }
+    }
+
+    private synchronized Object rebuild(Supplier<Object> factory) {
+        Entry stale = entry;
+        Object instance = current(stale);
+
+        if (instance != null) {
+            return instance;
+        }
+
+        instance = factory.get();
+
+        if (instance == null) {
+            return null;
+        }
+
+        entry = new Entry(isSoftReferenced ? new SoftReference<>(instance) : instance, System.nanoTime());
+
+        if (stale != null) {
+            close(stale.get());
+        }
+
+        return instance;
+    }
+
+    private Object current(Entry current) {
+        if (current == null || timeToLiveNanos > 0 && System.nanoTime() - current.createdAt() >= timeToLiveNanos) {
+            return null;
+        }
+
+        return current.get();
+    }
+
+    /**
+     * Закрывает вытесненный экземпляр. Исключение при закрытии не прерывает получение нового экземпляра.
+     */
+    private void close(Object instance) {
+        if (isClosingEvicted && instance instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // Вытесненный экземпляр больше не используется контейнером.
+            }
+        }
+    }
+
+    /**
+     * Запись кэша.
+     *
+     * @param value     Экземпляр или мягкая ссылка на него.
+     * @param createdAt Время создания экземпляра по {@link System#nanoTime()}.
+     */
+    private record Entry(Object value, long createdAt) {
+
+        Object get() {
+            return value instanceof SoftReference<?> reference ? reference.get() : value;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+import codeislive63.dependencyInjection.interfaces.EventPublisher;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Диспетчер событий провайдера сервисов.
+ * <p>
+ * Диспетчер хранит таблицу, сопоставляющую типу события типы его обработчиков, и очередь
+ * асинхронной доставки. Таблица составляется при построении провайдера для всех
+ * зарегистрированных типов событий; для подтипов событий строка таблицы вычисляется
+ * один раз при первой публикации. Асинхронные события доставляет один виртуальный
+ * поток: он запускается при публикации в пустую очередь и доставляет все события,
+ * накопившиеся к моменту доставки, в порядке публикации.
+ * </p>
+ */
+final class EventDispatcher {
+
+    private final Table table;
+    private final ConcurrentLinkedQueue<Delivery> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isDelivering = new AtomicBoolean();
+
+    EventDispatcher(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * Разрешает обработчики события через указанный провайдер.
+     */
+    @SuppressWarnings("unchecked")
+    private EventHandler<Object>[] resolveHandlers(Object event, ServiceProvider provider) {
+        if (event == null) {
+            throw new IllegalArgumentException("Событие не может быть null");
+        }
+
+        Class<?>[] handlerTypes = table.handlerTypesOf(event.getClass());
+        EventHandler<Object>[] handlers = (EventHandler<Object>[]) new EventHandler<?>[handlerTypes.length];
+
+        for (int i = 0; i < handlerTypes.length; i++) {
+            handlers[i] = (EventHandler<Object>) provider.getRequiredService(handlerTypes[i]);
+        }
+
+        return handlers;
+    }
+
+    private void enqueue(Delivery delivery) {
+        pending.add(delivery);
+
+        if (isDelivering.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("injectx-events").start(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            Delivery delivery;
+
+            while ((delivery = pending.poll()) != null) {
+                delivery.run();
+            }
+
+            isDelivering.set(false);
+        } while (!pending.isEmpty() && isDelivering.compareAndSet(false, true));
+    }
+
+    /**
+     * Вызывает обработчики события и возвращает первую ошибку, к которой добавлены
+     * ошибки остальных обработчиков.
+     */
+    private static Throwable deliver(Object event, EventHandler<Object>[] handlers) {
+        Throwable failure = null;
+
+        for (EventHandler<Object> handler : handlers) {
+            try {
+                handler.handle(event);
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        return failure;
+    }
+
+    /**
+     * Подписка обработчика на события указанного типа.
+     *
+     * @param eventType   Тип события.
+     * @param handlerType Тип обработчика, зарегистрированный как сервис.
+     */
+    record Subscription(Class<?> eventType, Class<?> handlerType) {
+    }
+
+    /**
+     * Неизменяемая таблица обработчиков, общая для всех провайдеров одного реестра.
+     */
+    static final class Table {
+
+        private final Subscription[] subscriptions;
+        private final ConcurrentHashMap<Class<?>, Class<?>[]> handlerTypes = new ConcurrentHashMap<>();
+
+        private Table(Subscription[] subscriptions) {
+            this.subscriptions = subscriptions;
+        }
+
+        /**
+         * Составляет таблицу обработчиков для всех зарегистрированных типов событий.
+         *
+         * @param subscriptions Подписки в порядке регистрации.
+         * @return Таблица обработчиков.
+         */
+        static Table compile(List<Subscription> subscriptions) {
+            Subscription[] snapshot = new Subscription[subscriptions.count()];
+
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = subscriptions.get(i);
+            }
+
+            Table table = new Table(snapshot);
+
+            for (Subscription subscription : snapshot) {
+                table.handlerTypesOf(subscription.eventType());
+            }
+
+            return table;
+        }
+
+        /**
+         * Возвращает типы обработчиков события указанного класса в порядке регистрации.
+         */
+        private Class<?>[] handlerTypesOf(Class<?> eventClass) {
+            Class<?>[] result = handlerTypes.get(eventClass);
+            return result != null ? result : handlerTypes.computeIfAbsent(eventClass, this::collect);
+        }
+
+        private Class<?>[] collect(Class<?> eventClass) {
+            List<Class<?>> result = new List<>();
+
+            for (Subscription subscription : subscriptions) {
+                if (subscription.eventType().isAssignableFrom(eventClass) && !result.contains(subscription.handlerType())) {
+                    result.add(subscription.handlerType());
+                }
+            }
+
+            Class<?>[] array = new Class<?>[result.count()];
+
+            for (int i = 0; i < array.length; i++) {
+                array[i] = result.get(i);
+            }
+
+            return array;
+        }
+    }
+
+    /**
+     * Публикатор событий, разрешающий обработчики через провайдер, из которого он получен.
+     */
+    static final class Publisher implements EventPublisher {
+
+        private final EventDispatcher dispatcher;
+        private final ServiceProvider provider;
+
+        Publisher(EventDispatcher dispatcher, ServiceProvider provider) {
+            this.dispatcher = dispatcher;
+            this.provider = provider;
+        }
+
+        @Override
+        public void publish(Object event) {
+            Throwable failure = deliver(event, dispatcher.resolveHandlers(event, provider));
+
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+
+            if (failure instanceof Error e) {
+                throw e;
+            }
+
+            if (failure != null) {
+                throw new RuntimeException("Обработчик события завершился ошибкой: " + event.getClass().getName(), failure);
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> publishAsync(Object event) {
+            Delivery delivery = new Delivery(event, dispatcher.resolveHandlers(event, provider), new CompletableFuture<>());
+            dispatcher.enqueue(delivery);
+            return delivery.completion();
+        }
+    }
+
+    /**
+     * Событие, ожидающее асинхронной доставки, вместе с разрешёнными обработчиками.
+     */
+    private record Delivery(Object event, EventHandler<Object>[] handlers, CompletableFuture<Void> completion) {
+
+        private void run() {
+            Throwable failure = deliver(event, handlers);
+
+            if (failure != null) {
+                completion.completeExceptionally(failure);
+            } else {
+                completion.complete(null);
+            }
+        }
+    }
+}
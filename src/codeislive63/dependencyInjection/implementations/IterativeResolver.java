@@ -0,0 +1,230 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Создание экземпляров обходом зависимостей конструкторов с явным стеком.
+ * <p>
+ * Рекурсивное разрешение добавляет несколько кадров стека потока и кадры отражения на
+ * каждый уровень графа зависимостей, поэтому глубокие цепочки переполняют небольшие
+ * стеки виртуальных потоков. Обход хранит создаваемые экземпляры в собственном стеке
+ * и разрешает параметры конструкторов в одном цикле, поэтому глубина стека потока не
+ * зависит от глубины графа. Какие зависимости создаются обходом, а какие запрашиваются
+ * у провайдера как готовые, решает {@link Host} провайдера или области.
+ * </p>
+ * <p>
+ * Параметры-коллекции, параметры {@link codeislive63.dependencyInjection.interfaces.Options},
+ * методы {@link codeislive63.dependencyInjection.annotations.Inject} и декораторы разрешаются
+ * планом активации через провайдер. Ошибка создания содержит путь от запрошенного сервиса
+ * до сервиса, создание которого не удалось.
+ * </p>
+ */
+final class IterativeResolver {
+
+    private IterativeResolver() {
+    }
+
+    /**
+     * Провайдер или область, в которой выполняется обход.
+     */
+    interface Host {
+
+        /**
+         * Возвращает дескриптор, экземпляр которого нужно создать обходом при разрешении
+         * указанного типа, или {@code null}, если тип разрешается провайдером.
+         *
+         * @param serviceType Тип параметра конструктора.
+         * @return Дескриптор создаваемого сервиса или {@code null}.
+         */
+        ServiceDescriptor expand(Class<?> serviceType);
+
+        /**
+         * Разрешает тип через провайдер.
+         *
+         * @param serviceType Тип параметра конструктора.
+         * @return Экземпляр сервиса или {@code null}, если сервис не зарегистрирован.
+         */
+        Object resolve(Class<?> serviceType);
+
+        /**
+         * Возвращает провайдер, через который план активации разрешает остальные зависимости.
+         *
+         * @return Провайдер сервисов.
+         */
+        ServiceProvider provider();
+
+        /**
+         * Вызывается перед разрешением параметров создаваемого сервиса.
+         *
+         * @param descriptor Дескриптор создаваемого сервиса.
+         * @return Состояние, передаваемое в {@link #exit(ServiceDescriptor, Object)}.
+         */
+        Object enter(ServiceDescriptor descriptor);
+
+        /**
+         * Сохраняет созданный экземпляр в соответствии с временем жизни сервиса.
+         *
+         * @param descriptor Дескриптор созданного сервиса.
+         * @param instance   Созданный экземпляр.
+         */
+        void complete(ServiceDescriptor descriptor, Object instance);
+
+        /**
+         * Отменяет действия {@link #enter(ServiceDescriptor)}, если создание не удалось.
+         *
+         * @param descriptor Дескриптор сервиса, создание которого не удалось.
+         */
+        void abort(ServiceDescriptor descriptor);
+
+        /**
+         * Вызывается после создания сервиса или отмены создания.
+         *
+         * @param descriptor Дескриптор сервиса.
+         * @param state      Состояние, возвращённое {@link #enter(ServiceDescriptor)}.
+         */
+        void exit(ServiceDescriptor descriptor, Object state);
+    }
+
+    /**
+     * Создаёт экземпляр сервиса, создаваемого конструктором. Создание самого запрошенного
+     * сервиса сохраняет вызывающий код, хост сохраняет только экземпляры, созданные обходом.
+     *
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор запрошенного сервиса.
+     * @param host       Провайдер или область, в которой выполняется обход.
+     * @return Экземпляр сервиса.
+     * @throws IllegalStateException Если зависимость не зарегистрирована или обнаружен цикл.
+     * @throws RuntimeException      Если не удалось создать экземпляр одного из сервисов.
+     */
+    static Object activate(ServiceRegistry registry, ServiceDescriptor descriptor, Host host) {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        Set<ServiceDescriptor> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+        RuntimeException failure = null;
+        Class<?> resolvingType = null;
+
+        stack.push(new Frame(descriptor, registry.getPlan(descriptor), null));
+        onStack.add(descriptor);
+
+        try {
+            while (true) {
+                Frame frame = stack.peek();
+
+                if (frame.next < frame.parameterTypes.length) {
+                    int position = frame.next++;
+                    Class<?> parameterType = frame.parameterTypes[position];
+
+                    if (parameterType == null) {
+                        continue;
+                    }
+
+                    ServiceDescriptor dependency = host.expand(parameterType);
+
+                    if (dependency == null) {
+                        resolvingType = parameterType;
+                        frame.arguments[position] = host.resolve(parameterType);
+                        resolvingType = null;
+
+                        if (frame.arguments[position] == null) {
+                            failure = new IllegalStateException("Не удалось разрешить зависимость " + parameterType.getName()
+                                    + ": " + pathOf(stack, parameterType));
+                            throw failure;
+                        }
+
+                        continue;
+                    }
+
+                    if (!onStack.add(dependency)) {
+                        failure = new IllegalStateException("Обнаружена циклическая зависимость: "
+                                + pathOf(stack, dependency.getServiceType()));
+                        throw failure;
+                    }
+
+                    stack.push(new Frame(dependency, registry.getPlan(dependency), host.enter(dependency)));
+                    continue;
+                }
+
+                Object instance = frame.plan.activate(host.provider(), frame.arguments);
+
+                if (stack.size() == 1) {
+                    return instance;
+                }
+
+                stack.pop();
+                onStack.remove(frame.descriptor);
+                host.complete(frame.descriptor, instance);
+                host.exit(frame.descriptor, frame.state);
+
+                Frame parent = stack.peek();
+                parent.arguments[parent.next - 1] = instance;
+            }
+        } catch (Throwable e) {
+            String path = pathOf(stack, resolvingType);
+
+            while (stack.size() > 1) {
+                Frame frame = stack.pop();
+                host.abort(frame.descriptor);
+                host.exit(frame.descriptor, frame.state);
+            }
+
+            if (e instanceof Error error) {
+                throw error;
+            }
+
+            if (e == failure) {
+                throw failure;
+            }
+
+            throw new RuntimeException("Не удалось создать экземпляр сервиса: " + path, e);
+        }
+    }
+
+    /**
+     * Формирует путь от запрошенного сервиса до вершины стека и, если указан, следующего типа.
+     */
+    private static String pathOf(ArrayDeque<Frame> stack, Class<?> nextType) {
+        StringBuilder path = new StringBuilder();
+        Iterator<Frame> frames = stack.descendingIterator();
+
+        while (frames.hasNext()) {
+            if (!path.isEmpty()) {
+                path.append(" -> ");
+            }
+
+            path.append(frames.next().descriptor.getServiceType().getName());
+        }
+
+        if (nextType != null) {
+            path.append(" -> ").append(nextType.getName());
+        }
+
+        return path.toString();
+    }
+
+    /**
+     * Создаваемый экземпляр: план, разрешённые аргументы конструктора и позиция следующего параметра.
+     */
+    private static final class Frame {
+
+        private final ServiceDescriptor descriptor;
+        private final ServiceActivationPlan plan;
+        private final Class<?>[] parameterTypes;
+        private final Object[] arguments;
+        private final Object state;
+        private int next;
+
+        private Frame(ServiceDescriptor descriptor, ServiceActivationPlan plan, Object state) {
+            this.descriptor = descriptor;
+            this.plan = plan;
+            this.parameterTypes = plan.getServiceParameterTypes();
+            this.arguments = new Object[parameterTypes.length];
+            this.state = state;
+        }
+    }
+}
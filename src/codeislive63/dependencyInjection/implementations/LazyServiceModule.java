@@ -0,0 +1,82 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.interfaces.ServiceModule;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Модуль сервисов, регистрации которого собираются при первом обращении.
+ * <p>
+ * Экземпляр разделяется всеми реестрами, составленными из одной коллекции, поэтому
+ * метод {@link ServiceModule#configure} вызывается не более одного раза.
+ * </p>
+ */
+final class LazyServiceModule {
+
+    private final ServiceModule module;
+    private final Class<?>[] serviceTypes;
+    private volatile ServiceDescriptor[] descriptors;
+
+    LazyServiceModule(ServiceModule module) {
+        this.module = module;
+        this.serviceTypes = module.getServiceTypes().clone();
+    }
+
+    /**
+     * Возвращает типы сервисов, объявленные модулем.
+     *
+     * @return Типы сервисов модуля.
+     */
+    Class<?>[] getServiceTypes() {
+        return serviceTypes;
+    }
+
+    /**
+     * Возвращает регистрации модуля, собирая их при первом вызове.
+     *
+     * @return Дескрипторы сервисов модуля в порядке регистрации.
+     * @throws IllegalStateException Если модуль не зарегистрировал один из объявленных типов
+     *                               или зарегистрировал необъявленный тип.
+     */
+    ServiceDescriptor[] load() {
+        ServiceDescriptor[] loaded = descriptors;
+        return loaded != null ? loaded : loadOnce();
+    }
+
+    private synchronized ServiceDescriptor[] loadOnce() {
+        if (descriptors != null) {
+            return descriptors;
+        }
+
+        ServiceCollectionBase services = new ServiceCollectionBase();
+        module.configure(services);
+
+        ServiceDescriptor[] loaded = new ServiceDescriptor[services.count()];
+        Set<Class<?>> declaredTypes = new HashSet<>(Arrays.asList(serviceTypes));
+        Set<Class<?>> registeredTypes = new HashSet<>();
+
+        for (int i = 0; i < loaded.length; i++) {
+            loaded[i] = services.get(i);
+
+            if (!declaredTypes.contains(loaded[i].getServiceType())) {
+                throw new IllegalStateException("Модуль " + module.getClass().getName()
+                        + " зарегистрировал необъявленный тип " + loaded[i].getServiceType().getName());
+            }
+
+            registeredTypes.add(loaded[i].getServiceType());
+        }
+
+        for (Class<?> serviceType : serviceTypes) {
+            if (!registeredTypes.contains(serviceType)) {
+                throw new IllegalStateException("Модуль " + module.getClass().getName()
+                        + " не зарегистрировал объявленный тип " + serviceType.getName());
+            }
+        }
+
+        descriptors = loaded;
+        return loaded;
+    }
+}
@@ -0,0 +1,161 @@
+package codeislive63.dependencyInjection.implementations;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Кэш экземпляров сервиса со временем жизни {@code PerThread}.
+ * <p>
+ * Основной путь использует небольшую таблицу слотов, индекс в которой вычисляется
+ * по идентификатору потока, поэтому повторное получение экземпляра сводится к чтению
+ * нескольких элементов массива. Каждый слот хранит поток-владелец и его экземпляр.
+ * </p>
+ * <p>
+ * Экземпляр завершившегося потока передаётся следующему потоку, попавшему в тот же слот.
+ * Благодаря этому миллионы короткоживущих виртуальных потоков переиспользуют ограниченное
+ * число экземпляров, а не создают по одному на каждый поток.
+ * </p>
+ * <p>
+ * Если все подходящие слоты заняты живыми потоками, экземпляр закрепляется за потоком
+ * через {@link ThreadLocal}. Такие экземпляры также учитываются в общем списке: он
+ * позволяет закрыть их при очистке кэша и передать экземпляр завершившегося потока
+ * следующему потоку, не поместившемуся в таблицу.
+ * </p>
+ */
+final class PerThreadInstanceCache {
+
+    private static final int PROBE_LENGTH = 4;
+    private static final int SLOT_COUNT = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+
+    private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(SLOT_COUNT);
+    private final ThreadLocal<Object> overflow = new ThreadLocal<>();
+    private final Queue<Entry> overflowEntries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Возвращает экземпляр, закреплённый за текущим потоком, или закрепляет новый.
+     *
+     * @param factory Метод создания экземпляра, вызываемый при промахе кэша.
+     * @return Экземпляр сервиса для текущего потока.
+     */
+    Object getOrCreate(Supplier<Object> factory) {
+        Thread current = Thread.currentThread();
+        int start = indexFor(current);
+
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            Entry entry = slots.get((start + i) & (SLOT_COUNT - 1));
+
+            if (entry != null && entry.owner() == current) {
+                return entry.instance();
+            }
+        }
+
+        Object instance = overflow.get();
+
+        if (instance != null) {
+            return instance;
+        }
+
+        Object created = null;
+
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            int index = (start + i) & (SLOT_COUNT - 1);
+            Entry entry = slots.get(index);
+
+            if (entry == null) {
+                if (created == null) {
+                    created = factory.get();
+                }
+
+                if (slots.compareAndSet(index, null, new Entry(current, created))) {
+                    return created;
+                }
+            } else if (!entry.owner().isAlive() && slots.compareAndSet(index, entry, new Entry(current, entry.instance()))) {
+                return entry.instance();
+            }
+        }
+
+        return getOrCreateOverflow(current, created, factory);
+    }
+
+    /**
+     * Закрепляет экземпляр за потоком, для которого не нашлось слота в таблице.
+     *
+     * @param current Текущий поток.
+     * @param created Экземпляр, уже созданный при неудачной попытке занять слот, или {@code null}.
+     * @param factory Метод создания экземпляра.
+     * @return Экземпляр сервиса для текущего потока.
+     */
+    private Object getOrCreateOverflow(Thread current, Object created, Supplier<Object> factory) {
+        Object instance = created != null ? created : reclaimOverflow();
+
+        if (instance == null) {
+            instance = factory.get();
+        }
+
+        overflowEntries.add(new Entry(current, instance));
+        overflow.set(instance);
+        return instance;
+    }
+
+    private Object reclaimOverflow() {
+        for (Entry entry : overflowEntries) {
+            if (!entry.owner().isAlive() && overflowEntries.remove(entry)) {
+                return entry.instance();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Удаляет все закреплённые экземпляры и закрывает те из них, которые реализуют {@link AutoCloseable}.
+     */
+    void clear() {
+        RuntimeException failure = null;
+
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            failure = close(slots.getAndSet(i, null), failure);
+        }
+
+        for (Entry entry = overflowEntries.poll(); entry != null; entry = overflowEntries.poll()) {
+            failure = close(entry, failure);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException close(Entry entry, RuntimeException failure) {
+        if (entry != null && entry.instance() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    return new IllegalStateException("Не удалось закрыть экземпляр сервиса.", e);
+                }
+
+                failure.addSuppressed(e);
+            }
+        }
+
+        return failure;
+    }
+
+    private static int indexFor(Thread thread) {
+        long id = thread.threadId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (SLOT_COUNT - 1);
+    }
+
+    /**
+     * Запись слота: поток-владелец и закреплённый за ним экземпляр.
+     *
+     * @param owner    Поток-владелец.
+     * @param instance Экземпляр сервиса.
+     */
+    private record Entry(Thread owner, Object instance) {
+    }
+}
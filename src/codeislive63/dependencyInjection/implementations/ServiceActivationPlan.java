@@ -0,0 +1,758 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.collections.generic.Enumerable;
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.ServiceDecorator;
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.annotations.Cached;
+import codeislive63.dependencyInjection.annotations.Inject;
+import codeislive63.dependencyInjection.diagnostics.DependencyKind;
+import codeislive63.dependencyInjection.interfaces.CachedService;
+import codeislive63.dependencyInjection.interfaces.Options;
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Set;
+
+/**
+ * План активации сервиса, подготовленный при построении провайдера.
+ * <p>
+ * План содержит выбранный конструктор, методы, помеченные {@link Inject}, цепочку
+ * декораторов и прокси-класс с перехватчиками и кэшами методов. Конструкторы и методы заранее преобразуются в {@link MethodHandle},
+ * поэтому при создании экземпляра не выполняется ни поиск членов класса, ни
+ * рефлексивный вызов.
+ * </p>
+ * <p>
+ * Параметры типа {@link List}, {@link Enumerable} или массива заполняются всеми регистрациями
+ * типа элемента в порядке регистрации, а параметр типа {@link Options} — первой регистрацией
+ * типа параметров. Тип элемента определяется по сигнатуре один раз при составлении плана,
+ * а регистрации элемента берутся из индекса реестра.
+ * </p>
+ * <p>
+ * Провайдер может составить для плана шаблон аргументов конструктора, в котором заранее
+ * подставлены стабильные зависимости — синглтоны и экземпляры. При активации по шаблону
+ * разрешаются только оставшиеся аргументы.
+ * </p>
+ */
+final class ServiceActivationPlan {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType METHOD_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+    private static final Class<?>[] CACHED_SERVICE_INTERFACES = {CachedService.class};
+
+    private static final ClassValue<InjectionSite[]> INJECTION_SITES = new ClassValue<>() {
+        @Override
+        protected InjectionSite[] computeValue(Class<?> type) {
+            return discoverInjectionSites(type);
+        }
+    };
+
+    private final ServiceDescriptor descriptor;
+    private final MethodHandle constructor;
+    private final Class<?>[] constructorParameterTypes;
+    private final ElementPlan[] constructorElements;
+    private final Class<?>[] serviceParameterTypes;
+    private final InjectionSite[] injectionSites;
+    private final DecoratorLayer[] decorators;
+    private final List<ServiceMethodCache.CachedMethod> cachedMethods;
+    private final ServiceProxyFactory proxyFactory;
+
+    private ServiceActivationPlan(ServiceDescriptor descriptor, MethodHandle constructor, Class<?>[] constructorParameterTypes,
+                                  ElementPlan[] constructorElements, InjectionSite[] injectionSites, DecoratorLayer[] decorators,
+                                  List<ServiceMethodCache.CachedMethod> cachedMethods, ServiceProxyFactory proxyFactory) {
+        this.descriptor = descriptor;
+        this.constructor = constructor;
+        this.constructorParameterTypes = constructorParameterTypes;
+        this.constructorElements = constructorElements;
+        this.serviceParameterTypes = constructor != null ? serviceParameterTypesOf(constructorParameterTypes, constructorElements) : null;
+        this.injectionSites = injectionSites;
+        this.decorators = decorators;
+        this.cachedMethods = cachedMethods;
+        this.proxyFactory = proxyFactory;
+    }
+
+    /**
+     * Подготавливает план активации для указанного дескриптора.
+     *
+     * @param descriptor      Дескриптор сервиса.
+     * @param registeredTypes Типы всех зарегистрированных сервисов, используются при выборе конструктора.
+     * @param decorators      Декораторы, применяемые к сервису, в порядке регистрации.
+     * @param interceptors    Перехватчики, применяемые к сервису, в порядке регистрации.
+     * @return План активации сервиса.
+     * @throws IllegalStateException Если дескриптор, декоратор или перехватчик не может быть использован.
+     */
+    static ServiceActivationPlan compile(ServiceDescriptor descriptor, Set<Class<?>> registeredTypes, List<ServiceDecorator> decorators,
+                                         ServiceInterceptor[] interceptors) {
+        MethodHandle constructor = null;
+        Class<?>[] constructorParameterTypes = null;
+        ElementPlan[] constructorElements = null;
+        InjectionSite[] injectionSites = null;
+
+        if (descriptor.getImplementationInstance() == null && descriptor.getImplementationFactory() == null) {
+            if (descriptor.getImplementationType() == null) {
+                throw new IllegalStateException("Неверный дескриптор: " + descriptor);
+            }
+
+            Constructor<?> selected = selectConstructor(descriptor.getImplementationType(), registeredTypes);
+
+            if (selected != null) {
+                constructor = unreflectConstructor(selected);
+                constructorParameterTypes = selected.getParameterTypes();
+                constructorElements = compileElements(selected);
+            }
+
+            injectionSites = INJECTION_SITES.get(descriptor.getImplementationType());
+        }
+
+        DecoratorLayer[] layers = new DecoratorLayer[decorators.count()];
+
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = compileDecorator(descriptor.getServiceType(), decorators.get(i).getDecoratorType(), registeredTypes);
+        }
+
+        List<ServiceMethodCache.CachedMethod> cachedMethods = null;
+        ServiceProxyFactory proxyFactory = null;
+
+        if (descriptor.getLifetime() == ServiceLifetime.SINGLETON && hasCachedMethods(descriptor.getServiceType())) {
+            cachedMethods = new List<>();
+            proxyFactory = createCachingProxyFactory(descriptor.getServiceType(), interceptors, cachedMethods);
+        } else if (interceptors.length > 0) {
+            proxyFactory = ServiceProxyFactory.create(descriptor.getServiceType(), ServiceProxyFactory.intercepting(interceptors));
+        }
+
+        return new ServiceActivationPlan(descriptor, constructor, constructorParameterTypes, constructorElements, injectionSites,
+                layers, cachedMethods, proxyFactory);
+    }
+
+    private static Class<?>[] serviceParameterTypesOf(Class<?>[] parameterTypes, ElementPlan[] elements) {
+        Class<?>[] result = parameterTypes.clone();
+
+        for (int i = 0; elements != null && i < elements.length; i++) {
+            if (elements[i] != null) {
+                result[i] = null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Возвращает типы параметров конструктора, которые разрешаются по типу сервиса. Позиции
+     * параметров-коллекций и параметров {@link Options} содержат {@code null}.
+     *
+     * @return Типы параметров или {@code null}, если экземпляр создаётся не конструктором.
+     */
+    Class<?>[] getServiceParameterTypes() {
+        return serviceParameterTypes;
+    }
+
+    /**
+     * Возвращает дескриптор сервиса, для которого составлен план.
+     *
+     * @return Дескриптор сервиса.
+     */
+    ServiceDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Возвращает зависимости, которые план запрашивает у провайдера: параметры конструктора,
+     * методов {@link Inject} и декораторов. Параметр-коллекция зависит от всех регистраций
+     * типа элемента. Зависимости фабрик неизвестны до их вызова.
+     *
+     * @return Зависимости в порядке параметров.
+     */
+    List<Dependency> getDependencies() {
+        List<Dependency> dependencies = new List<>();
+
+        if (constructorParameterTypes != null) {
+            addDependencies(dependencies, constructorParameterTypes, constructorElements, -1, DependencyKind.CONSTRUCTOR);
+        }
+
+        if (injectionSites != null) {
+            for (InjectionSite site : injectionSites) {
+                addDependencies(dependencies, site.parameterTypes(), site.elements(), -1, DependencyKind.INJECT_METHOD);
+            }
+        }
+
+        for (DecoratorLayer layer : decorators) {
+            addDependencies(dependencies, layer.parameterTypes(), layer.elements(), layer.innerIndex(), DependencyKind.DECORATOR);
+
+            for (InjectionSite site : layer.injectionSites()) {
+                addDependencies(dependencies, site.parameterTypes(), site.elements(), -1, DependencyKind.INJECT_METHOD);
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Проверяет, может ли выбор конструкторов плана измениться, если указанные типы станут
+     * зарегистрированными или перестанут быть ими: параметр одного из открытых конструкторов
+     * реализации или декоратора имеет такой тип или является {@link Options} такого типа.
+     *
+     * @param types Типы, регистрация которых изменилась.
+     * @return {@code true}, если план нужно составить заново.
+     */
+    boolean isSelectionAffectedBy(Set<Class<?>> types) {
+        if (constructor != null && mentionsAny(descriptor.getImplementationType(), types)) {
+            return true;
+        }
+
+        for (DecoratorLayer layer : decorators) {
+            if (mentionsAny(layer.decoratorType(), types)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean mentionsAny(Class<?> type, Set<Class<?>> types) {
+        for (Constructor<?> candidate : type.getConstructors()) {
+            for (Parameter parameter : candidate.getParameters()) {
+                if (types.contains(parameter.getType())) {
+                    return true;
+                }
+
+                ElementPlan element = compileElement(parameter);
+
+                if (element != null && element.kind() == ElementKind.OPTIONS && types.contains(element.elementType())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static void addDependencies(List<Dependency> dependencies, Class<?>[] parameterTypes, ElementPlan[] elements,
+                                        int skippedIndex, DependencyKind kind) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i == skippedIndex) {
+                continue;
+            }
+
+            if (elements != null && elements[i] != null) {
+                dependencies.add(new Dependency(elements[i].elementType(), kind, elements[i].kind() != ElementKind.OPTIONS));
+            } else {
+                dependencies.add(new Dependency(parameterTypes[i], kind, false));
+            }
+        }
+    }
+
+    /**
+     * Создаёт экземпляр сервиса, разрешая зависимости через указанный провайдер.
+     *
+     * @param provider Провайдер, через который разрешаются зависимости.
+     * @return Экземпляр сервиса.
+     * @throws Throwable Если конструктор, фабричный метод или метод внедрения завершились с исключением.
+     */
+    Object activate(ServiceProvider provider) throws Throwable {
+        return activate(provider, null);
+    }
+
+    /**
+     * Создаёт экземпляр сервиса, подставляя в конструктор заполненные аргументы шаблона
+     * и разрешая остальные через указанный провайдер.
+     *
+     * @param provider Провайдер, через который разрешаются зависимости.
+     * @param template Шаблон аргументов конструктора или {@code null}.
+     * @return Экземпляр сервиса.
+     * @throws Throwable Если конструктор, фабричный метод или метод внедрения завершились с исключением.
+     */
+    Object activate(ServiceProvider provider, Object[] template) throws Throwable {
+        Object instance;
+        InjectionSite[] sites = injectionSites;
+
+        if (descriptor.getImplementationInstance() != null) {
+            instance = descriptor.getImplementationInstance();
+        } else if (descriptor.getImplementationFactory() != null) {
+            instance = descriptor.getImplementationFactory().apply(provider);
+        } else if (constructor == null) {
+            throw new IllegalStateException("Не удалось найти подходящий конструктор для " + descriptor.getImplementationType());
+        } else {
+            instance = (Object) constructor.invokeExact(resolveArguments(constructorParameterTypes, constructorElements, template, provider,
+                    descriptor.getImplementationType()));
+        }
+
+        if (instance == null) {
+            return null;
+        }
+
+        inject(instance, sites != null ? sites : INJECTION_SITES.get(instance.getClass()), provider);
+
+        for (DecoratorLayer layer : decorators) {
+            instance = layer.decorate(instance, provider);
+        }
+
+        if (cachedMethods != null) {
+            return proxyFactory.newProxy(instance, ServiceMethodCache.createCaches(cachedMethods));
+        }
+
+        return proxyFactory != null ? proxyFactory.newProxy(instance) : instance;
+    }
+
+    /**
+     * Проверяет, имеет ли смысл составлять шаблон аргументов для плана: экземпляры создаются
+     * конструктором с параметрами и больше одного раза.
+     *
+     * @return {@code true}, если для плана можно составить шаблон аргументов.
+     */
+    boolean hasArgumentTemplate() {
+        return constructor != null && constructorParameterTypes.length > 0 && descriptor.getLifetime() != ServiceLifetime.SINGLETON;
+    }
+
+    /**
+     * Составляет шаблон аргументов конструктора. Аргумент стабилен, если первая регистрация
+     * его типа является синглтоном: такой аргумент запрашивается у провайдера один раз
+     * и сохраняется в шаблоне, остальные аргументы, включая коллекции, остаются пустыми.
+     *
+     * @param registry Реестр, по которому выполняется разрешение.
+     * @param provider Провайдер, которому принадлежат синглтоны.
+     * @return Шаблон аргументов конструктора.
+     */
+    Object[] createArgumentTemplate(ServiceRegistry registry, ServiceProvider provider) {
+        Object[] template = new Object[constructorParameterTypes.length];
+
+        for (int i = 0; i < template.length; i++) {
+            if (constructorElements != null && constructorElements[i] != null) {
+                continue;
+            }
+
+            ServiceDescriptor[] descriptors = registry.getDescriptors(constructorParameterTypes[i]);
+
+            if (descriptors.length > 0 && descriptors[0].getLifetime() == ServiceLifetime.SINGLETON) {
+                template[i] = provider.getService(constructorParameterTypes[i]);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Составляет прокси с кэшами методов, помеченных {@link Cached}. Прокси-класс составляется
+     * один раз для плана, а кэши принадлежат экземпляру сервиса и передаются прокси как его
+     * состояние при каждой активации. Перехватчики оборачивают обращение к кэшу.
+     */
+    private static ServiceProxyFactory createCachingProxyFactory(Class<?> serviceType, ServiceInterceptor[] interceptors,
+                                                                 List<ServiceMethodCache.CachedMethod> cachedMethods) {
+        ServiceProxyFactory.MethodHandleTransformer transformer = ServiceMethodCache.caching(cachedMethods);
+
+        if (interceptors.length > 0) {
+            transformer = transformer.andThen(ServiceProxyFactory.intercepting(interceptors));
+        }
+
+        return ServiceProxyFactory.createWithState(serviceType, CACHED_SERVICE_INTERFACES, transformer);
+    }
+
+    private static boolean hasCachedMethods(Class<?> serviceType) {
+        if (!serviceType.isInterface()) {
+            return false;
+        }
+
+        boolean hasCachedMethods = false;
+
+        for (Method method : serviceType.getMethods()) {
+            if (method.isAnnotationPresent(Cached.class)) {
+                ServiceMethodCache.validate(method);
+                hasCachedMethods = true;
+            }
+        }
+
+        return hasCachedMethods;
+    }
+
+    private static void inject(Object instance, InjectionSite[] sites, ServiceProvider provider) {
+        for (InjectionSite site : sites) {
+            try {
+                site.handle().invokeExact(instance, resolveArguments(site.parameterTypes(), site.elements(), null, provider, site.method()));
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("Не удалось вызвать метод с зависимостями: " + site.method().getName(), e);
+            }
+        }
+    }
+
+    private static Object[] resolveArguments(Class<?>[] parameterTypes, ElementPlan[] elements, Object[] template,
+                                             ServiceProvider provider, Object target) {
+        Object[] arguments = template != null ? template.clone() : new Object[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (arguments[i] != null) {
+                continue;
+            }
+
+            arguments[i] = elements != null && elements[i] != null
+                    ? elements[i].resolve(provider)
+                    : provider.getService(parameterTypes[i]);
+
+            if (arguments[i] == null) {
+                throw new IllegalStateException("Не удалось разрешить зависимость для параметра " + parameterTypes[i].getName() + " в " + target);
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Выбирает конструктор для создания экземпляра: конструктор, помеченный {@link Inject},
+     * или конструктор с наибольшим числом параметров, все из которых зарегистрированы.
+     * Параметр-коллекция удовлетворяется всегда, поскольку может остаться пустым, а параметр
+     * {@link Options} — если зарегистрирован тип параметров.
+     *
+     * @param type            Тип реализации.
+     * @param registeredTypes Типы всех зарегистрированных сервисов.
+     * @return Выбранный конструктор или {@code null}, если у типа нет публичных конструкторов.
+     */
+    private static Constructor<?> selectConstructor(Class<?> type, Set<Class<?>> registeredTypes) {
+        Constructor<?>[] constructors = type.getConstructors();
+        Constructor<?> selected = null;
+
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                return constructor;
+            }
+
+            if (isSatisfiable(constructor, registeredTypes)
+                    && (selected == null || constructor.getParameterCount() > selected.getParameterCount())) {
+                selected = constructor;
+            }
+        }
+
+        return selected != null || constructors.length == 0 ? selected : constructors[0];
+    }
+
+    private static boolean isSatisfiable(Constructor<?> constructor, Set<Class<?>> registeredTypes) {
+        for (Parameter parameter : constructor.getParameters()) {
+            if (registeredTypes.contains(parameter.getType())) {
+                continue;
+            }
+
+            ElementPlan element = compileElement(parameter);
+
+            if (element == null || element.kind() == ElementKind.OPTIONS && !registeredTypes.contains(element.elementType())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Составляет планы параметров-коллекций и параметров {@link Options}.
+     *
+     * @param member Конструктор или метод.
+     * @return Планы в позициях таких параметров или {@code null}, если таких параметров нет.
+     */
+    private static ElementPlan[] compileElements(Executable member) {
+        Parameter[] parameters = member.getParameters();
+        ElementPlan[] elements = null;
+
+        for (int i = 0; i < parameters.length; i++) {
+            ElementPlan element = compileElement(parameters[i]);
+
+            if (element != null) {
+                elements = elements != null ? elements : new ElementPlan[parameters.length];
+                elements[i] = element;
+            }
+        }
+
+        return elements;
+    }
+
+    private static ElementPlan compileElement(Parameter parameter) {
+        Class<?> type = parameter.getType();
+
+        if (type.isArray()) {
+            return type.getComponentType().isPrimitive() ? null : new ElementPlan(type.getComponentType(), ElementKind.ARRAY);
+        }
+
+        ElementKind kind;
+
+        if (type == List.class || type == Enumerable.class) {
+            kind = ElementKind.LIST;
+        } else if (type == Options.class) {
+            kind = ElementKind.OPTIONS;
+        } else {
+            return null;
+        }
+
+        Class<?> elementType = elementTypeOf(parameter.getParameterizedType());
+        return elementType != null ? new ElementPlan(elementType, kind) : null;
+    }
+
+    private static Class<?> elementTypeOf(Type type) {
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return null;
+        }
+
+        Type argument = parameterized.getActualTypeArguments()[0];
+
+        if (argument instanceof WildcardType wildcard) {
+            argument = wildcard.getUpperBounds()[0];
+        }
+
+        if (argument instanceof ParameterizedType nested) {
+            argument = nested.getRawType();
+        }
+
+        return argument instanceof Class<?> elementType && elementType != Object.class ? elementType : null;
+    }
+
+    private static DecoratorLayer compileDecorator(Class<?> serviceType, Class<?> decoratorType, Set<Class<?>> registeredTypes) {
+        if (!serviceType.isAssignableFrom(decoratorType)) {
+            throw new IllegalStateException("Декоратор " + decoratorType.getName() + " не реализует " + serviceType.getName());
+        }
+
+        Constructor<?> selected = null;
+        boolean hasInnerConstructor = false;
+
+        for (Constructor<?> constructor : decoratorType.getConstructors()) {
+            if (indexOfInner(constructor, serviceType) < 0) {
+                continue;
+            }
+
+            hasInnerConstructor = true;
+
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                selected = constructor;
+                break;
+            }
+
+            if (isSatisfiable(constructor, registeredTypes) && isPreferred(constructor, selected)) {
+                selected = constructor;
+            }
+        }
+
+        if (!hasInnerConstructor) {
+            throw new IllegalStateException("Декоратор " + decoratorType.getName() + " должен принимать " + serviceType.getName() + " в конструкторе");
+        }
+
+        if (selected == null) {
+            throw new IllegalStateException("Не удалось найти конструктор декоратора " + decoratorType.getName()
+                    + ", все зависимости которого зарегистрированы");
+        }
+
+        return new DecoratorLayer(decoratorType, unreflectConstructor(selected), selected.getParameterTypes(),
+                compileElements(selected), indexOfInner(selected, serviceType), INJECTION_SITES.get(decoratorType));
+    }
+
+    /**
+     * Сравнивает конструкторы декоратора: предпочтителен конструктор с большим числом
+     * параметров, а при равном числе — с меньшей по алфавиту сигнатурой, чтобы выбор
+     * не зависел от порядка, в котором их возвращает {@link Class#getConstructors()}.
+     */
+    private static boolean isPreferred(Constructor<?> candidate, Constructor<?> selected) {
+        if (selected == null) {
+            return true;
+        }
+
+        if (candidate.getParameterCount() != selected.getParameterCount()) {
+            return candidate.getParameterCount() > selected.getParameterCount();
+        }
+
+        return signatureOf(candidate).compareTo(signatureOf(selected)) < 0;
+    }
+
+    private static String signatureOf(Constructor<?> constructor) {
+        StringBuilder signature = new StringBuilder();
+
+        for (Class<?> parameterType : constructor.getParameterTypes()) {
+            signature.append(parameterType.descriptorString());
+        }
+
+        return signature.toString();
+    }
+
+    private static int indexOfInner(Constructor<?> constructor, Class<?> serviceType) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i] == serviceType) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static InjectionSite[] discoverInjectionSites(Class<?> type) {
+        List<InjectionSite> sites = new List<>();
+
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Inject.class)) {
+                MethodHandle handle = unreflect(method);
+                sites.add(new InjectionSite(method, handle.asSpreader(Object[].class, method.getParameterCount()).asType(METHOD_TYPE),
+                        method.getParameterTypes(), compileElements(method)));
+            }
+        }
+
+        InjectionSite[] result = new InjectionSite[sites.count()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sites.get(i);
+        }
+
+        return result;
+    }
+
+    private static MethodHandle unreflectConstructor(Constructor<?> constructor) {
+        return makeAccessible(constructor, () -> LOOKUP.unreflectConstructor(constructor))
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(CONSTRUCTOR_TYPE);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        return makeAccessible(method, () -> LOOKUP.unreflect(method));
+    }
+
+    /**
+     * Получает {@link MethodHandle} для члена класса. Если член недоступен из пакета
+     * контейнера (например, объявлен в непубличном классе), доступ открывается явно.
+     */
+    private static MethodHandle makeAccessible(Executable member, HandleFactory factory) {
+        try {
+            return factory.create();
+        } catch (IllegalAccessException e) {
+            if (!member.trySetAccessible()) {
+                throw new IllegalStateException("Нет доступа к " + member, e);
+            }
+
+            try {
+                return factory.create();
+            } catch (IllegalAccessException inner) {
+                throw new IllegalStateException("Нет доступа к " + member, inner);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface HandleFactory {
+        MethodHandle create() throws IllegalAccessException;
+    }
+
+    /**
+     * Зависимость, запрашиваемая планом у провайдера.
+     *
+     * @param serviceType Тип запрашиваемого сервиса или тип элемента коллекции.
+     * @param kind        Способ получения зависимости.
+     * @param isMultiple  Запрашиваются ли все регистрации типа, а не первая.
+     */
+    record Dependency(Class<?> serviceType, DependencyKind kind, boolean isMultiple) {
+    }
+
+    /**
+     * Вид параметра, значение которого составляется из регистраций типа элемента.
+     */
+    private enum ElementKind {
+        LIST,
+        ARRAY,
+        OPTIONS
+    }
+
+    /**
+     * Параметр, значение которого составляется из регистраций типа элемента: коллекция
+     * всех регистраций или {@link Options} с первой регистрацией.
+     * <p>
+     * Провайдеры и области составляют для каждого вызова {@code getServices} новый список,
+     * поэтому он передаётся параметру без копирования, а массив заполняется из него напрямую.
+     * Набор регистраций не сохраняется в плане: план используется реестрами с разными
+     * регистрациями одного типа, а области могут переопределять сервис.
+     * </p>
+     *
+     * @param elementType Тип элемента.
+     * @param kind        Вид параметра.
+     */
+    private record ElementPlan(Class<?> elementType, ElementKind kind) {
+
+        Object resolve(ServiceProvider provider) {
+            if (kind == ElementKind.OPTIONS) {
+                Object value = provider.getService(elementType);
+                return value != null ? new OptionsValue<>(value) : null;
+            }
+
+            Enumerable<?> services = provider.getServices(elementType);
+            List<?> elements = services instanceof List<?> list ? list : copy(services);
+
+            if (kind == ElementKind.LIST) {
+                return elements;
+            }
+
+            Object[] array = (Object[]) Array.newInstance(elementType, elements.count());
+
+            for (int i = 0; i < array.length; i++) {
+                array[i] = elements.get(i);
+            }
+
+            return array;
+        }
+
+        private static List<Object> copy(Enumerable<?> services) {
+            List<Object> elements = new List<>();
+
+            for (Object service : services) {
+                elements.add(service);
+            }
+
+            return elements;
+        }
+    }
+
+    /**
+     * Параметры, внедряемые через {@link Options}.
+     *
+     * @param get Экземпляр параметров.
+     * @param <T> Тип параметров.
+     */
+    private record OptionsValue<T>(T get) implements Options<T> {
+    }
+
+    /**
+     * Метод, помеченный {@link Inject}, с заранее подготовленным {@link MethodHandle}.
+     *
+     * @param method         Метод внедрения.
+     * @param handle         Обработчик вызова вида {@code (Object, Object[])void}.
+     * @param parameterTypes Типы параметров метода.
+     * @param elements       Планы параметров-коллекций или {@code null}.
+     */
+    private record InjectionSite(Method method, MethodHandle handle, Class<?>[] parameterTypes, ElementPlan[] elements) {
+    }
+
+    /**
+     * Слой цепочки декораторов.
+     *
+     * @param decoratorType  Тип декоратора.
+     * @param constructor    Конструктор декоратора вида {@code (Object[])Object}.
+     * @param parameterTypes Типы параметров конструктора.
+     * @param elements       Планы параметров-коллекций или {@code null}.
+     * @param innerIndex     Индекс параметра, принимающего оборачиваемый экземпляр.
+     * @param injectionSites Методы внедрения декоратора.
+     */
+    private record DecoratorLayer(Class<?> decoratorType, MethodHandle constructor, Class<?>[] parameterTypes,
+                                  ElementPlan[] elements, int innerIndex, InjectionSite[] injectionSites) {
+
+        Object decorate(Object inner, ServiceProvider provider) throws Throwable {
+            Object[] template = new Object[parameterTypes.length];
+            template[innerIndex] = inner;
+
+            Object instance = (Object) constructor.invokeExact(resolveArguments(parameterTypes, elements, template, provider, decoratorType));
+            inject(instance, injectionSites, provider);
+            return instance;
+        }
+    }
+}
@@ -3,10 +3,23 @@ package codeislive63.dependencyInjection.implementations;
 import codeislive63.collections.generic.Enumerator;
 import codeislive63.collections.generic.List;
 import codeislive63.delegates.generic.Func;
+import codeislive63.dependencyInjection.ServiceCachePolicy;
+import codeislive63.dependencyInjection.ServiceDecorator;
 import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceInterception;
 import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+import codeislive63.dependencyInjection.configuration.Configuration;
+import codeislive63.dependencyInjection.diagnostics.StartupProfiler;
+import codeislive63.dependencyInjection.index.ServiceIndex;
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+import codeislive63.dependencyInjection.interfaces.EventPublisher;
+import codeislive63.dependencyInjection.interfaces.ReloadableServiceProvider;
 import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+import codeislive63.dependencyInjection.interfaces.ServiceModule;
 import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceProviderTemplate;
 import codeislive63.dependencyInjection.interfaces.ServiceScope;
 import codeislive63.jenumerable.JEnumerable;
 
@@ -20,7 +33,15 @@ import codeislive63.jenumerable.JEnumerable;
 public class ServiceCollectionBase implements ServiceCollection {
 
     private final List<ServiceDescriptor> services = new List<>();
+    private final List<ServiceDecorator> decorators = new List<>();
+    private final List<ServiceInterception> interceptions = new List<>();
+    private final List<EventDispatcher.Subscription> eventSubscriptions = new List<>();
+    private final List<LazyServiceModule> modules = new List<>();
     private Func<ServiceProvider, ServiceScope> scopeFactory;
+    private StartupProfiler startupProfiler;
+    private boolean isMeasuringActivations = false;
+    private boolean isResolvingIteratively = false;
+    private int warmUpParallelism = ServiceWarmUp.DEFAULT_PARALLELISM;
 
     private boolean isServiceProviderBuilt = false;
 
@@ -147,6 +168,302 @@ public class ServiceCollectionBase implements ServiceCollection {
         return this;
     }
 
+    /**
+     * Регистрирует per-thread зависимость.
+     *
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TAbstract, TImplementation extends TAbstract> ServiceCollection addPerThread(Class<TAbstract> abstractType, Class<TImplementation> implementationType) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(abstractType, implementationType, ServiceLifetime.PER_THREAD));
+        return this;
+    }
+
+    /**
+     * Регистрирует per-thread зависимость с помощью фабричного метода.
+     *
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addPerThread(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(serviceType, implementationFactory, ServiceLifetime.PER_THREAD));
+        return this;
+    }
+
+    /**
+     * Регистрирует per-thread зависимость для указанного класса сервиса.
+     *
+     * @param implementationClass Класс типа сервиса.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addPerThread(Class<TService> implementationClass) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(implementationClass, implementationClass, ServiceLifetime.PER_THREAD));
+        return this;
+    }
+
+    /**
+     * Регистрирует pooled зависимость.
+     *
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @param poolPolicy         Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TAbstract, TImplementation extends TAbstract> ServiceCollection addPooled(Class<TAbstract> abstractType, Class<TImplementation> implementationType, ServicePoolPolicy<TAbstract> poolPolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(abstractType, implementationType, poolPolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует pooled зависимость с помощью фабричного метода.
+     *
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param poolPolicy            Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addPooled(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory, ServicePoolPolicy<TService> poolPolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(serviceType, implementationFactory, poolPolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует pooled зависимость для указанного класса сервиса.
+     *
+     * @param implementationClass Класс типа сервиса.
+     * @param poolPolicy          Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addPooled(Class<TService> implementationClass, ServicePoolPolicy<TService> poolPolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(implementationClass, implementationClass, poolPolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует cached зависимость.
+     *
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @param cachePolicy        Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TAbstract, TImplementation extends TAbstract> ServiceCollection addCached(Class<TAbstract> abstractType, Class<TImplementation> implementationType, ServiceCachePolicy<TAbstract> cachePolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(abstractType, implementationType, cachePolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует cached зависимость с помощью фабричного метода.
+     *
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param cachePolicy           Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addCached(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory, ServiceCachePolicy<TService> cachePolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(serviceType, implementationFactory, cachePolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует cached зависимость для указанного класса сервиса.
+     *
+     * @param implementationClass Класс типа сервиса.
+     * @param cachePolicy         Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection addCached(Class<TService> implementationClass, ServiceCachePolicy<TService> cachePolicy) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(implementationClass, implementationClass, cachePolicy));
+        return this;
+    }
+
+    /**
+     * Регистрирует конфигурацию как singleton сервис.
+     *
+     * @param configuration Загруженная конфигурация.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection addConfiguration(Configuration configuration) {
+        return addSingleton(Configuration.class, provider -> configuration);
+    }
+
+    /**
+     * Регистрирует параметры, связанные с разделом зарегистрированной конфигурации, как singleton сервис.
+     *
+     * @param optionsType Класс параметров.
+     * @param section     Имя раздела конфигурации.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TOptions> ServiceCollection addOptions(Class<TOptions> optionsType, String section) {
+        return addSingleton(optionsType, provider -> provider.getRequiredService(Configuration.class).bind(section, optionsType));
+    }
+
+    /**
+     * Регистрирует обработчик событий указанного типа и его подтипов.
+     *
+     * @param eventType   Класс события.
+     * @param handlerType Класс обработчика.
+     * @param lifetime    Время жизни обработчика.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TEvent, THandler extends EventHandler<TEvent>> ServiceCollection addEventHandler(Class<TEvent> eventType, Class<THandler> handlerType, ServiceLifetime lifetime) {
+        ensureServiceProviderNotBuilt();
+        services.add(new ServiceDescriptor(handlerType, handlerType, lifetime));
+        eventSubscriptions.add(new EventDispatcher.Subscription(eventType, handlerType));
+        return this;
+    }
+
+    /**
+     * Регистрирует модуль сервисов, регистрация которого откладывается до первого запроса
+     * одного из объявленных им типов.
+     *
+     * @param module Модуль сервисов.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection addModule(ServiceModule module) {
+        ensureServiceProviderNotBuilt();
+        modules.add(new LazyServiceModule(module));
+        return this;
+    }
+
+    /**
+     * Регистрирует сервисы из индекса, сформированного на этапе сборки. Индексы ищутся
+     * через контекстный загрузчик классов текущего потока.
+     *
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection addIndexedServices() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return addIndexedServices(classLoader != null ? classLoader : ServiceCollectionBase.class.getClassLoader());
+    }
+
+    /**
+     * Регистрирует сервисы из индекса, сформированного на этапе сборки.
+     *
+     * @param classLoader Загрузчик классов, через который ищутся индексы и загружаются типы.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection addIndexedServices(ClassLoader classLoader) {
+        ensureServiceProviderNotBuilt();
+
+        for (ServiceDescriptor descriptor : ServiceIndex.read(classLoader)) {
+            services.add(descriptor);
+        }
+
+        return this;
+    }
+
+    /**
+     * Регистрирует декоратор для всех реализаций указанного сервиса.
+     *
+     * @param serviceType   Класс типа сервиса.
+     * @param decoratorType Класс декоратора.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService, TDecorator extends TService> ServiceCollection decorate(Class<TService> serviceType, Class<TDecorator> decoratorType) {
+        ensureServiceProviderNotBuilt();
+        decorators.add(new ServiceDecorator(serviceType, decoratorType));
+        return this;
+    }
+
+    /**
+     * Регистрирует перехватчик вызовов для всех реализаций указанного интерфейса сервиса.
+     *
+     * @param serviceType Интерфейс сервиса.
+     * @param interceptor Перехватчик вызовов.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public <TService> ServiceCollection intercept(Class<TService> serviceType, ServiceInterceptor interceptor) {
+        ensureServiceProviderNotBuilt();
+        interceptions.add(new ServiceInterception(serviceType, interceptor));
+        return this;
+    }
+
+    /**
+     * Подключает профилировщик запуска к провайдеру, который будет построен.
+     *
+     * @param profiler Профилировщик запуска.
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection profileStartup(StartupProfiler profiler) {
+        ensureServiceProviderNotBuilt();
+        this.startupProfiler = profiler;
+        return this;
+    }
+
+    /**
+     * Включает измерение количества и времени создания экземпляров каждого сервиса.
+     *
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection measureActivations() {
+        ensureServiceProviderNotBuilt();
+        this.isMeasuringActivations = true;
+        return this;
+    }
+
+    /**
+     * Включает создание экземпляров обходом зависимостей с явным стеком вместо
+     * рекурсивного разрешения.
+     *
+     * @return Текущая коллекция сервисов.
+     */
+    @Override
+    public ServiceCollection useIterativeResolution() {
+        ensureServiceProviderNotBuilt();
+        this.isResolvingIteratively = true;
+        return this;
+    }
+
+    /**
+     * Устанавливает максимальное число фоновых потоков прогрева синглтонов.
+     *
+     * @param parallelism Максимальное число потоков прогрева.
+     * @return Текущая коллекция сервисов.
+     * @throws IllegalArgumentException Если число потоков меньше единицы.
+     */
+    @Override
+    public ServiceCollection setWarmUpParallelism(int parallelism) {
+        ensureServiceProviderNotBuilt();
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков прогрева должно быть положительным: " + parallelism);
+        }
+
+        this.warmUpParallelism = parallelism;
+        return this;
+    }
+
     /**
      * Устанавливает пользовательский фабричный метод для создания экземпляров ServiceScope.
      *
@@ -167,16 +484,98 @@ public class ServiceCollectionBase implements ServiceCollection {
      */
     @Override
     public ServiceProvider buildServiceProvider() {
+        return buildServiceProvider(isRequiredScopeFactory(), false);
+    }
+
+    /**
+     * Создаёт и возвращает провайдера сервисов, регистрации которого можно заменять
+     * после построения.
+     *
+     * @return Провайдер сервисов с поддержкой замены регистраций.
+     */
+    @Override
+    public ReloadableServiceProvider buildReloadableServiceProvider() {
+        return buildServiceProvider(true, true);
+    }
+
+    /**
+     * Составляет реестр сервисов и возвращает шаблон, создающий независимые провайдеры
+     * сервисов без повторного составления реестра. Профилировщик запуска измеряет
+     * построение шаблона, провайдеры шаблона не профилируются.
+     *
+     * @return Шаблон провайдеров сервисов.
+     */
+    @Override
+    public ServiceProviderTemplate buildServiceProviderTemplate() {
+        isServiceProviderBuilt = true;
+
+        StartupProfiler.Span span = startupProfiler != null ? startupProfiler.start("build", "ServiceProviderTemplate") : null;
+
+        try {
+            ServiceRegistry registry = ServiceRegistry.compile(registrations(), decorators, interceptions, modules, startupProfiler);
+            return new ServiceProviderTemplateBase(registry, createScopeFactory(isRequiredScopeFactory()), isMeasuringActivations,
+                    isResolvingIteratively, warmUpParallelism);
+        } finally {
+            if (span != null) {
+                span.close();
+            }
+        }
+    }
+
+    private ServiceProviderBase buildServiceProvider(boolean isRequiredScopeFactory, boolean isReloadable) {
         isServiceProviderBuilt = true;
 
-        boolean isRequiredScopeFactory = JEnumerable.from(services)
-                .any(serviceDescriptor -> serviceDescriptor.getLifetime() == ServiceLifetime.SCOPED);
+        StartupProfiler.Span span = startupProfiler != null ? startupProfiler.start("build", "ServiceProvider") : null;
+
+        try {
+            ServiceRegistry registry = ServiceRegistry.compile(registrations(), decorators, interceptions, modules, startupProfiler);
+            ServiceProviderBase provider = new ServiceProviderBase(registry, createScopeFactory(isRequiredScopeFactory), isReloadable,
+                    startupProfiler, isMeasuringActivations, isResolvingIteratively);
+            provider.startWarmUp(warmUpParallelism);
+            return provider;
+        } finally {
+            if (span != null) {
+                span.close();
+            }
+        }
+    }
+
+    /**
+     * Возвращает регистрации коллекции, дополненные диспетчером и публикатором событий,
+     * если зарегистрирован хотя бы один обработчик. Таблица обработчиков составляется
+     * здесь один раз и используется всеми провайдерами построенного реестра.
+     */
+    private List<ServiceDescriptor> registrations() {
+        if (eventSubscriptions.count() == 0) {
+            return services;
+        }
+
+        EventDispatcher.Table table = EventDispatcher.Table.compile(eventSubscriptions);
+        List<ServiceDescriptor> registrations = new List<>();
+
+        for (ServiceDescriptor descriptor : services) {
+            registrations.add(descriptor);
+        }
+
+        registrations.add(new ServiceDescriptor(EventDispatcher.class, provider -> new EventDispatcher(table), ServiceLifetime.SINGLETON));
+        registrations.add(new ServiceDescriptor(EventPublisher.class,
+                provider -> new EventDispatcher.Publisher(provider.getRequiredService(EventDispatcher.class), provider),
+                ServiceLifetime.TRANSIENT));
+        return registrations;
+    }
+
+    private boolean isRequiredScopeFactory() {
+        return modules.count() > 0 || JEnumerable.from(services)
+                .any(serviceDescriptor -> serviceDescriptor.getLifetime() == ServiceLifetime.SCOPED
+                        || serviceDescriptor.getLifetime() == ServiceLifetime.POOLED);
+    }
 
+    private Func<ServiceProvider, ServiceScope> createScopeFactory(boolean isRequiredScopeFactory) {
         if (isRequiredScopeFactory && scopeFactory == null) {
-            scopeFactory = rootProvider -> new ServiceScopeBase(rootProvider, services);
+            return rootProvider -> new ServiceScopeBase(rootProvider, ((ServiceProviderBase) rootProvider).getRegistry());
         }
 
-        return new ServiceProviderBase(services, scopeFactory);
+        return scopeFactory;
     }
 
     /**
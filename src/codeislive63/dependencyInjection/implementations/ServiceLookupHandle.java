@@ -0,0 +1,43 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.interfaces.ServiceHandle;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+
+/**
+ * Ссылка на сервис, которая при каждом вызове разрешает сервис по типу. Используется
+ * провайдерами, регистрации которых могут измениться после создания ссылки.
+ *
+ * @param <TService> Тип сервиса.
+ */
+final class ServiceLookupHandle<TService> implements ServiceHandle<TService> {
+
+    private final ServiceProvider provider;
+    private final Class<TService> serviceType;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceLookupHandle}.
+     *
+     * @param provider    Провайдер, у которого запрашивается сервис.
+     * @param serviceType Класс сервиса.
+     */
+    ServiceLookupHandle(ServiceProvider provider, Class<TService> serviceType) {
+        this.provider = provider;
+        this.serviceType = serviceType;
+    }
+
+    @Override
+    public Class<TService> getServiceType() {
+        return serviceType;
+    }
+
+    @Override
+    public TService get() {
+        return provider.getService(serviceType);
+    }
+
+    @Override
+    public TService get(ServiceScope scope) {
+        return scope.getServiceProvider().getService(serviceType);
+    }
+}
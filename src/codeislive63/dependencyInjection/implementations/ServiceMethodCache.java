@@ -0,0 +1,333 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.CacheStatistics;
+import codeislive63.dependencyInjection.annotations.Cached;
+import codeislive63.dependencyInjection.interfaces.CachedService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш результатов одного метода, помеченного {@link Cached}.
+ * <p>
+ * Записи хранятся в {@link ConcurrentHashMap}, поэтому попадание в кэш не требует
+ * блокировки. Запись создаётся до вычисления результата, и одновременные вызовы
+ * с тем же ключом ожидают завершения первого вызова. Порядок создания записей
+ * хранится в очереди: когда записей становится больше допустимого, вытесняются
+ * самые старые из них. Устаревшие записи удаляются при обращении к ним.
+ * </p>
+ */
+final class ServiceMethodCache {
+
+    private static final MethodHandle INVOKE;
+    private static final MethodHandle STATISTICS;
+    private static final Object NULL_KEY = new Object();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            INVOKE = lookup.findStatic(ServiceMethodCache.class, "invoke",
+                    MethodType.methodType(Object.class, int.class, Object.class, Object.class, Object[].class));
+            STATISTICS = lookup.findStatic(ServiceMethodCache.class, "statistics",
+                    MethodType.methodType(CacheStatistics.class, Object.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+    private final MethodHandle invoker;
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ServiceMethodCache(CachedMethod cachedMethod) {
+        Cached cached = cachedMethod.method().getAnnotation(Cached.class);
+        this.method = cachedMethod.method();
+        this.invoker = cachedMethod.invoker();
+        this.maximumSize = cached.maximumSize();
+        this.expireAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(cached.expireAfterWriteMillis());
+    }
+
+    /**
+     * Проверяет, что метод может быть помечен {@link Cached}.
+     *
+     * @param method Метод интерфейса сервиса.
+     * @throws IllegalStateException Если метод не возвращает значение или параметры аннотации неверны.
+     */
+    static void validate(Method method) {
+        Cached cached = method.getAnnotation(Cached.class);
+
+        if (method.getReturnType() == void.class) {
+            throw new IllegalStateException("Метод, помеченный @Cached, должен возвращать значение: " + method);
+        }
+
+        if (cached.maximumSize() < 1 || cached.expireAfterWriteMillis() < 0) {
+            throw new IllegalStateException("Неверные параметры @Cached для метода " + method);
+        }
+    }
+
+    /**
+     * Возвращает преобразование для прокси с состоянием, которое заменяет вызовы методов,
+     * помеченных {@link Cached}, обращением к кэшу экземпляра и реализует методы
+     * {@link CachedService}. Состоянием прокси служит массив кэшей, созданный методом
+     * {@link #createCaches(List)}: индекс кэша совпадает с индексом метода в коллекции.
+     *
+     * @param cachedMethods Коллекция, в которую добавляются кэшируемые методы.
+     * @return Преобразование обработчиков вызова.
+     */
+    static ServiceProxyFactory.MethodHandleTransformer caching(List<CachedMethod> cachedMethods) {
+        return (method, handle) -> {
+            if (method.getDeclaringClass() == CachedService.class) {
+                MethodHandle statistics = STATISTICS;
+
+                if (method.getParameterCount() == 0) {
+                    statistics = MethodHandles.insertArguments(statistics, 1, (Object) null);
+                }
+
+                return MethodHandles.dropArguments(statistics, 0, handle.type().parameterType(0)).asType(handle.type());
+            }
+
+            if (!method.isAnnotationPresent(Cached.class)) {
+                return handle;
+            }
+
+            int index = cachedMethods.count();
+            MethodHandle invoker = MethodHandles.insertArguments(handle, 1, (Object) null)
+                    .asSpreader(1, Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            cachedMethods.add(new CachedMethod(method, invoker));
+
+            return MethodHandles.insertArguments(INVOKE, 0, index)
+                    .asCollector(Object[].class, method.getParameterCount())
+                    .asType(handle.type());
+        };
+    }
+
+    /**
+     * Создаёт кэши для нового экземпляра сервиса, по одному на каждый кэшируемый метод.
+     *
+     * @param cachedMethods Кэшируемые методы прокси-класса.
+     * @return Кэши экземпляра в порядке методов.
+     */
+    static ServiceMethodCache[] createCaches(List<CachedMethod> cachedMethods) {
+        ServiceMethodCache[] caches = new ServiceMethodCache[cachedMethods.count()];
+
+        for (int i = 0; i < caches.length; i++) {
+            caches[i] = new ServiceMethodCache(cachedMethods.get(i));
+        }
+
+        return caches;
+    }
+
+    private static Object invoke(int index, Object target, Object caches, Object[] arguments) throws Throwable {
+        return ((ServiceMethodCache[]) caches)[index].invoke(target, arguments);
+    }
+
+    /**
+     * Возвращает результат для указанных аргументов из кэша или вычисляет его.
+     */
+    private Object invoke(Object target, Object[] arguments) throws Throwable {
+        Object key = keyOf(arguments);
+
+        while (true) {
+            Entry entry = entries.get(key);
+
+            if (entry != null) {
+                if (!entry.isExpired(expireAfterWriteNanos)) {
+                    hitCount.increment();
+                    return entry.await();
+                }
+
+                if (entries.remove(key, entry)) {
+                    evictionCount.increment();
+                }
+
+                continue;
+            }
+
+            Entry created = new Entry(key);
+
+            if (entries.putIfAbsent(key, created) == null) {
+                missCount.increment();
+                enqueue(created);
+                return load(created, target, arguments);
+            }
+        }
+    }
+
+    private Object load(Entry entry, Object target, Object[] arguments) throws Throwable {
+        Object value;
+
+        try {
+            value = (Object) invoker.invokeExact(target, arguments);
+        } catch (Throwable e) {
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.loadedAt = System.nanoTime();
+        entry.result.complete(value);
+        return value;
+    }
+
+    private void enqueue(Entry entry) {
+        insertionOrder.add(entry);
+        queuedCount.incrementAndGet();
+
+        while (queuedCount.get() > maximumSize) {
+            Entry eldest = insertionOrder.poll();
+
+            if (eldest == null) {
+                break;
+            }
+
+            queuedCount.decrementAndGet();
+
+            if (entries.remove(eldest.key, eldest)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private CacheStatistics snapshot() {
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size());
+    }
+
+    private static CacheStatistics statistics(Object caches, String methodName) {
+        CacheStatistics result = new CacheStatistics(0, 0, 0, 0);
+
+        for (ServiceMethodCache cache : (ServiceMethodCache[]) caches) {
+            if (methodName == null || cache.method.getName().equals(methodName)) {
+                result = result.plus(cache.snapshot());
+            }
+        }
+
+        return result;
+    }
+
+    private static Object keyOf(Object[] arguments) {
+        if (arguments.length == 0) {
+            return NULL_KEY;
+        }
+
+        if (arguments.length == 1 && !(arguments[0] != null && arguments[0].getClass().isArray())) {
+            return arguments[0] != null ? arguments[0] : NULL_KEY;
+        }
+
+        return new ArgumentsKey(copyArrays(arguments));
+    }
+
+    /**
+     * Копирует массивы среди аргументов, включая вложенные, чтобы изменение массива
+     * вызывающим кодом после вызова не изменило ключ уже сохранённой записи.
+     */
+    private static Object[] copyArrays(Object[] arguments) {
+        Object[] result = arguments;
+
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+
+            if (argument != null && argument.getClass().isArray()) {
+                if (result == arguments) {
+                    result = arguments.clone();
+                }
+
+                result[i] = copyArray(argument);
+            }
+        }
+
+        return result;
+    }
+
+    private static Object copyArray(Object array) {
+        if (array instanceof Object[] elements) {
+            Object[] copy = elements.clone();
+
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] != null && copy[i].getClass().isArray()) {
+                    copy[i] = copyArray(copy[i]);
+                }
+            }
+
+            return copy;
+        }
+
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Ключ кэша для нескольких аргументов или аргумента-массива. Массивы сравниваются по содержимому
+     * и копируются при создании ключа.
+     */
+    private record ArgumentsKey(Object[] arguments) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ArgumentsKey key && Arrays.deepEquals(arguments, key.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(arguments);
+        }
+    }
+
+    /**
+     * Кэшируемый метод прокси-класса.
+     *
+     * @param method  Метод интерфейса сервиса.
+     * @param invoker Обработчик вида {@code (Object, Object[])Object}, вызывающий метод целевого экземпляра.
+     */
+    record CachedMethod(Method method, MethodHandle invoker) {
+    }
+
+    /**
+     * Запись кэша. Результат записи доступен после завершения вычисления.
+     */
+    private static final class Entry {
+
+        private final Object key;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long loadedAt;
+
+        private Entry(Object key) {
+            this.key = key;
+        }
+
+        private boolean isExpired(long expireAfterWriteNanos) {
+            return expireAfterWriteNanos > 0 && result.isDone() && System.nanoTime() - loadedAt >= expireAfterWriteNanos;
+        }
+
+        private Object await() throws Throwable {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.delegates.generic.Func;
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный пул экземпляров сервиса со временем жизни {@code Pooled}.
+ * <p>
+ * Выдача экземпляров не использует блокировки: каждый слот освобождается
+ * атомарной операцией сравнения с обменом. Поиск начинается со слота, зависящего
+ * от идентификатора потока, чтобы разные потоки реже конкурировали за один слот.
+ * </p>
+ * <p>
+ * Пул запоминает только экземпляры, арендованные областями: такой экземпляр
+ * принимается обратно только от своей области и только один раз. Аренды провайдера
+ * не запоминаются, чтобы пул не удерживал экземпляры, которые вызывающий код так и
+ * не вернул; при их возврате пул отклоняет экземпляр, который уже лежит в пуле или
+ * принадлежит области. Возврат выполняется под монитором пула, чтобы такая проверка
+ * и занятие слота не разделялись конкурирующим возвратом.
+ * </p>
+ */
+final class ServicePool {
+
+    private final AtomicReferenceArray<Object> slots;
+    private final Func<Object, Boolean> resetHook;
+    private final Map<Rental, Object> owners = new ConcurrentHashMap<>();
+
+    /**
+     * Инициализирует новый экземпляр {@link ServicePool} с указанными параметрами.
+     *
+     * @param policy Параметры пула.
+     */
+    @SuppressWarnings("unchecked")
+    ServicePool(ServicePoolPolicy<?> policy) {
+        this.slots = new AtomicReferenceArray<>(policy.getMaxSize());
+        this.resetHook = (Func<Object, Boolean>) policy.getResetHook();
+    }
+
+    /**
+     * Забирает свободный экземпляр из пула и отмечает его выданным указанной области.
+     *
+     * @param owner Область, арендующая экземпляр, или {@code null} для аренды провайдером.
+     * @return Экземпляр сервиса или {@code null}, если пул пуст.
+     */
+    Object rent(Object owner) {
+        int length = slots.length();
+        int start = startIndex(length);
+
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            Object instance = slots.get(index);
+
+            if (instance != null && slots.compareAndSet(index, instance, null)) {
+                return track(instance, owner);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Отмечает экземпляр, созданный вместо отсутствующего в пуле, выданным указанной области.
+     * Аренды провайдера не запоминаются.
+     *
+     * @param instance Созданный экземпляр.
+     * @param owner    Область, арендующая экземпляр, или {@code null} для аренды провайдером.
+     * @return Тот же экземпляр.
+     */
+    Object track(Object instance, Object owner) {
+        if (instance != null && owner != null) {
+            owners.put(new Rental(instance), owner);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Возвращает экземпляр в пул. Перед возвратом вызывается метод сброса, если он задан.
+     *
+     * @param instance Возвращаемый экземпляр.
+     * @param owner    Область, которой экземпляр был выдан, или {@code null} для возврата
+     *                 провайдеру.
+     * @return {@code true}, если экземпляр помещён в пул; {@code false}, если экземпляр не
+     * выдан этому владельцу, уже находится в пуле, пул заполнен или метод сброса отклонил
+     * экземпляр.
+     */
+    synchronized boolean giveBack(Object instance, Object owner) {
+        Rental rental = new Rental(instance);
+
+        if (owner != null ? !owners.remove(rental, owner) : owners.containsKey(rental) || isPooled(instance)) {
+            return false;
+        }
+
+        if (resetHook != null && !Boolean.TRUE.equals(resetHook.apply(instance))) {
+            return false;
+        }
+
+        int length = slots.length();
+        int start = startIndex(length);
+
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+
+            if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Удаляет из пула все экземпляры и забывает выданные.
+     */
+    void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+
+        owners.clear();
+    }
+
+    private boolean isPooled(Object instance) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == instance) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int startIndex(int length) {
+        return (int) (Thread.currentThread().threadId() % length);
+    }
+
+    /**
+     * Ключ выданного экземпляра, сравниваемый по ссылке, а не по {@code equals}.
+     */
+    private static final class Rental {
+
+        private final Object instance;
+
+        private Rental(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Rental rental && rental.instance == instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(instance);
+        }
+    }
+}
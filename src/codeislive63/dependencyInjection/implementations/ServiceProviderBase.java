@@ -3,29 +3,75 @@ package codeislive63.dependencyInjection.implementations;
 import codeislive63.collections.generic.Enumerable;
 import codeislive63.collections.generic.List;
 import codeislive63.delegates.generic.Func;
+import codeislive63.dependencyInjection.AmbientScopeState;
+import codeislive63.dependencyInjection.AmbientServiceScope;
+import codeislive63.dependencyInjection.ServiceCachePolicy;
+import codeislive63.dependencyInjection.ServiceDelta;
 import codeislive63.dependencyInjection.ServiceDescriptor;
-import codeislive63.dependencyInjection.annotations.Inject;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+import codeislive63.dependencyInjection.diagnostics.StartupProfiler;
+import codeislive63.dependencyInjection.interfaces.ReloadableServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceHandle;
 import codeislive63.dependencyInjection.interfaces.ServiceProvider;
 import codeislive63.dependencyInjection.interfaces.ServiceScope;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Базовая реализация интерфейса {@link ServiceProvider}.
  * <p>
  * Этот класс предоставляет методы для получения зарегистрированных сервисов и создания областей.
+ * Реестр сервисов хранится в {@link AtomicReference} и заменяется целиком. Провайдер,
+ * построенный с поддержкой замены регистраций, закрепляет реестр на время каждого
+ * разрешения и запоминает, какие сервисы запрашивал каждый синглтон при создании.
+ * </p>
+ * <p>
+ * После первой активации сервиса, создаваемого конструктором, провайдер составляет шаблон
+ * аргументов с уже созданными синглтонами, и последующие активации разрешают только
+ * остальные зависимости. Провайдер с заменой регистраций шаблоны не использует, так как
+ * синглтоны в нём могут быть заменены.
+ * </p>
+ * <p>
+ * Провайдер, построенный с итеративным разрешением, создаёт экземпляры через
+ * {@link IterativeResolver}, поэтому глубина стека потока не зависит от глубины графа
+ * зависимостей. Итеративное разрешение не используется, если провайдер поддерживает
+ * замену регистраций, профилирует запуск или измеряет активации: эти режимы учитывают
+ * вложенность разрешения.
  * </p>
  */
-public class ServiceProviderBase implements ServiceProvider {
+public class ServiceProviderBase implements ReloadableServiceProvider {
+
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    private static final ServiceCachePolicy<Object> DEFAULT_CACHE_POLICY = new ServiceCachePolicy<>(0, true, false);
+    private static final Object NULL_INSTANCE = new Object();
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
 
-    private final List<ServiceDescriptor> services;
+    private final AtomicReference<ServiceRegistry> registry;
     private final Func<ServiceProvider, ServiceScope> scopeFactory;
-    private final Map<Class<?>, Object> singletonInstances = new HashMap<>();
+    private final ThreadLocal<Resolution> resolutions;
+    private final ThreadLocal<ServiceDescriptor> singletonActivations = new ThreadLocal<>();
+    private final StartupProfiler profiler;
+    private final ActivationCosts activationCosts;
+    private final RootResolutionHost resolutionHost;
+    private final Map<ServiceDescriptor, Object> singletonInstances = new ConcurrentHashMap<>();
+    private final Map<ServiceDescriptor, Set<Class<?>>> singletonDependencies = new IdentityHashMap<>();
+    private final Map<ServiceDescriptor, ServicePool> pools = new ConcurrentHashMap<>();
+    private final Map<ServiceDescriptor, PerThreadInstanceCache> perThreadCaches = new ConcurrentHashMap<>();
+    private final Map<ServiceDescriptor, CachedInstance> cachedInstances = new ConcurrentHashMap<>();
+    private final Map<ServiceDescriptor, Object[]> argumentTemplates = new ConcurrentHashMap<>();
 
-    private boolean isClosed = false;
+    private volatile ServiceWarmUp.Execution warmUp;
+    private volatile int warmUpParallelism = ServiceWarmUp.DEFAULT_PARALLELISM;
+    private volatile boolean isClosed = false;
 
     /**
      * Инициализирует новый экземпляр {@link ServiceProviderBase} с указанными
@@ -35,8 +81,56 @@ public class ServiceProviderBase implements ServiceProvider {
      * @param scopeFactory Пользовательский фабричный метод для создания экземпляров ServiceScope.
      */
     public ServiceProviderBase(List<ServiceDescriptor> services, Func<ServiceProvider, ServiceScope> scopeFactory) {
-        this.services = services;
+        this(ServiceRegistry.compile(services, new List<>(), new List<>()), scopeFactory);
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceProviderBase} с заранее составленным
+     * реестром сервисов и фабричным методом для создания областей.
+     *
+     * @param registry     Реестр сервисов с планами активации.
+     * @param scopeFactory Пользовательский фабричный метод для создания экземпляров ServiceScope.
+     */
+    ServiceProviderBase(ServiceRegistry registry, Func<ServiceProvider, ServiceScope> scopeFactory) {
+        this(registry, scopeFactory, false, null, false);
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceProviderBase} с заранее составленным
+     * реестром сервисов.
+     *
+     * @param registry               Реестр сервисов с планами активации.
+     * @param scopeFactory           Пользовательский фабричный метод для создания экземпляров ServiceScope.
+     * @param isReloadable           Поддерживает ли провайдер замену регистраций.
+     * @param profiler               Профилировщик первого разрешения синглтонов или {@code null}.
+     * @param isMeasuringActivations Измеряет ли провайдер создание экземпляров.
+     */
+    ServiceProviderBase(ServiceRegistry registry, Func<ServiceProvider, ServiceScope> scopeFactory, boolean isReloadable,
+                        StartupProfiler profiler, boolean isMeasuringActivations) {
+        this(registry, scopeFactory, isReloadable, profiler, isMeasuringActivations, false);
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceProviderBase} с заранее составленным
+     * реестром сервисов.
+     *
+     * @param registry                Реестр сервисов с планами активации.
+     * @param scopeFactory            Пользовательский фабричный метод для создания экземпляров ServiceScope.
+     * @param isReloadable            Поддерживает ли провайдер замену регистраций.
+     * @param profiler                Профилировщик первого разрешения синглтонов или {@code null}.
+     * @param isMeasuringActivations  Измеряет ли провайдер создание экземпляров.
+     * @param isResolvingIteratively  Создаёт ли провайдер экземпляры обходом с явным стеком.
+     */
+    ServiceProviderBase(ServiceRegistry registry, Func<ServiceProvider, ServiceScope> scopeFactory, boolean isReloadable,
+                        StartupProfiler profiler, boolean isMeasuringActivations, boolean isResolvingIteratively) {
+        this.registry = new AtomicReference<>(registry);
         this.scopeFactory = scopeFactory;
+        this.resolutions = isReloadable ? new ThreadLocal<>() : null;
+        this.profiler = profiler;
+        this.activationCosts = isMeasuringActivations ? new ActivationCosts() : null;
+        this.resolutionHost = isResolvingIteratively && !isReloadable && profiler == null && !isMeasuringActivations
+                ? new RootResolutionHost(registry)
+                : null;
     }
 
     /**
@@ -45,7 +139,7 @@ public class ServiceProviderBase implements ServiceProvider {
      * @return Коллекция всех дескрипторов сервисов.
      */
     public List<ServiceDescriptor> getServiceDescriptors() {
-        return services;
+        return registry.get().getDescriptors();
     }
 
     /**
@@ -58,13 +152,29 @@ public class ServiceProviderBase implements ServiceProvider {
     public <TService> TService getService(Class<TService> serviceType) {
         checkIfClosed();
 
-        for (ServiceDescriptor descriptor : services) {
-            if (descriptor.getServiceType().equals(serviceType)) {
-                return createService(descriptor);
-            }
+        if (resolutions == null) {
+            return findService(registry.get(), serviceType);
         }
 
-        return null;
+        Resolution resolution = resolutions.get();
+
+        if (resolution != null) {
+            resolution.record(serviceType);
+            return findService(resolution.registry(), serviceType);
+        }
+
+        resolutions.set(new Resolution(registry.get()));
+
+        try {
+            return findService(resolutions.get().registry(), serviceType);
+        } finally {
+            resolutions.remove();
+        }
+    }
+
+    private <TService> TService findService(ServiceRegistry registry, Class<TService> serviceType) {
+        ServiceDescriptor[] descriptors = registry.getDescriptors(serviceType);
+        return descriptors.length > 0 ? createService(registry, descriptors[0]) : null;
     }
 
     /**
@@ -77,12 +187,31 @@ public class ServiceProviderBase implements ServiceProvider {
     public <TService> Enumerable<TService> getServices(Class<TService> serviceType) {
         checkIfClosed();
 
+        if (resolutions == null) {
+            return findServices(registry.get(), serviceType);
+        }
+
+        Resolution resolution = resolutions.get();
+
+        if (resolution != null) {
+            resolution.record(serviceType);
+            return findServices(resolution.registry(), serviceType);
+        }
+
+        resolutions.set(new Resolution(registry.get()));
+
+        try {
+            return findServices(resolutions.get().registry(), serviceType);
+        } finally {
+            resolutions.remove();
+        }
+    }
+
+    private <TService> List<TService> findServices(ServiceRegistry registry, Class<TService> serviceType) {
         List<TService> result = new List<>();
 
-        for (ServiceDescriptor descriptor : services) {
-            if (descriptor.getServiceType().equals(serviceType)) {
-                result.add(createService(descriptor));
-            }
+        for (ServiceDescriptor descriptor : registry.getDescriptors(serviceType)) {
+            result.add(createService(registry, descriptor));
         }
 
         return result;
@@ -109,6 +238,129 @@ public class ServiceProviderBase implements ServiceProvider {
         return service;
     }
 
+    /**
+     * Возвращает ссылку на сервис, связанную с его первой регистрацией и планом активации.
+     * Ссылка на синглтон после первого вызова хранит экземпляр. Провайдер с заменой
+     * регистраций возвращает ссылку, разрешающую сервис по типу при каждом вызове.
+     *
+     * @param serviceType Класс сервиса.
+     * @return Ссылка на сервис.
+     */
+    @Override
+    public <TService> ServiceHandle<TService> handle(Class<TService> serviceType) {
+        checkIfClosed();
+
+        if (resolutions != null) {
+            return new ServiceLookupHandle<>(this, serviceType);
+        }
+
+        return new BoundServiceHandle<>(serviceType, registry.get());
+    }
+
+    /**
+     * Возвращает экземпляр сервиса со временем жизни {@code POOLED} в пул.
+     * Для сервисов с другим временем жизни и после закрытия провайдера вызов не имеет эффекта.
+     *
+     * @param serviceType Класс сервиса, под которым экземпляр был получен.
+     * @param instance    Возвращаемый экземпляр.
+     */
+    @Override
+    public <TService> void release(Class<TService> serviceType, TService instance) {
+        release(serviceType, instance, null);
+    }
+
+    /**
+     * Возвращает экземпляр pooled сервиса в пул от имени владельца аренды. Экземпляр,
+     * который не выдан этому владельцу или уже возвращён, пул не принимает.
+     *
+     * @param serviceType Класс сервиса, под которым экземпляр был получен.
+     * @param instance    Возвращаемый экземпляр.
+     * @param owner       Область, которой экземпляр был выдан, или {@code null} для
+     *                    экземпляра, выданного провайдером.
+     */
+    void release(Class<?> serviceType, Object instance, Object owner) {
+        if (isClosed || instance == null) {
+            return;
+        }
+
+        ServiceDescriptor[] descriptors = registry.get().getDescriptors(serviceType);
+
+        if (descriptors.length > 0) {
+            ServicePool pool = pools.get(descriptors[0]);
+
+            if (pool != null) {
+                pool.giveBack(instance, owner);
+            }
+        }
+    }
+
+    /**
+     * Возвращает будущее, которое завершается после прогрева синглтонов.
+     *
+     * @return Будущее готовности провайдера.
+     */
+    @Override
+    public CompletableFuture<Void> whenReady() {
+        ServiceWarmUp.Execution execution = warmUp;
+        return execution != null ? execution.readiness().copy() : READY.copy();
+    }
+
+    /**
+     * Запускает прогрев синглтонов, реализация которых реализует {@link codeislive63.dependencyInjection.interfaces.Warmable}
+     * или содержит методы, помеченные {@link codeislive63.dependencyInjection.annotations.WarmUp}.
+     * Синглтоны создаются и прогреваются в фоновых потоках. Список прогреваемых синглтонов
+     * составлен реестром, поэтому без таких синглтонов вызов не просматривает регистрации.
+     *
+     * @param parallelism Максимальное число потоков прогрева.
+     */
+    void startWarmUp(int parallelism) {
+        warmUpParallelism = parallelism;
+
+        ServiceRegistry current = registry.get();
+        ServiceDescriptor[] warmable = current.getWarmableSingletons();
+
+        if (warmable.length == 0) {
+            return;
+        }
+
+        List<Runnable> tasks = new List<>();
+
+        for (ServiceDescriptor descriptor : warmable) {
+            if (!singletonInstances.containsKey(descriptor)) {
+                tasks.add(() -> warmUpService(current, descriptor));
+            }
+        }
+
+        if (tasks.count() > 0) {
+            warmUp = ServiceWarmUp.start(tasks, parallelism);
+        }
+    }
+
+    private void warmUpService(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        Object instance = createService(registry, descriptor);
+
+        try {
+            if (instance != null) {
+                ServiceWarmUp.warmUp(instance);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Не удалось прогреть сервис: " + descriptor.getServiceType().getName(), e);
+        }
+    }
+
+    /**
+     * Составляет граф зависимостей по текущему реестру сервисов.
+     *
+     * @return Граф зависимостей.
+     */
+    @Override
+    public DependencyGraph getDependencyGraph() {
+        checkIfClosed();
+        return registry.get().toDependencyGraph(activationCosts);
+    }
+
     /**
      * Создает новую область для сервисов.
      *
@@ -120,114 +372,484 @@ public class ServiceProviderBase implements ServiceProvider {
         return scopeFactory.apply(this);
     }
 
+    /**
+     * Строит новый провайдер из регистраций этого провайдера и указанных изменений. Новый
+     * провайдер наследует поддержку замены регистраций, измерение активаций и число потоков
+     * прогрева. Если изменения переносят синглтоны, в новый провайдер попадают синглтоны,
+     * тип которых не затронут изменениями ни прямо, ни через зависимости планов активации;
+     * прогреваются только синглтоны, которые не были перенесены.
+     *
+     * @param delta Изменения регистраций.
+     * @return Новый провайдер сервисов.
+     */
+    @Override
+    public ServiceProvider rebuildWith(ServiceDelta delta) {
+        checkIfClosed();
+
+        ServiceRegistry next = registry.get().rebuild(delta);
+        ServiceProviderBase provider = new ServiceProviderBase(next, scopeFactory != null ? scopeFactory
+                : rootProvider -> new ServiceScopeBase(rootProvider, ((ServiceProviderBase) rootProvider).getRegistry()),
+                resolutions != null, null, activationCosts != null, resolutionHost != null);
+
+        if (delta.isCarryingOverSingletons()) {
+            carryOverSingletons(next, next.collectAffectedTypes(delta), provider);
+        }
+
+        provider.startWarmUp(warmUpParallelism);
+        return provider;
+    }
+
+    /**
+     * Переносит в указанный провайдер синглтоны, дескрипторы которых сохранились в новом
+     * реестре, а типы не затронуты изменениями.
+     */
+    private synchronized void carryOverSingletons(ServiceRegistry next, Set<Class<?>> affectedTypes, ServiceProviderBase target) {
+        for (Map.Entry<ServiceDescriptor, Object> entry : singletonInstances.entrySet()) {
+            ServiceDescriptor descriptor = entry.getKey();
+
+            if (next.contains(descriptor) && !affectedTypes.contains(descriptor.getServiceType())) {
+                target.singletonInstances.put(descriptor, entry.getValue());
+
+                Set<Class<?>> dependencies = singletonDependencies.get(descriptor);
+
+                if (dependencies != null) {
+                    target.singletonDependencies.put(descriptor, dependencies);
+                }
+            }
+        }
+    }
+
+    /**
+     * Заменяет все регистрации типа сервиса указанным дескриптором и публикует новый реестр.
+     *
+     * @param descriptor Новый дескриптор сервиса.
+     * @return Текущий провайдер сервисов.
+     * @throws IllegalStateException Если провайдер построен без поддержки замены регистраций.
+     */
+    @Override
+    public ReloadableServiceProvider replace(ServiceDescriptor descriptor) {
+        checkIfReloadable();
+        publish(current -> current.replace(descriptor));
+        return this;
+    }
+
+    /**
+     * Добавляет регистрацию сервиса и публикует новый реестр.
+     *
+     * @param descriptor Добавляемый дескриптор сервиса.
+     * @return Текущий провайдер сервисов.
+     * @throws IllegalStateException Если провайдер построен без поддержки замены регистраций.
+     */
+    @Override
+    public ReloadableServiceProvider add(ServiceDescriptor descriptor) {
+        checkIfReloadable();
+        publish(current -> current.add(descriptor));
+        return this;
+    }
+
+    /**
+     * Составляет и публикует новый реестр, после чего удаляет синглтоны, затронутые
+     * изменением: синглтоны удалённых дескрипторов и синглтоны, которые при создании
+     * запрашивали изменённые типы сервисов, прямо или через другие синглтоны. Pooled и per-thread экземпляры
+     * удалённых дескрипторов отбрасываются.
+     * <p>
+     * Замены выполняются под монитором провайдера, на котором создаются синглтоны,
+     * поэтому синглтон, создаваемый во время замены, будет учтён после своего создания.
+     * </p>
+     *
+     * @param change Функция, составляющая новый реестр из текущего.
+     */
+    private synchronized void publish(Func<ServiceRegistry, ServiceRegistry> change) {
+        checkIfClosed();
+
+        ServiceRegistry previous = registry.get();
+        ServiceRegistry next = change.apply(previous);
+        registry.set(next);
+
+        Set<Class<?>> changedTypes = new HashSet<>();
+        collectChangedTypes(previous, next, changedTypes);
+        collectChangedTypes(next, previous, changedTypes);
+
+        boolean isEvicted = true;
+
+        while (isEvicted) {
+            isEvicted = false;
+            Iterator<ServiceDescriptor> iterator = singletonInstances.keySet().iterator();
+
+            while (iterator.hasNext()) {
+                ServiceDescriptor descriptor = iterator.next();
+                Set<Class<?>> dependencies = singletonDependencies.get(descriptor);
+
+                if (!next.contains(descriptor) || dependencies != null && containsAny(dependencies, changedTypes)) {
+                    iterator.remove();
+                    singletonDependencies.remove(descriptor);
+                    isEvicted |= changedTypes.add(descriptor.getServiceType());
+                }
+            }
+        }
+
+        pools.keySet().removeIf(descriptor -> !next.contains(descriptor));
+        perThreadCaches.keySet().removeIf(descriptor -> !next.contains(descriptor));
+        cachedInstances.entrySet().removeIf(entry -> {
+            if (next.contains(entry.getKey())) {
+                return false;
+            }
+
+            entry.getValue().evict();
+            return true;
+        });
+    }
+
+    private static void collectChangedTypes(ServiceRegistry source, ServiceRegistry target, Set<Class<?>> changedTypes) {
+        for (ServiceDescriptor descriptor : source.getDescriptors()) {
+            if (!target.contains(descriptor)) {
+                changedTypes.add(descriptor.getServiceType());
+            }
+        }
+    }
+
+    private static boolean containsAny(Set<Class<?>> dependencies, Set<Class<?>> types) {
+        for (Class<?> type : dependencies) {
+            if (types.contains(type)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Получает экземпляр сервиса по указанной регистрации, а не по первой регистрации типа.
+     * Используется областями при разрешении всех регистраций типа.
+     *
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор сервиса.
+     * @return Экземпляр сервиса.
+     */
+    Object getService(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        checkIfClosed();
+        return createService(registry, descriptor);
+    }
+
     @SuppressWarnings("unchecked")
-    private <TService> TService createService(ServiceDescriptor descriptor) {
+    private <TService> TService createService(ServiceRegistry registry, ServiceDescriptor descriptor) {
         return switch (descriptor.getLifetime()) {
-            case SINGLETON -> (TService) getOrCreateSingletonInstance(descriptor);
-            case SCOPED, TRANSIENT -> (TService) instantiateService(descriptor);
+            case SINGLETON -> (TService) getSingletonInstance(registry, descriptor);
+            case SCOPED -> (TService) resolveScopedInstance(registry, descriptor);
+            case TRANSIENT -> (TService) instantiateService(registry, descriptor);
+            case POOLED -> (TService) rentPooledInstance(registry, descriptor, null);
+            case PER_THREAD -> (TService) perThreadCaches.computeIfAbsent(descriptor, key -> new PerThreadInstanceCache())
+                    .getOrCreate(() -> instantiateService(registry, descriptor));
+            case CACHED -> (TService) cachedInstances.computeIfAbsent(descriptor, ServiceProviderBase::createCachedInstance)
+                    .getOrCreate(() -> instantiateService(registry, descriptor));
         };
     }
 
     /**
-     * Создаёт или возвращает существующий экземпляр singleton сервиса.
+     * Разрешает scoped сервис в области, привязанной через {@link AmbientServiceScope}.
+     * Если область не привязана или создана другим провайдером, создаёт новый экземпляр.
+     * Пока текущая область ни разу не привязывалась, класс {@link AmbientServiceScope}
+     * не загружается, поэтому без флага {@code --enable-preview} метод тоже работает.
      *
      * @param descriptor Дескриптор сервиса.
      * @return Экземпляр сервиса.
+     * @throws IllegalStateException Если scoped сервис запрашивается при создании синглтона.
      */
-    private synchronized Object getOrCreateSingletonInstance(ServiceDescriptor descriptor) {
-        checkIfClosed();
+    private Object resolveScopedInstance(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        ServiceDescriptor singleton = singletonActivations.get();
+
+        if (singleton != null) {
+            throw new IllegalStateException("Синглтон " + singleton.getServiceType().getName()
+                    + " не может зависеть от scoped сервиса " + descriptor.getServiceType().getName());
+        }
+
+        ServiceScope scope = AmbientScopeState.isUsed() ? AmbientServiceScope.current() : null;
 
-        if (!singletonInstances.containsKey(descriptor.getServiceType())) {
-            Object instance = instantiateService(descriptor);
-            singletonInstances.put(descriptor.getServiceType(), instance);
+        if (scope instanceof ServiceScopeBase scopeBase && scopeBase.getRootProvider() == this) {
+            return scopeBase.getScopedInstance(descriptor);
         }
 
-        return singletonInstances.get(descriptor.getServiceType());
+        if (scope != null && isOwnScope(scope)) {
+            return scope.getServiceProvider().getService(descriptor.getServiceType());
+        }
+
+        return instantiateService(registry, descriptor);
+    }
+
+    private boolean isOwnScope(ServiceScope scope) {
+        return !(scope instanceof ServiceScopeBase scopeBase) || scopeBase.getRootProvider() == this;
     }
 
     /**
-     * Создаёт экземпляр сервиса на основе его дескриптора.
+     * Выдаёт экземпляр pooled сервиса области. Экземпляр возвращается в пул только
+     * от имени этой области.
+     *
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор pooled сервиса.
+     * @param owner      Область, арендующая экземпляр.
+     * @return Экземпляр сервиса.
+     */
+    Object rentPooledService(ServiceRegistry registry, ServiceDescriptor descriptor, Object owner) {
+        checkIfClosed();
+        return rentPooledInstance(registry, descriptor, owner);
+    }
+
+    /**
+     * Забирает экземпляр из пула сервиса или создаёт новый, если пул пуст.
      *
      * @param descriptor Дескриптор сервиса.
+     * @param owner      Область, арендующая экземпляр, или {@code null} для аренды провайдером.
      * @return Экземпляр сервиса.
-     * @throws RuntimeException Если не удалось создать экземпляр сервиса.
      */
-    private Object instantiateService(ServiceDescriptor descriptor) {
-        try {
-            Object instance = null;
-
-            if (descriptor.getImplementationInstance() != null) {
-                instance = descriptor.getImplementationInstance();
-            } else if (descriptor.getImplementationFactory() != null) {
-                instance = descriptor.getImplementationFactory().apply(this);
-            } else if (descriptor.getImplementationType() != null) {
-                for (Constructor<?> constructor : descriptor.getImplementationType().getConstructors()) {
-                    Class<?>[] parameterTypes = constructor.getParameterTypes();
-                    Object[] parameters = new Object[parameterTypes.length];
-                    boolean canInstantiate = true;
-
-                    for (int i = 0; i < parameterTypes.length; i++) {
-                        parameters[i] = getService(parameterTypes[i]);
-                        if (parameters[i] == null) {
-                            canInstantiate = false;
-                            break;
-                        }
-                    }
+    private Object rentPooledInstance(ServiceRegistry registry, ServiceDescriptor descriptor, Object owner) {
+        ServicePool pool = pools.computeIfAbsent(descriptor, ServiceProviderBase::createPool);
+        Object instance = pool.rent(owner);
+        return instance != null ? instance : pool.track(instantiateService(registry, descriptor), owner);
+    }
 
-                    if (canInstantiate) {
-                        instance = constructor.newInstance(parameters);
-                        break;
-                    }
+    private static ServicePool createPool(ServiceDescriptor descriptor) {
+        ServicePoolPolicy<?> policy = descriptor.getPoolPolicy();
+        return new ServicePool(policy != null ? policy : new ServicePoolPolicy<>(DEFAULT_POOL_SIZE));
+    }
+
+    private static CachedInstance createCachedInstance(ServiceDescriptor descriptor) {
+        ServiceCachePolicy<?> policy = descriptor.getCachePolicy();
+        return new CachedInstance(policy != null ? policy : DEFAULT_CACHE_POLICY);
+    }
+
+    /**
+     * Возвращает экземпляр singleton сервиса. Созданный экземпляр читается без блокировки,
+     * а создание выполняется под монитором провайдера.
+     *
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор сервиса.
+     * @return Экземпляр сервиса.
+     */
+    private Object getSingletonInstance(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        Object instance = singletonInstances.get(descriptor);
+
+        if (instance == null) {
+            instance = getOrCreateSingletonInstance(registry, descriptor);
+        }
+
+        return instance != NULL_INSTANCE ? instance : null;
+    }
+
+    /**
+     * Создаёт или возвращает существующий экземпляр singleton сервиса. Если провайдер
+     * поддерживает замену регистраций, запоминает типы сервисов, запрошенные при создании.
+     * На время создания синглтон отмечается в текущем потоке, чтобы запрос scoped сервиса,
+     * прямой или через другие сервисы, был отклонён. Синглтон, созданный по реестру, который
+     * уже заменён, не сохраняется, если замена затронула его или его зависимости: иначе он
+     * пережил бы вытеснение, выполненное при публикации нового реестра.
+     *
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор сервиса.
+     * @return Экземпляр сервиса или {@code NULL_INSTANCE}, если фабрика вернула {@code null}.
+     */
+    private synchronized Object getOrCreateSingletonInstance(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        checkIfClosed();
+
+        Object existing = singletonInstances.get(descriptor);
 
-                    throw new IllegalStateException("Не удалось найти подходящий конструктор для " + descriptor.getImplementationType());
+        if (existing != null) {
+            return existing;
+        }
+
+        Resolution resolution = resolutions != null ? resolutions.get() : null;
+        Set<Class<?>> outerDependencies = resolution != null ? resolution.dependencies : null;
+        Set<Class<?>> dependencies = resolution != null ? new HashSet<>() : null;
+
+        if (resolution != null) {
+            resolution.dependencies = dependencies;
+        }
+
+        ServiceDescriptor outerSingleton = singletonActivations.get();
+        singletonActivations.set(descriptor);
+
+        try {
+            Object instance = instantiateService(registry, descriptor);
+            instance = instance != null ? instance : NULL_INSTANCE;
+
+            if (isStale(registry, descriptor, dependencies, resolution)) {
+                if (resolution != null) {
+                    resolution.staleTypes().add(descriptor.getServiceType());
                 }
-            } else {
-                throw new IllegalStateException("Неверный дескриптор: " + descriptor);
+
+                return instance;
             }
 
-            if (instance != null) {
-                for (Method method : instance.getClass().getMethods()) {
-                    if (method.isAnnotationPresent(Inject.class)) {
-                        invokeMethodWithDependencies(instance, method);
-                    }
-                }
+            singletonInstances.put(descriptor, instance);
+
+            if (dependencies != null) {
+                singletonDependencies.put(descriptor, dependencies);
             }
 
             return instance;
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось создать экземпляр сервиса: " + descriptor.getServiceType().getName(), e);
+        } finally {
+            if (outerSingleton != null) {
+                singletonActivations.set(outerSingleton);
+            } else {
+                singletonActivations.remove();
+            }
+
+            if (resolution != null) {
+                resolution.dependencies = outerDependencies;
+            }
         }
     }
 
     /**
-     * Вызывает метод с внедрением зависимостей.
+     * Проверяет, устарел ли синглтон, созданный по указанному реестру: реестр заменён, и
+     * замена удалила дескриптор, затронула зависимости синглтона или зависимости не известны.
+     * Типы синглтонов, отклонённых в том же разрешении, считаются затронутыми.
+     */
+    private boolean isStale(ServiceRegistry registry, ServiceDescriptor descriptor, Set<Class<?>> dependencies,
+                            Resolution resolution) {
+        ServiceRegistry current = this.registry.get();
+
+        if (registry == current) {
+            return false;
+        }
+
+        if (!current.contains(descriptor) || dependencies == null) {
+            return true;
+        }
+
+        Set<Class<?>> changedTypes = new HashSet<>();
+        collectChangedTypes(registry, current, changedTypes);
+        collectChangedTypes(current, registry, changedTypes);
+
+        if (resolution.staleTypes != null) {
+            changedTypes.addAll(resolution.staleTypes);
+        }
+
+        return containsAny(dependencies, changedTypes);
+    }
+
+    /**
+     * Возвращает счётчики создания экземпляров, если провайдер их ведёт.
+     *
+     * @return Счётчики создания экземпляров или {@code null}.
+     */
+    ActivationCosts getActivationCosts() {
+        return activationCosts;
+    }
+
+    /**
+     * Проверяет, создаёт ли провайдер и его области экземпляры обходом с явным стеком.
+     *
+     * @return {@code true}, если используется итеративное разрешение.
+     */
+    boolean isResolvingIteratively() {
+        return resolutionHost != null;
+    }
+
+    /**
+     * Возвращает реестр сервисов, используемый этим провайдером.
+     *
+     * @return Реестр сервисов.
+     */
+    ServiceRegistry getRegistry() {
+        return registry.get();
+    }
+
+    /**
+     * Создаёт экземпляр сервиса по его плану активации. Если подключён профилировщик,
+     * измеряется создание синглтонов и всех экземпляров, создаваемых внутри него.
      *
-     * @param target Объект, на котором вызывается метод.
-     * @param method Метод, который вызывается.
+     * @param registry   Реестр, по которому выполняется разрешение.
+     * @param descriptor Дескриптор сервиса.
+     * @return Экземпляр сервиса.
+     * @throws RuntimeException Если не удалось создать экземпляр сервиса.
      */
-    private void invokeMethodWithDependencies(Object target, Method method) {
+    private Object instantiateService(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        if (profiler != null && (descriptor.getLifetime() == ServiceLifetime.SINGLETON || profiler.isRecording())) {
+            StartupProfiler.Span span = profiler.start(descriptor.getLifetime().name().toLowerCase(), descriptor.getServiceType().getName());
+
+            try {
+                return activateService(registry, descriptor);
+            } finally {
+                span.close();
+            }
+        }
+
+        return activateService(registry, descriptor);
+    }
+
+    private Object activateService(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        if (activationCosts == null) {
+            return activatePlan(registry, descriptor);
+        }
+
+        long startedAt = System.nanoTime();
+        Object instance = activatePlan(registry, descriptor);
+        activationCosts.record(descriptor, System.nanoTime() - startedAt);
+        return instance;
+    }
+
+    private Object activatePlan(ServiceRegistry registry, ServiceDescriptor descriptor) {
+        if (resolutionHost != null && registry.getPlan(descriptor).getServiceParameterTypes() != null) {
+            return IterativeResolver.activate(registry, descriptor, resolutionHost);
+        }
+
         try {
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            Object[] parameters = new Object[parameterTypes.length];
+            ServiceActivationPlan plan = registry.getPlan(descriptor);
 
-            for (int i = 0; i < parameterTypes.length; i++) {
-                parameters[i] = getService(parameterTypes[i]);
-                if (parameters[i] == null) {
-                    throw new IllegalStateException("Не удалось разрешить зависимость для параметра " + parameterTypes[i].getName());
-                }
+            if (resolutions != null || !plan.hasArgumentTemplate()) {
+                return plan.activate(this);
             }
 
-            method.invoke(target, parameters);
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось вызвать метод с зависимостями: " + method.getName(), e);
+            Object[] template = argumentTemplates.get(descriptor);
+
+            if (template != null) {
+                return plan.activate(this, template);
+            }
+
+            Object instance = plan.activate(this);
+            argumentTemplates.putIfAbsent(descriptor, plan.createArgumentTemplate(registry, this));
+            return instance;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Не удалось создать экземпляр сервиса: " + descriptor.getServiceType().getName(), e);
         }
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         if (!isClosed) {
             isClosed = true;
+
+            if (warmUp != null) {
+                warmUp.executor().shutdownNow();
+            }
+
             singletonInstances.clear();
+            singletonDependencies.clear();
+            pools.values().forEach(ServicePool::clear);
+            RuntimeException failure = null;
+
+            for (PerThreadInstanceCache cache : perThreadCaches.values()) {
+                try {
+                    cache.clear();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            perThreadCaches.clear();
+            cachedInstances.values().forEach(CachedInstance::evict);
+            cachedInstances.clear();
+            argumentTemplates.clear();
+
+            if (failure != null) {
+                throw failure;
+            }
         }
     }
 
@@ -236,4 +858,203 @@ public class ServiceProviderBase implements ServiceProvider {
             throw new IllegalStateException("ServiceProvider уже закрыт.");
         }
     }
+
+    private void checkIfReloadable() {
+        if (resolutions == null) {
+            throw new IllegalStateException("ServiceProvider построен без поддержки замены регистраций.");
+        }
+    }
+
+    /**
+     * Ссылка на сервис, связанная с регистрацией в неизменяемом реестре провайдера.
+     * Дескрипторы, которые выбрали бы провайдер и провайдер области, определяются
+     * при создании ссылки.
+     *
+     * @param <TService> Тип сервиса.
+     */
+    private final class BoundServiceHandle<TService> implements ServiceHandle<TService> {
+
+        private final Class<TService> serviceType;
+        private final ServiceRegistry registry;
+        private final ServiceDescriptor descriptor;
+        private final ServiceDescriptor scopedDescriptor;
+        private final boolean isResolvedByRoot;
+        private volatile TService singleton;
+
+        private BoundServiceHandle(Class<TService> serviceType, ServiceRegistry registry) {
+            ServiceDescriptor[] descriptors = registry.getDescriptors(serviceType);
+            ServiceDescriptor scoped = null;
+            boolean isPooled = false;
+
+            for (ServiceDescriptor candidate : descriptors) {
+                if (scoped == null && candidate.getLifetime() == ServiceLifetime.SCOPED) {
+                    scoped = candidate;
+                }
+
+                isPooled |= candidate.getLifetime() == ServiceLifetime.POOLED;
+            }
+
+            this.serviceType = serviceType;
+            this.registry = registry;
+            this.descriptor = descriptors.length > 0 ? descriptors[0] : null;
+            this.scopedDescriptor = scoped;
+            this.isResolvedByRoot = scoped == null && !isPooled
+                    && (descriptor == null || descriptor.getLifetime() != ServiceLifetime.TRANSIENT);
+        }
+
+        @Override
+        public Class<TService> getServiceType() {
+            return serviceType;
+        }
+
+        @Override
+        public TService get() {
+            checkIfClosed();
+
+            TService instance = singleton;
+
+            if (instance != null || descriptor == null) {
+                return instance;
+            }
+
+            instance = createService(registry, descriptor);
+
+            if (descriptor.getLifetime() == ServiceLifetime.SINGLETON) {
+                singleton = instance;
+            }
+
+            return instance;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public TService get(ServiceScope scope) {
+            if (scope instanceof ServiceScopeBase scopeBase && scopeBase.getRootProvider() == ServiceProviderBase.this) {
+                Object overridden = scopeBase.findOverride(serviceType);
+
+                if (overridden != null) {
+                    return (TService) overridden;
+                }
+
+                if (scopedDescriptor != null) {
+                    return (TService) scopeBase.getScopedInstance(scopedDescriptor);
+                }
+            }
+
+            return isResolvedByRoot ? get() : scope.getServiceProvider().getService(serviceType);
+        }
+    }
+
+    /**
+     * Итеративное разрешение в корневом провайдере. Обходом создаются transient сервисы
+     * и синглтоны, которые ещё не созданы, если поток уже создаёт синглтон под монитором
+     * провайдера. Созданный обходом синглтон отмечается в текущем потоке на время
+     * разрешения его параметров, как и при рекурсивном создании.
+     */
+    private final class RootResolutionHost implements IterativeResolver.Host {
+
+        private final ServiceRegistry registry;
+
+        private RootResolutionHost(ServiceRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public ServiceDescriptor expand(Class<?> serviceType) {
+            ServiceDescriptor[] descriptors = registry.getDescriptors(serviceType);
+
+            if (descriptors.length == 0 || registry.getPlan(descriptors[0]).getServiceParameterTypes() == null) {
+                return null;
+            }
+
+            ServiceDescriptor descriptor = descriptors[0];
+
+            return switch (descriptor.getLifetime()) {
+                case TRANSIENT -> descriptor;
+                case SINGLETON -> !singletonInstances.containsKey(descriptor) && Thread.holdsLock(ServiceProviderBase.this)
+                        ? descriptor
+                        : null;
+                default -> null;
+            };
+        }
+
+        @Override
+        public Object resolve(Class<?> serviceType) {
+            return findService(registry, serviceType);
+        }
+
+        @Override
+        public ServiceProvider provider() {
+            return ServiceProviderBase.this;
+        }
+
+        @Override
+        public Object enter(ServiceDescriptor descriptor) {
+            if (descriptor.getLifetime() != ServiceLifetime.SINGLETON) {
+                return null;
+            }
+
+            ServiceDescriptor outerSingleton = singletonActivations.get();
+            singletonActivations.set(descriptor);
+            return outerSingleton;
+        }
+
+        @Override
+        public void complete(ServiceDescriptor descriptor, Object instance) {
+            if (descriptor.getLifetime() == ServiceLifetime.SINGLETON) {
+                singletonInstances.put(descriptor, instance != null ? instance : NULL_INSTANCE);
+            }
+        }
+
+        @Override
+        public void abort(ServiceDescriptor descriptor) {
+        }
+
+        @Override
+        public void exit(ServiceDescriptor descriptor, Object state) {
+            if (descriptor.getLifetime() != ServiceLifetime.SINGLETON) {
+                return;
+            }
+
+            if (state != null) {
+                singletonActivations.set((ServiceDescriptor) state);
+            } else {
+                singletonActivations.remove();
+            }
+        }
+    }
+
+    /**
+     * Разрешение сервиса, выполняемое в текущем потоке: реестр, закреплённый на время
+     * разрешения, типы сервисов, запрошенные создаваемым синглтоном, и типы синглтонов,
+     * которые не были сохранены, поскольку реестр разрешения устарел.
+     */
+    private static final class Resolution {
+
+        private final ServiceRegistry registry;
+        private Set<Class<?>> dependencies;
+        private Set<Class<?>> staleTypes;
+
+        private Resolution(ServiceRegistry registry) {
+            this.registry = registry;
+        }
+
+        private ServiceRegistry registry() {
+            return registry;
+        }
+
+        private Set<Class<?>> staleTypes() {
+            if (staleTypes == null) {
+                staleTypes = new HashSet<>();
+            }
+
+            return staleTypes;
+        }
+
+        private void record(Class<?> serviceType) {
+            if (dependencies != null) {
+                dependencies.add(serviceType);
+            }
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.delegates.generic.Func;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceProviderTemplate;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+
+/**
+ * Базовая реализация интерфейса {@link ServiceProviderTemplate}.
+ * <p>
+ * Реестр сервисов неизменяем и используется всеми созданными провайдерами совместно,
+ * а хранилища экземпляров создаются для каждого провайдера заново.
+ * </p>
+ */
+public class ServiceProviderTemplateBase implements ServiceProviderTemplate {
+
+    private final ServiceRegistry registry;
+    private final Func<ServiceProvider, ServiceScope> scopeFactory;
+    private final boolean isMeasuringActivations;
+    private final boolean isResolvingIteratively;
+    private final int warmUpParallelism;
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceProviderTemplateBase} с составленным
+     * реестром сервисов и фабричным методом для создания областей.
+     *
+     * @param registry               Реестр сервисов с планами активации.
+     * @param scopeFactory           Фабричный метод для создания экземпляров ServiceScope.
+     * @param isMeasuringActivations Измеряют ли провайдеры создание экземпляров.
+     * @param isResolvingIteratively Создают ли провайдеры экземпляры обходом с явным стеком.
+     * @param warmUpParallelism      Максимальное число потоков прогрева синглтонов.
+     */
+    ServiceProviderTemplateBase(ServiceRegistry registry, Func<ServiceProvider, ServiceScope> scopeFactory, boolean isMeasuringActivations,
+                                boolean isResolvingIteratively, int warmUpParallelism) {
+        this.registry = registry;
+        this.scopeFactory = scopeFactory;
+        this.isMeasuringActivations = isMeasuringActivations;
+        this.isResolvingIteratively = isResolvingIteratively;
+        this.warmUpParallelism = warmUpParallelism;
+    }
+
+    /**
+     * Создаёт новый провайдер сервисов по шаблону и запускает прогрев его синглтонов.
+     *
+     * @return Провайдер сервисов.
+     */
+    @Override
+    public ServiceProvider newProvider() {
+        ServiceProviderBase provider = new ServiceProviderBase(registry, scopeFactory, false, null, isMeasuringActivations,
+                isResolvingIteratively);
+        provider.startWarmUp(warmUpParallelism);
+        return provider;
+    }
+}
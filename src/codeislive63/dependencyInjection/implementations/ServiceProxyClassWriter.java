@@ -0,0 +1,505 @@
+package codeislive63.dependencyInjection.implementations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.ClassFileFormatVersion;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Формирует байт-код прокси-класса для интерфейса сервиса.
+ * <p>
+ * Прокси хранит целевой экземпляр в поле, а каждый метод интерфейса реализует
+ * одним вызовом {@link MethodHandle#invokeExact} статического неизменяемого
+ * обработчика, полученного из данных скрытого класса. Методы {@code equals},
+ * {@code hashCode} и {@code toString} так же вызывают обработчики, следующие в
+ * данных класса за обработчиками методов интерфейса, и передают вызов целевому
+ * экземпляру. Сгенерированные методы не содержат ветвлений, поэтому таблица
+ * кадров стека не требуется.
+ * </p>
+ * <p>
+ * Прокси с состоянием дополнительно принимает в конструкторе объект состояния
+ * экземпляра и передаёт его обработчикам вторым аргументом, сразу после целевого
+ * экземпляра. Так один прокси-класс обслуживает экземпляры с разным состоянием.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * final class ServiceProxy implements TService {
+ *     private static final MethodHandle handle0 = MethodHandles.classDataAt(MethodHandles.lookup(), "_", MethodHandle.class, 0);
+ *     private final TService target;
+ *
+ *     public ServiceProxy(TService target) {
+ *         this.target = target;
+ *     }
+ *
+ *     public Result method(Argument argument) {
+ *         return (Result) handle0.invokeExact(target, argument);
+ *     }
+ *
+ *     public boolean equals(Object other) {
+ *         return (boolean) handle1.invokeExact(target, (Object) this, other);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+final class ServiceProxyClassWriter {
+
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int CLASS_FILE_VERSION = ClassFileFormatVersion.RELEASE_17.major();
+
+    /**
+     * Число обработчиков методов {@link Object}, следующих в данных класса за обработчиками
+     * методов интерфейса: {@code equals}, {@code hashCode} и {@code toString}.
+     */
+    static final int OBJECT_METHOD_COUNT = 3;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ALOAD_1 = 0x2B;
+    private static final int ALOAD_2 = 0x2C;
+    private static final int LDC_W = 0x13;
+    private static final int IRETURN = 0xAC;
+    private static final int LRETURN = 0xAD;
+    private static final int FRETURN = 0xAE;
+    private static final int DRETURN = 0xAF;
+    private static final int ARETURN = 0xB0;
+    private static final int RETURN = 0xB1;
+    private static final int GETSTATIC = 0xB2;
+    private static final int PUTSTATIC = 0xB3;
+    private static final int GETFIELD = 0xB4;
+    private static final int PUTFIELD = 0xB5;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int CHECKCAST = 0xC0;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLES = "java/lang/invoke/MethodHandles";
+    private static final String LOOKUP_DESCRIPTOR = "()Ljava/lang/invoke/MethodHandles$Lookup;";
+    private static final String CLASS_DATA_DESCRIPTOR = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;";
+
+    private final ConstantPool constantPool = new ConstantPool();
+    private final boolean hasState;
+
+    private ServiceProxyClassWriter(boolean hasState) {
+        this.hasState = hasState;
+    }
+
+    /**
+     * Формирует байт-код прокси-класса.
+     *
+     * @param className   Внутреннее имя класса (через {@code /}) в пакете класса поиска.
+     * @param serviceType Интерфейс сервиса, который реализует прокси.
+     * @param interfaces  Дополнительные интерфейсы, которые реализует прокси.
+     * @param methods     Реализуемые методы; индекс метода совпадает с индексом обработчика в данных класса,
+     *                    а обработчики методов {@link Object} следуют за ними.
+     * @param hasState    Принимает ли прокси объект состояния экземпляра.
+     * @return Байт-код класса.
+     */
+    static byte[] write(String className, Class<?> serviceType, Class<?>[] interfaces, Method[] methods, boolean hasState) {
+        return new ServiceProxyClassWriter(hasState).writeClass(className, serviceType, interfaces, methods);
+    }
+
+    private byte[] writeClass(String className, Class<?> serviceType, Class<?>[] interfaces, Method[] methods) {
+        try {
+            String serviceName = internalName(serviceType);
+            String serviceDescriptor = descriptor(serviceType);
+
+            int thisClass = constantPool.classRef(className);
+            int superClass = constantPool.classRef(OBJECT);
+            int serviceClass = constantPool.classRef(serviceName);
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(body);
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length + 1);
+            out.writeShort(serviceClass);
+
+            for (Class<?> type : interfaces) {
+                out.writeShort(constantPool.classRef(internalName(type)));
+            }
+
+            int handleCount = methods.length + OBJECT_METHOD_COUNT;
+
+            out.writeShort(handleCount + (hasState ? 2 : 1));
+            writeField(out, ACC_PRIVATE | ACC_FINAL, "target", serviceDescriptor);
+
+            if (hasState) {
+                writeField(out, ACC_PRIVATE | ACC_FINAL, "state", OBJECT_DESCRIPTOR);
+            }
+
+            for (int i = 0; i < handleCount; i++) {
+                writeField(out, ACC_PRIVATE | ACC_STATIC | ACC_FINAL, handleName(i), "L" + METHOD_HANDLE + ";");
+            }
+
+            out.writeShort(handleCount + 2);
+            writeConstructor(out, className, serviceDescriptor);
+            writeStaticInitializer(out, className, handleCount);
+
+            for (int i = 0; i < methods.length; i++) {
+                writeMethod(out, className, serviceDescriptor, methods[i], i);
+            }
+
+            writeObjectMethods(out, className, serviceDescriptor, methods.length);
+
+            out.writeShort(0);
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(result);
+            header.writeInt(CLASS_FILE_MAGIC);
+            header.writeShort(0);
+            header.writeShort(CLASS_FILE_VERSION);
+            header.writeShort(constantPool.count);
+            constantPool.bytes.writeTo(result);
+            body.writeTo(result);
+
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeField(DataOutputStream out, int access, String name, String descriptor) throws IOException {
+        out.writeShort(access);
+        out.writeShort(constantPool.utf8(name));
+        out.writeShort(constantPool.utf8(descriptor));
+        out.writeShort(0);
+    }
+
+    private void writeConstructor(DataOutputStream out, String className, String serviceDescriptor) throws IOException {
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL, constantPool.methodRef(OBJECT, "<init>", "()V"));
+        code.op(ALOAD_0);
+        code.op(ALOAD_1);
+        code.op(PUTFIELD, constantPool.fieldRef(className, "target", serviceDescriptor));
+
+        if (hasState) {
+            code.op(ALOAD_0);
+            code.op(ALOAD_2);
+            code.op(PUTFIELD, constantPool.fieldRef(className, "state", OBJECT_DESCRIPTOR));
+        }
+
+        code.op(RETURN);
+
+        String stateDescriptor = hasState ? OBJECT_DESCRIPTOR : "";
+        writeMethodInfo(out, ACC_PUBLIC, "<init>", "(" + serviceDescriptor + stateDescriptor + ")V", code, 2, hasState ? 3 : 2);
+    }
+
+    private void writeStaticInitializer(DataOutputStream out, String className, int handleCount) throws IOException {
+        Code code = new Code();
+
+        for (int i = 0; i < handleCount; i++) {
+            code.op(INVOKESTATIC, constantPool.methodRef(METHOD_HANDLES, "lookup", LOOKUP_DESCRIPTOR));
+            code.op(LDC_W, constantPool.string("_"));
+            code.op(LDC_W, constantPool.classRef(METHOD_HANDLE));
+            code.op(LDC_W, constantPool.integer(i));
+            code.op(INVOKESTATIC, constantPool.methodRef(METHOD_HANDLES, "classDataAt", CLASS_DATA_DESCRIPTOR));
+            code.op(CHECKCAST, constantPool.classRef(METHOD_HANDLE));
+            code.op(PUTSTATIC, constantPool.fieldRef(className, handleName(i), "L" + METHOD_HANDLE + ";"));
+        }
+
+        code.op(RETURN);
+
+        writeMethodInfo(out, ACC_STATIC, "<clinit>", "()V", code, 4, 0);
+    }
+
+    private void writeMethod(DataOutputStream out, String className, String serviceDescriptor, Method method, int index) throws IOException {
+        Code code = new Code();
+        code.op(GETSTATIC, constantPool.fieldRef(className, handleName(index), "L" + METHOD_HANDLE + ";"));
+        code.op(ALOAD_0);
+        code.op(GETFIELD, constantPool.fieldRef(className, "target", serviceDescriptor));
+
+        int slot = 1;
+        StringBuilder invokeDescriptor = new StringBuilder("(").append(serviceDescriptor);
+
+        if (hasState) {
+            code.op(ALOAD_0);
+            code.op(GETFIELD, constantPool.fieldRef(className, "state", OBJECT_DESCRIPTOR));
+            invokeDescriptor.append(OBJECT_DESCRIPTOR);
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            code.op(loadOpcode(parameterType), slot);
+            slot += slotSize(parameterType);
+            invokeDescriptor.append(descriptor(parameterType));
+        }
+
+        invokeDescriptor.append(')').append(descriptor(method.getReturnType()));
+
+        code.op(INVOKEVIRTUAL, constantPool.methodRef(METHOD_HANDLE, "invokeExact", invokeDescriptor.toString()));
+        code.op(returnOpcode(method.getReturnType()));
+
+        int returnSize = slotSize(method.getReturnType());
+        int maxStack = slot + (hasState ? 2 : 1);
+        writeMethodInfo(out, ACC_PUBLIC, method.getName(), methodDescriptor(method), code, Math.max(maxStack, returnSize), slot);
+    }
+
+    /**
+     * Записывает методы {@code equals}, {@code hashCode} и {@code toString}, которые вызывают
+     * обработчики с индексами, начиная с указанного. Обработчик {@code equals} получает
+     * целевой экземпляр, сам прокси и сравниваемый объект.
+     */
+    private void writeObjectMethods(DataOutputStream out, String className, String serviceDescriptor, int firstIndex) throws IOException {
+        Code equals = new Code();
+        loadHandleAndTarget(equals, className, serviceDescriptor, firstIndex);
+        equals.op(ALOAD_0);
+        equals.op(ALOAD_1);
+        equals.op(INVOKEVIRTUAL, constantPool.methodRef(METHOD_HANDLE, "invokeExact",
+                "(" + serviceDescriptor + OBJECT_DESCRIPTOR + OBJECT_DESCRIPTOR + ")Z"));
+        equals.op(IRETURN);
+        writeMethodInfo(out, ACC_PUBLIC, "equals", "(" + OBJECT_DESCRIPTOR + ")Z", equals, 4, 2);
+
+        Code hashCode = new Code();
+        loadHandleAndTarget(hashCode, className, serviceDescriptor, firstIndex + 1);
+        hashCode.op(INVOKEVIRTUAL, constantPool.methodRef(METHOD_HANDLE, "invokeExact", "(" + serviceDescriptor + ")I"));
+        hashCode.op(IRETURN);
+        writeMethodInfo(out, ACC_PUBLIC, "hashCode", "()I", hashCode, 2, 1);
+
+        Code toString = new Code();
+        loadHandleAndTarget(toString, className, serviceDescriptor, firstIndex + 2);
+        toString.op(INVOKEVIRTUAL, constantPool.methodRef(METHOD_HANDLE, "invokeExact", "(" + serviceDescriptor + ")Ljava/lang/String;"));
+        toString.op(ARETURN);
+        writeMethodInfo(out, ACC_PUBLIC, "toString", "()Ljava/lang/String;", toString, 2, 1);
+    }
+
+    private void loadHandleAndTarget(Code code, String className, String serviceDescriptor, int index) throws IOException {
+        code.op(GETSTATIC, constantPool.fieldRef(className, handleName(index), "L" + METHOD_HANDLE + ";"));
+        code.op(ALOAD_0);
+        code.op(GETFIELD, constantPool.fieldRef(className, "target", serviceDescriptor));
+    }
+
+    private void writeMethodInfo(DataOutputStream out, int access, String name, String descriptor, Code code, int maxStack, int maxLocals) throws IOException {
+        byte[] bytecode = code.bytes.toByteArray();
+
+        out.writeShort(access);
+        out.writeShort(constantPool.utf8(name));
+        out.writeShort(constantPool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(constantPool.utf8("Code"));
+        out.writeInt(12 + bytecode.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytecode.length);
+        out.write(bytecode);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static String handleName(int index) {
+        return "handle" + index;
+    }
+
+    private static int loadOpcode(Class<?> type) {
+        if (type == long.class) {
+            return LLOAD;
+        } else if (type == float.class) {
+            return FLOAD;
+        } else if (type == double.class) {
+            return DLOAD;
+        } else if (type.isPrimitive()) {
+            return ILOAD;
+        }
+
+        return ALOAD;
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return RETURN;
+        } else if (type == long.class) {
+            return LRETURN;
+        } else if (type == float.class) {
+            return FRETURN;
+        } else if (type == double.class) {
+            return DRETURN;
+        } else if (type.isPrimitive()) {
+            return IRETURN;
+        }
+
+        return ARETURN;
+    }
+
+    private static int slotSize(Class<?> type) {
+        if (type == void.class) {
+            return 0;
+        }
+
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    static String methodDescriptor(Method method) {
+        StringBuilder builder = new StringBuilder("(");
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            builder.append(descriptor(parameterType));
+        }
+
+        return builder.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    private static String descriptor(Class<?> type) {
+        return type.descriptorString();
+    }
+
+    /**
+     * Байт-код одного метода. Все инструкции с операндом используют двухбайтовый индекс,
+     * кроме инструкций загрузки локальных переменных.
+     */
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void op(int opcode, int operand) {
+            bytes.write(opcode);
+
+            if (opcode >= ILOAD && opcode <= ALOAD) {
+                bytes.write(operand);
+            } else {
+                bytes.write(operand >>> 8);
+                bytes.write(operand);
+            }
+        }
+    }
+
+    /**
+     * Пул констант формируемого класса. Одинаковые константы записываются один раз.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = entries.get(CONSTANT_UTF8 + ":" + value);
+
+            if (index != null) {
+                return index;
+            }
+
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+            return register(CONSTANT_UTF8 + ":" + value);
+        }
+
+        int integer(int value) throws IOException {
+            Integer index = entries.get(CONSTANT_INTEGER + ":" + value);
+
+            if (index != null) {
+                return index;
+            }
+
+            out.writeByte(CONSTANT_INTEGER);
+            out.writeInt(value);
+            return register(CONSTANT_INTEGER + ":" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            return reference(CONSTANT_CLASS, internalName, utf8(internalName));
+        }
+
+        int string(String value) throws IOException {
+            return reference(CONSTANT_STRING, value, utf8(value));
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(CONSTANT_FIELDREF, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + ":" + owner + "." + name + ":" + descriptor;
+            Integer index = entries.get(key);
+
+            if (index != null) {
+                return index;
+            }
+
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+            return register(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = CONSTANT_NAME_AND_TYPE + ":" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+
+            if (index != null) {
+                return index;
+            }
+
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+
+            out.writeByte(CONSTANT_NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            return register(key);
+        }
+
+        private int reference(int tag, String value, int utf8Index) throws IOException {
+            String key = tag + ":" + value;
+            Integer index = entries.get(key);
+
+            if (index != null) {
+                return index;
+            }
+
+            out.writeByte(tag);
+            out.writeShort(utf8Index);
+            return register(key);
+        }
+
+        private int register(String key) {
+            int index = count++;
+            entries.put(key, index);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фабрика прокси для интерфейса сервиса, определяемых как скрытые классы.
+ * <p>
+ * Для каждого метода интерфейса составляется {@link MethodHandle} вида
+ * {@code (TService, аргументы...)результат}, который вызывает целевой экземпляр,
+ * при необходимости обёрнутый перехватчиками. Обработчики передаются скрытому классу
+ * как данные класса и хранятся в статических неизменяемых полях, поэтому JIT-компилятор
+ * встраивает всю цепочку в место вызова. Методы {@code equals}, {@code hashCode}
+ * и {@code toString} прокси передаются целевому экземпляру без перехватчиков;
+ * прокси также равен самому себе. Фабрика составляется один раз для плана
+ * активации, а при каждой активации создаётся только экземпляр прокси.
+ * </p>
+ * <p>
+ * Фабрика прокси с состоянием принимает при создании прокси объект состояния экземпляра,
+ * например кэши его методов. Обработчики такого прокси имеют вид
+ * {@code (TService, Object, аргументы...)результат} и получают состояние вторым аргументом.
+ * </p>
+ */
+final class ServiceProxyFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle BEFORE;
+    private static final MethodHandle AFTER;
+    private static final MethodHandle UNSUPPORTED;
+    private static final MethodHandle TARGET_EQUALS;
+    private static final MethodHandle TARGET_HASH_CODE;
+    private static final MethodHandle TARGET_TO_STRING;
+
+    static {
+        try {
+            BEFORE = LOOKUP.findVirtual(ServiceInterceptor.class, "before",
+                    MethodType.methodType(Object.class, Method.class, Object.class));
+            AFTER = LOOKUP.findStatic(ServiceProxyFactory.class, "afterInvocation",
+                    MethodType.methodType(void.class, ServiceInterceptor.class, Method.class, Throwable.class, Object.class, Object.class));
+            UNSUPPORTED = LOOKUP.findStatic(ServiceProxyFactory.class, "unsupportedOperation",
+                    MethodType.methodType(UnsupportedOperationException.class, String.class));
+            TARGET_EQUALS = LOOKUP.findStatic(ServiceProxyFactory.class, "targetEquals",
+                    MethodType.methodType(boolean.class, Object.class, Object.class, Object.class));
+            TARGET_HASH_CODE = LOOKUP.findVirtual(Object.class, "hashCode", MethodType.methodType(int.class));
+            TARGET_TO_STRING = LOOKUP.findVirtual(Object.class, "toString", MethodType.methodType(String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle constructor;
+
+    private ServiceProxyFactory(MethodHandle constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Составляет прокси-класс для интерфейса сервиса.
+     *
+     * @param serviceType Интерфейс сервиса.
+     * @param transformer Преобразование обработчика вызова каждого метода.
+     * @return Фабрика прокси.
+     * @throws IllegalStateException Если тип сервиса не является доступным интерфейсом.
+     */
+    static ServiceProxyFactory create(Class<?> serviceType, MethodHandleTransformer transformer) {
+        return create(serviceType, new Class<?>[0], transformer);
+    }
+
+    /**
+     * Составляет прокси-класс для интерфейса сервиса, дополнительно реализующий указанные интерфейсы.
+     * Исходный обработчик метода дополнительного интерфейса выбрасывает
+     * {@link UnsupportedOperationException}, поэтому такие методы должно заменить преобразование.
+     *
+     * @param serviceType Интерфейс сервиса.
+     * @param interfaces  Дополнительные интерфейсы прокси.
+     * @param transformer Преобразование обработчика вызова каждого метода.
+     * @return Фабрика прокси.
+     * @throws IllegalStateException Если тип сервиса не является доступным интерфейсом.
+     */
+    static ServiceProxyFactory create(Class<?> serviceType, Class<?>[] interfaces, MethodHandleTransformer transformer) {
+        return create(serviceType, interfaces, transformer, false);
+    }
+
+    /**
+     * Составляет прокси-класс с состоянием для интерфейса сервиса. Исходный обработчик
+     * каждого метода имеет вид {@code (TService, Object, аргументы...)результат} и не
+     * использует состояние; его использует преобразование.
+     *
+     * @param serviceType Интерфейс сервиса.
+     * @param interfaces  Дополнительные интерфейсы прокси.
+     * @param transformer Преобразование обработчика вызова каждого метода.
+     * @return Фабрика прокси, создающая прокси методом {@link #newProxy(Object, Object)}.
+     * @throws IllegalStateException Если тип сервиса не является доступным интерфейсом.
+     */
+    static ServiceProxyFactory createWithState(Class<?> serviceType, Class<?>[] interfaces, MethodHandleTransformer transformer) {
+        return create(serviceType, interfaces, transformer, true);
+    }
+
+    private static ServiceProxyFactory create(Class<?> serviceType, Class<?>[] interfaces, MethodHandleTransformer transformer,
+                                              boolean hasState) {
+        if (!serviceType.isInterface()) {
+            throw new IllegalStateException("Прокси можно создать только для интерфейса: " + serviceType.getName());
+        }
+
+        Method[] methods = proxiedMethods(serviceType, interfaces);
+        MethodHandle[] handles = new MethodHandle[methods.length + ServiceProxyClassWriter.OBJECT_METHOD_COUNT];
+
+        try {
+            for (int i = 0; i < methods.length; i++) {
+                MethodType type = invocationType(serviceType, methods[i]);
+                MethodHandle target = methods[i].getDeclaringClass().isAssignableFrom(serviceType)
+                        ? LOOKUP.unreflect(methods[i]).asType(type)
+                        : unsupported(methods[i], type);
+
+                if (hasState) {
+                    type = type.insertParameterTypes(1, Object.class);
+                    target = MethodHandles.dropArguments(target, 1, Object.class);
+                }
+
+                handles[i] = transformer.transform(methods[i], target).asType(type);
+            }
+
+            handles[methods.length] = TARGET_EQUALS.asType(MethodType.methodType(boolean.class, serviceType, Object.class, Object.class));
+            handles[methods.length + 1] = TARGET_HASH_CODE.asType(MethodType.methodType(int.class, serviceType));
+            handles[methods.length + 2] = TARGET_TO_STRING.asType(MethodType.methodType(String.class, serviceType));
+
+            MethodHandles.Lookup lookup = lookupFor(serviceType);
+            String packageName = lookup.lookupClass().getPackageName();
+            String className = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/") + "ServiceProxy";
+
+            MethodHandles.Lookup proxyLookup = lookup.defineHiddenClassWithClassData(
+                    ServiceProxyClassWriter.write(className, serviceType, interfaces, methods, hasState), List.of(handles), true);
+            MethodType constructorType = hasState
+                    ? MethodType.methodType(void.class, serviceType, Object.class)
+                    : MethodType.methodType(void.class, serviceType);
+            MethodHandle constructor = proxyLookup.findConstructor(proxyLookup.lookupClass(), constructorType);
+            constructor = hasState
+                    ? constructor.asType(MethodType.methodType(Object.class, Object.class, Object.class))
+                    : MethodHandles.dropArguments(constructor.asType(MethodType.methodType(Object.class, Object.class)), 1, Object.class);
+
+            return new ServiceProxyFactory(constructor);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Не удалось создать прокси для " + serviceType.getName(), e);
+        }
+    }
+
+    /**
+     * Возвращает преобразование, оборачивающее вызов метода цепочкой перехватчиков.
+     * Первый перехватчик в массиве вызывается первым.
+     *
+     * @param interceptors Перехватчики в порядке регистрации.
+     * @return Преобразование обработчиков вызова.
+     */
+    static MethodHandleTransformer intercepting(ServiceInterceptor[] interceptors) {
+        return (method, handle) -> {
+            if (!isServiceMethod(method, handle)) {
+                return handle;
+            }
+
+            MethodHandle result = handle;
+
+            for (int i = interceptors.length - 1; i >= 0; i--) {
+                result = intercept(result, method, interceptors[i]);
+            }
+
+            return result;
+        };
+    }
+
+    /**
+     * Создаёт прокси для указанного экземпляра сервиса.
+     *
+     * @param target Целевой экземпляр сервиса.
+     * @return Экземпляр прокси.
+     */
+    Object newProxy(Object target) {
+        return newProxy(target, null);
+    }
+
+    /**
+     * Создаёт прокси с указанным состоянием для экземпляра сервиса.
+     *
+     * @param target Целевой экземпляр сервиса.
+     * @param state  Состояние экземпляра, передаваемое обработчикам прокси с состоянием.
+     * @return Экземпляр прокси.
+     */
+    Object newProxy(Object target, Object state) {
+        try {
+            return (Object) constructor.invokeExact(target, state);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось создать прокси сервиса.", e);
+        }
+    }
+
+    /**
+     * Оборачивает обработчик вызова {@code (TService, аргументы...)результат} одним перехватчиком:
+     * {@link ServiceInterceptor#before} вызывается до обработчика, а {@link ServiceInterceptor#after}
+     * в блоке {@code finally} после него.
+     */
+    private static MethodHandle intercept(MethodHandle handle, Method method, ServiceInterceptor interceptor) {
+        MethodType type = handle.type();
+        Class<?> serviceType = type.parameterType(0);
+        Class<?> returnType = type.returnType();
+        List<Class<?>> arguments = type.parameterList().subList(1, type.parameterCount());
+
+        MethodHandle before = MethodHandles.insertArguments(BEFORE, 0, interceptor, method)
+                .asType(MethodType.methodType(Object.class, serviceType));
+        before = MethodHandles.dropArguments(before, 1, arguments);
+
+        MethodHandle after = MethodHandles.insertArguments(AFTER, 0, interceptor, method)
+                .asType(MethodType.methodType(void.class, Throwable.class, Object.class, serviceType));
+        after = MethodHandles.dropArguments(after, 3, arguments);
+
+        MethodHandle cleanup = after;
+
+        if (returnType != void.class) {
+            MethodHandle result = MethodHandles.dropArguments(MethodHandles.identity(returnType), 0, Throwable.class);
+            result = MethodHandles.dropArguments(result, 2, type.insertParameterTypes(0, Object.class).parameterList());
+            cleanup = MethodHandles.foldArguments(result, MethodHandles.dropArguments(after, 1, returnType));
+        }
+
+        MethodHandle body = MethodHandles.dropArguments(handle, 0, Object.class);
+        return MethodHandles.foldArguments(MethodHandles.tryFinally(body, cleanup), before);
+    }
+
+    private static boolean isServiceMethod(Method method, MethodHandle handle) {
+        return method.getDeclaringClass().isAssignableFrom(handle.type().parameterType(0));
+    }
+
+    private static MethodHandle unsupported(Method method, MethodType type) {
+        MethodHandle thrower = MethodHandles.throwException(type.returnType(), UnsupportedOperationException.class);
+        MethodHandle exception = MethodHandles.insertArguments(UNSUPPORTED, 0, method.getName());
+        return MethodHandles.dropArguments(MethodHandles.foldArguments(thrower, exception), 0, type.parameterList());
+    }
+
+    private static UnsupportedOperationException unsupportedOperation(String methodName) {
+        return new UnsupportedOperationException("Метод не поддерживается прокси: " + methodName);
+    }
+
+    private static boolean targetEquals(Object target, Object proxy, Object other) {
+        return proxy == other || target.equals(other);
+    }
+
+    private static void afterInvocation(ServiceInterceptor interceptor, Method method, Throwable error, Object state, Object target) {
+        interceptor.after(method, target, state, error);
+    }
+
+    private static MethodType invocationType(Class<?> serviceType, Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes()).insertParameterTypes(0, serviceType);
+    }
+
+    /**
+     * Возвращает методы интерфейсов, реализуемые прокси. Методы с одинаковой сигнатурой,
+     * унаследованные от нескольких интерфейсов, включаются один раз, а объявленные в
+     * интерфейсе методы {@link Object} пропускаются: прокси передаёт их целевому экземпляру.
+     */
+    private static Method[] proxiedMethods(Class<?> serviceType, Class<?>[] interfaces) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        addMethods(methods, serviceType);
+
+        for (Class<?> type : interfaces) {
+            addMethods(methods, type);
+        }
+
+        Method[] result = methods.values().toArray(new Method[0]);
+        Arrays.sort(result, (left, right) -> (left.getName() + ServiceProxyClassWriter.methodDescriptor(left))
+                .compareTo(right.getName() + ServiceProxyClassWriter.methodDescriptor(right)));
+        return result;
+    }
+
+    private static void addMethods(Map<String, Method> methods, Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers()) && !isObjectMethod(method)) {
+                methods.putIfAbsent(method.getName() + ServiceProxyClassWriter.methodDescriptor(method), method);
+            }
+        }
+    }
+
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Выбирает класс поиска, в пакете которого будет определён прокси. Публичные интерфейсы,
+     * видимые загрузчику контейнера, обслуживаются из пакета контейнера, остальные из
+     * пакета самого интерфейса.
+     */
+    private static MethodHandles.Lookup lookupFor(Class<?> serviceType) throws IllegalAccessException {
+        if (Modifier.isPublic(serviceType.getModifiers()) && isVisible(serviceType)) {
+            return LOOKUP;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(serviceType, LOOKUP);
+
+        if (!lookup.hasFullPrivilegeAccess()) {
+            throw new IllegalAccessException("Интерфейс недоступен для создания прокси: " + serviceType.getName());
+        }
+
+        return lookup;
+    }
+
+    private static boolean isVisible(Class<?> serviceType) {
+        try {
+            return Class.forName(serviceType.getName(), false, ServiceProxyFactory.class.getClassLoader()) == serviceType;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Преобразование обработчика вызова метода интерфейса сервиса. Результат должен
+     * иметь тот же тип, что и исходный обработчик.
+     */
+    @FunctionalInterface
+    interface MethodHandleTransformer {
+
+        /**
+         * Преобразует обработчик вызова метода.
+         *
+         * @param method Метод интерфейса сервиса.
+         * @param handle Обработчик вида {@code (TService, аргументы...)результат}.
+         * @return Преобразованный обработчик того же типа.
+         */
+        MethodHandle transform(Method method, MethodHandle handle);
+
+        /**
+         * Возвращает преобразование, которое применяет указанное преобразование к результату текущего.
+         *
+         * @param next Следующее преобразование.
+         * @return Составное преобразование.
+         */
+        default MethodHandleTransformer andThen(MethodHandleTransformer next) {
+            return (method, handle) -> next.transform(method, transform(method, handle));
+        }
+    }
+}
@@ -0,0 +1,876 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.ServiceDecorator;
+import codeislive63.dependencyInjection.ServiceDelta;
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceInterception;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.diagnostics.DependencyEdge;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+import codeislive63.dependencyInjection.diagnostics.DependencyNode;
+import codeislive63.dependencyInjection.diagnostics.StartupProfiler;
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Неизменяемый набор зарегистрированных сервисов вместе с их планами активации.
+ * <p>
+ * Реестр составляется при построении провайдера и используется совместно корневым
+ * провайдером и всеми его областями. Замена регистраций не изменяет реестр, а создаёт
+ * новый, который провайдер публикует атомарно.
+ * </p>
+ * <p>
+ * Типы, объявленные отложенными модулями, считаются зарегистрированными, но дескрипторы
+ * и планы модуля добавляются в реестр только при первом поиске одного из его типов.
+ * Регистрации основной коллекции имеют приоритет перед регистрациями модулей.
+ * </p>
+ */
+final class ServiceRegistry {
+
+    private static final int PARALLEL_THRESHOLD = 2048;
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final ServiceDescriptor[] NO_DESCRIPTORS = new ServiceDescriptor[0];
+    private static final List<ServiceDecorator> NO_DECORATORS = new List<>();
+    private static final ServiceInterceptor[] NO_INTERCEPTORS = new ServiceInterceptor[0];
+    private static final List<LazyServiceModule> NO_MODULES = new List<>();
+
+    private final List<ServiceDescriptor> descriptors;
+    private final Set<Class<?>> registeredTypes;
+    private final Map<Class<?>, ServiceDescriptor[]>[] index;
+    private final Map<ServiceDescriptor, ServiceActivationPlan> plans;
+    private final List<ServiceDecorator> decorators;
+    private final List<ServiceInterception> interceptions;
+    private final Map<Class<?>, LazyServiceModule> modules;
+    private final ServiceDescriptor[] warmableSingletons;
+
+    private final Set<LazyServiceModule> loadedModules = new HashSet<>();
+    private final List<ServiceDescriptor> loadedDescriptors = new List<>();
+    private final Map<Class<?>, ServiceDescriptor[]> loadedIndex = new ConcurrentHashMap<>();
+    private final Map<ServiceDescriptor, ServiceActivationPlan> loadedPlans = new ConcurrentHashMap<>();
+
+    private ServiceRegistry(List<ServiceDescriptor> descriptors, Set<Class<?>> registeredTypes, Map<Class<?>, ServiceDescriptor[]>[] index,
+                            Map<ServiceDescriptor, ServiceActivationPlan> plans, List<ServiceDecorator> decorators,
+                            List<ServiceInterception> interceptions, Map<Class<?>, LazyServiceModule> modules) {
+        this.descriptors = descriptors;
+        this.registeredTypes = registeredTypes;
+        this.index = index;
+        this.plans = plans;
+        this.decorators = decorators;
+        this.interceptions = interceptions;
+        this.modules = modules;
+        this.warmableSingletons = findWarmableSingletons(descriptors);
+    }
+
+    /**
+     * Находит синглтоны, которым нужен прогрев. Список составляется один раз для реестра,
+     * поэтому провайдеры шаблона не просматривают регистрации при создании.
+     *
+     * @throws IllegalStateException Если метод прогрева объявлен неверно.
+     */
+    private static ServiceDescriptor[] findWarmableSingletons(List<ServiceDescriptor> descriptors) {
+        List<ServiceDescriptor> warmable = new List<>();
+
+        for (ServiceDescriptor descriptor : descriptors) {
+            if (descriptor.getLifetime() == ServiceLifetime.SINGLETON && ServiceWarmUp.isWarmable(warmUpTypeOf(descriptor))) {
+                warmable.add(descriptor);
+            }
+        }
+
+        return warmable.count() > 0 ? toArray(warmable) : NO_DESCRIPTORS;
+    }
+
+    private static Class<?> warmUpTypeOf(ServiceDescriptor descriptor) {
+        if (descriptor.getImplementationInstance() != null) {
+            return descriptor.getImplementationInstance().getClass();
+        }
+
+        return descriptor.getImplementationType() != null ? descriptor.getImplementationType() : descriptor.getServiceType();
+    }
+
+    /**
+     * Возвращает синглтоны основной коллекции, реализация которых реализует
+     * {@link codeislive63.dependencyInjection.interfaces.Warmable} или содержит методы,
+     * помеченные {@link codeislive63.dependencyInjection.annotations.WarmUp}.
+     *
+     * @return Дескрипторы синглтонов в порядке регистрации.
+     */
+    ServiceDescriptor[] getWarmableSingletons() {
+        return warmableSingletons;
+    }
+
+    /**
+     * Составляет реестр и планы активации для указанных дескрипторов, декораторов и перехватчиков.
+     *
+     * @param services      Зарегистрированные дескрипторы сервисов.
+     * @param decorators    Зарегистрированные декораторы.
+     * @param interceptions Зарегистрированные перехватчики.
+     * @return Реестр сервисов.
+     */
+    static ServiceRegistry compile(Iterable<ServiceDescriptor> services, Iterable<ServiceDecorator> decorators,
+                                   Iterable<ServiceInterception> interceptions) {
+        return compile(services, decorators, interceptions, null);
+    }
+
+    /**
+     * Составляет реестр и планы активации, измеряя составление каждого плана.
+     *
+     * @param services      Зарегистрированные дескрипторы сервисов.
+     * @param decorators    Зарегистрированные декораторы.
+     * @param interceptions Зарегистрированные перехватчики.
+     * @param profiler      Профилировщик запуска или {@code null}.
+     * @return Реестр сервисов.
+     */
+    static ServiceRegistry compile(Iterable<ServiceDescriptor> services, Iterable<ServiceDecorator> decorators,
+                                   Iterable<ServiceInterception> interceptions, StartupProfiler profiler) {
+        return compile(services, decorators, interceptions, NO_MODULES, profiler);
+    }
+
+    /**
+     * Составляет реестр и планы активации, откладывая регистрацию указанных модулей до
+     * первого поиска их типов.
+     *
+     * @param services      Зарегистрированные дескрипторы сервисов.
+     * @param decorators    Зарегистрированные декораторы.
+     * @param interceptions Зарегистрированные перехватчики.
+     * @param modules       Отложенные модули сервисов.
+     * @param profiler      Профилировщик запуска или {@code null}.
+     * @return Реестр сервисов.
+     * @throws IllegalStateException Если тип сервиса объявлен несколькими модулями.
+     */
+    static ServiceRegistry compile(Iterable<ServiceDescriptor> services, Iterable<ServiceDecorator> decorators,
+                                   Iterable<ServiceInterception> interceptions, Iterable<LazyServiceModule> modules,
+                                   StartupProfiler profiler) {
+        List<ServiceDescriptor> descriptors = new List<>();
+
+        for (ServiceDescriptor descriptor : services) {
+            descriptors.add(descriptor);
+        }
+
+        return compile(descriptors, copy(decorators), copy(interceptions), indexModules(modules), null, profiler);
+    }
+
+    /**
+     * Возвращает новый реестр, в котором все регистрации типа сервиса заменены указанным
+     * дескриптором. Если тип не зарегистрирован, дескриптор добавляется в конец.
+     * Текущий реестр не изменяется.
+     *
+     * @param descriptor Новый дескриптор сервиса.
+     * @return Новый реестр сервисов.
+     */
+    ServiceRegistry replace(ServiceDescriptor descriptor) {
+        LazyServiceModule module = modules.get(descriptor.getServiceType());
+
+        if (module != null) {
+            load(module);
+        }
+
+        List<ServiceDescriptor> next = new List<>();
+        boolean isReplaced = false;
+
+        for (ServiceDescriptor current : getDescriptors()) {
+            if (!current.getServiceType().equals(descriptor.getServiceType())) {
+                next.add(current);
+            } else if (!isReplaced) {
+                next.add(descriptor);
+                isReplaced = true;
+            }
+        }
+
+        if (!isReplaced) {
+            next.add(descriptor);
+        }
+
+        return compile(next, decorators, interceptions, pendingModules(), this, null);
+    }
+
+    /**
+     * Возвращает новый реестр с дополнительной регистрацией. Текущий реестр не изменяется.
+     *
+     * @param descriptor Добавляемый дескриптор сервиса.
+     * @return Новый реестр сервисов.
+     */
+    ServiceRegistry add(ServiceDescriptor descriptor) {
+        LazyServiceModule module = modules.get(descriptor.getServiceType());
+
+        if (module != null) {
+            load(module);
+        }
+
+        List<ServiceDescriptor> next = new List<>();
+
+        for (ServiceDescriptor current : getDescriptors()) {
+            next.add(current);
+        }
+
+        next.add(descriptor);
+        return compile(next, decorators, interceptions, pendingModules(), this, null);
+    }
+
+    /**
+     * Возвращает новый реестр, полученный применением изменений к этому реестру. Сегменты
+     * индекса без изменённых типов используются повторно, а из планов заново составляются
+     * только планы новых дескрипторов и планы, выбор конструктора которых зависит от типов,
+     * ставших зарегистрированными или переставших быть ими. Текущий реестр не изменяется.
+     *
+     * @param delta Изменения регистраций.
+     * @return Новый реестр сервисов.
+     */
+    ServiceRegistry rebuild(ServiceDelta delta) {
+        Set<Class<?>> changedTypes = changedTypesOf(delta);
+
+        for (Class<?> changedType : changedTypes) {
+            LazyServiceModule module = modules.get(changedType);
+
+            if (module != null) {
+                load(module);
+            }
+        }
+
+        List<ServiceDescriptor> next = applyDelta(delta);
+        Set<Class<?>> touchedTypes = new HashSet<>(changedTypes);
+
+        synchronized (this) {
+            for (ServiceDescriptor descriptor : loadedDescriptors) {
+                touchedTypes.add(descriptor.getServiceType());
+            }
+        }
+
+        Map<Class<?>, List<ServiceDescriptor>> grouped = new HashMap<>();
+
+        for (ServiceDescriptor descriptor : next) {
+            if (touchedTypes.contains(descriptor.getServiceType())) {
+                grouped.computeIfAbsent(descriptor.getServiceType(), type -> new List<>()).add(descriptor);
+            }
+        }
+
+        Map<Class<?>, ServiceDescriptor[]>[] nextIndex = index.clone();
+        boolean[] isCopied = new boolean[index.length];
+        Set<Class<?>> nextRegisteredTypes = new HashSet<>(registeredTypes);
+        Set<Class<?>> flippedTypes = new HashSet<>();
+
+        for (Class<?> type : touchedTypes) {
+            int shard = shardOf(type, index.length);
+
+            if (!isCopied[shard]) {
+                nextIndex[shard] = new HashMap<>(index[shard]);
+                isCopied[shard] = true;
+            }
+
+            List<ServiceDescriptor> registrations = grouped.get(type);
+
+            if (registrations == null) {
+                nextIndex[shard].remove(type);
+                nextRegisteredTypes.remove(type);
+            } else {
+                nextIndex[shard].put(type, toArray(registrations));
+                nextRegisteredTypes.add(type);
+            }
+
+            if (registeredTypes.contains(type) != nextRegisteredTypes.contains(type)) {
+                flippedTypes.add(type);
+            }
+        }
+
+        Map<Class<?>, List<ServiceDecorator>> serviceDecorators = groupDecorators(decorators);
+        Map<Class<?>, ServiceInterceptor[]> serviceInterceptors = groupInterceptors(interceptions);
+        Map<ServiceDescriptor, ServiceActivationPlan> nextPlans = new IdentityHashMap<>(next.count());
+
+        for (ServiceDescriptor descriptor : next) {
+            ServiceActivationPlan plan = getPlan(descriptor);
+
+            if (plan == null || !flippedTypes.isEmpty() && plan.isSelectionAffectedBy(flippedTypes)) {
+                plan = ServiceActivationPlan.compile(descriptor, nextRegisteredTypes,
+                        serviceDecorators.getOrDefault(descriptor.getServiceType(), NO_DECORATORS),
+                        serviceInterceptors.getOrDefault(descriptor.getServiceType(), NO_INTERCEPTORS));
+            }
+
+            nextPlans.put(descriptor, plan);
+        }
+
+        return new ServiceRegistry(next, nextRegisteredTypes, nextIndex, nextPlans, decorators, interceptions, pendingModules());
+    }
+
+    /**
+     * Применяет изменения к регистрациям реестра: удаляет типы, выполняет замены
+     * и добавляет новые регистрации.
+     */
+    private List<ServiceDescriptor> applyDelta(ServiceDelta delta) {
+        Set<Class<?>> removedTypes = new HashSet<>();
+
+        for (Class<?> removedType : delta.getRemovedTypes()) {
+            removedTypes.add(removedType);
+        }
+
+        Map<Class<?>, ServiceDescriptor> replacements = new HashMap<>();
+
+        for (ServiceDescriptor replacement : delta.getReplacements()) {
+            replacements.put(replacement.getServiceType(), replacement);
+        }
+
+        List<ServiceDescriptor> next = new List<>();
+        Set<Class<?>> replacedTypes = new HashSet<>();
+
+        for (ServiceDescriptor current : getDescriptors()) {
+            Class<?> type = current.getServiceType();
+
+            if (removedTypes.contains(type)) {
+                continue;
+            }
+
+            ServiceDescriptor replacement = replacements.get(type);
+
+            if (replacement == null) {
+                next.add(current);
+            } else if (replacedTypes.add(type)) {
+                next.add(replacement);
+            }
+        }
+
+        for (ServiceDescriptor replacement : delta.getReplacements()) {
+            if (replacements.get(replacement.getServiceType()) == replacement && replacedTypes.add(replacement.getServiceType())) {
+                next.add(replacement);
+            }
+        }
+
+        for (ServiceDescriptor addition : delta.getAdditions()) {
+            next.add(addition);
+        }
+
+        return next;
+    }
+
+    private static Set<Class<?>> changedTypesOf(ServiceDelta delta) {
+        Set<Class<?>> changedTypes = new HashSet<>();
+
+        for (Class<?> removedType : delta.getRemovedTypes()) {
+            changedTypes.add(removedType);
+        }
+
+        for (ServiceDescriptor replacement : delta.getReplacements()) {
+            changedTypes.add(replacement.getServiceType());
+        }
+
+        for (ServiceDescriptor addition : delta.getAdditions()) {
+            changedTypes.add(addition.getServiceType());
+        }
+
+        return changedTypes;
+    }
+
+    /**
+     * Возвращает типы сервисов, которые изменения затрагивают прямо или через зависимости
+     * планов активации. Зависимости фабрик неизвестны, поэтому при любых изменениях
+     * сервисы фабрик и все зависящие от них сервисы считаются затронутыми.
+     *
+     * @param delta Изменения регистраций, применённые к этому реестру.
+     * @return Затронутые типы сервисов.
+     */
+    Set<Class<?>> collectAffectedTypes(ServiceDelta delta) {
+        Set<Class<?>> affected = changedTypesOf(delta);
+
+        if (affected.isEmpty()) {
+            return affected;
+        }
+
+        Map<Class<?>, List<Class<?>>> dependents = new HashMap<>();
+
+        for (ServiceDescriptor descriptor : getDescriptors()) {
+            if (descriptor.getImplementationFactory() != null) {
+                affected.add(descriptor.getServiceType());
+                continue;
+            }
+
+            for (ServiceActivationPlan.Dependency dependency : getPlan(descriptor).getDependencies()) {
+                dependents.computeIfAbsent(dependency.serviceType(), type -> new List<>()).add(descriptor.getServiceType());
+            }
+        }
+
+        ArrayDeque<Class<?>> pending = new ArrayDeque<>(affected);
+
+        while (!pending.isEmpty()) {
+            List<Class<?>> typeDependents = dependents.get(pending.poll());
+
+            if (typeDependents == null) {
+                continue;
+            }
+
+            for (Class<?> dependent : typeDependents) {
+                if (affected.add(dependent)) {
+                    pending.add(dependent);
+                }
+            }
+        }
+
+        return affected;
+    }
+
+    /**
+     * Возвращает типы, от которых сервис зависит прямо или через зависимости планов
+     * активации, включая тип самого сервиса. Зависимость на тип учитывает первую его
+     * регистрацию, а параметр-коллекция — все регистрации типа элемента.
+     *
+     * @param descriptor Дескриптор сервиса.
+     * @return Типы зависимостей или {@code null}, если в цепочке есть фабрика,
+     * зависимости которой неизвестны.
+     */
+    Set<Class<?>> collectDependencyTypes(ServiceDescriptor descriptor) {
+        Set<Class<?>> types = new HashSet<>();
+        Set<ServiceDescriptor> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<ServiceDescriptor> pending = new ArrayDeque<>();
+        visited.add(descriptor);
+        pending.add(descriptor);
+
+        while (!pending.isEmpty()) {
+            ServiceDescriptor current = pending.poll();
+            types.add(current.getServiceType());
+
+            if (current.getImplementationFactory() != null) {
+                return null;
+            }
+
+            for (ServiceActivationPlan.Dependency dependency : getPlan(current).getDependencies()) {
+                types.add(dependency.serviceType());
+
+                ServiceDescriptor[] targets = getDescriptors(dependency.serviceType());
+                int targetCount = dependency.isMultiple() ? targets.length : Math.min(targets.length, 1);
+
+                for (int i = 0; i < targetCount; i++) {
+                    if (visited.add(targets[i])) {
+                        pending.add(targets[i]);
+                    }
+                }
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Составляет граф зависимостей по планам активации. Зависимость указывает на первую
+     * регистрацию своего типа, а параметр-коллекция — на все регистрации типа элемента;
+     * зависимости незарегистрированных типов и типов незагруженных модулей пропускаются.
+     *
+     * @param costs Измеренная стоимость создания экземпляров или {@code null}.
+     * @return Граф зависимостей.
+     */
+    DependencyGraph toDependencyGraph(ActivationCosts costs) {
+        Map<ServiceDescriptor, DependencyNode> nodesByDescriptor = new IdentityHashMap<>();
+        List<DependencyNode> nodes = new List<>();
+        List<DependencyEdge> edges = new List<>();
+
+        List<ServiceDescriptor> all = getDescriptors();
+
+        for (ServiceDescriptor descriptor : all) {
+            DependencyNode node = new DependencyNode("n" + nodes.count(), descriptor.getServiceType(), implementationTypeOf(descriptor),
+                    descriptor.getLifetime(), costs != null ? costs.getCount(descriptor) : 0, costs != null ? costs.getNanos(descriptor) : 0);
+            nodesByDescriptor.put(descriptor, node);
+            nodes.add(node);
+        }
+
+        for (ServiceDescriptor descriptor : all) {
+            for (ServiceActivationPlan.Dependency dependency : getPlan(descriptor).getDependencies()) {
+                ServiceDescriptor[] targets = findDescriptors(dependency.serviceType(), false);
+                int targetCount = dependency.isMultiple() ? targets.length : Math.min(targets.length, 1);
+
+                for (int i = 0; i < targetCount; i++) {
+                    edges.add(new DependencyEdge(nodesByDescriptor.get(descriptor), nodesByDescriptor.get(targets[i]), dependency.kind()));
+                }
+            }
+        }
+
+        return new DependencyGraph(nodes, edges);
+    }
+
+    private static Class<?> implementationTypeOf(ServiceDescriptor descriptor) {
+        if (descriptor.getImplementationInstance() != null) {
+            return descriptor.getImplementationInstance().getClass();
+        }
+
+        return descriptor.getImplementationFactory() == null ? descriptor.getImplementationType() : null;
+    }
+
+    /**
+     * Проверяет, содержит ли реестр указанный дескриптор.
+     *
+     * @param descriptor Дескриптор сервиса.
+     * @return {@code true}, если дескриптор зарегистрирован в этом реестре.
+     */
+    boolean contains(ServiceDescriptor descriptor) {
+        return plans.containsKey(descriptor) || loadedPlans.containsKey(descriptor);
+    }
+
+    /**
+     * Составляет реестр. Если набор зарегистрированных типов не изменился по сравнению
+     * с предыдущим реестром, планы сохранившихся дескрипторов используются повторно,
+     * поскольку выбор их конструкторов от нового реестра не зависит.
+     * <p>
+     * Для больших коллекций индекс и планы составляются параллельно. Каждый сегмент
+     * индекса просматривает дескрипторы в порядке регистрации, а план записывается
+     * в позицию своего дескриптора, поэтому результат не зависит от числа потоков.
+     * </p>
+     */
+    private static ServiceRegistry compile(List<ServiceDescriptor> descriptors, List<ServiceDecorator> decorators,
+                                           List<ServiceInterception> interceptions, Map<Class<?>, LazyServiceModule> modules,
+                                           ServiceRegistry previous, StartupProfiler profiler) {
+        ServiceDescriptor[] all = new ServiceDescriptor[descriptors.count()];
+
+        for (int i = 0; i < all.length; i++) {
+            all[i] = descriptors.get(i);
+        }
+
+        int parallelism = all.length >= PARALLEL_THRESHOLD ? Runtime.getRuntime().availableProcessors() : 1;
+        int shardCount = parallelism > 1 ? Integer.highestOneBit(parallelism * 2 - 1) : 1;
+
+        Map<Class<?>, ServiceDescriptor[]>[] index = buildIndex(all, shardCount);
+        Set<Class<?>> registeredTypes = new HashSet<>();
+
+        for (Map<Class<?>, ServiceDescriptor[]> shard : index) {
+            registeredTypes.addAll(shard.keySet());
+        }
+
+        for (Class<?> moduleType : modules.keySet()) {
+            if (!registeredTypes.add(moduleType)) {
+                throw new IllegalStateException("Тип сервиса " + moduleType.getName() + " зарегистрирован в коллекции и объявлен модулем");
+            }
+        }
+
+        boolean canReusePlans = previous != null && previous.registeredTypes.equals(registeredTypes);
+        Map<Class<?>, List<ServiceDecorator>> serviceDecorators = groupDecorators(decorators);
+        Map<Class<?>, ServiceInterceptor[]> serviceInterceptors = groupInterceptors(interceptions);
+        ServiceActivationPlan[] compiled = new ServiceActivationPlan[all.length];
+
+        PlanCompiler compiler = position -> {
+            ServiceDescriptor descriptor = all[position];
+
+            if (canReusePlans && previous.contains(descriptor)) {
+                return previous.getPlan(descriptor);
+            }
+
+            return ServiceActivationPlan.compile(descriptor, registeredTypes,
+                    serviceDecorators.getOrDefault(descriptor.getServiceType(), NO_DECORATORS),
+                    serviceInterceptors.getOrDefault(descriptor.getServiceType(), NO_INTERCEPTORS));
+        };
+
+        if (parallelism == 1) {
+            for (int i = 0; i < all.length; i++) {
+                if (profiler == null) {
+                    compiled[i] = compiler.compile(i);
+                    continue;
+                }
+
+                StartupProfiler.Span span = profiler.start("plan", all[i].getServiceType().getName());
+
+                try {
+                    compiled[i] = compiler.compile(i);
+                } finally {
+                    span.close();
+                }
+            }
+        } else {
+            StartupProfiler.Span span = profiler != null ? profiler.start("plans", all.length + " descriptors") : null;
+
+            try {
+                compileInParallel(compiled, compiler, parallelism);
+            } finally {
+                if (span != null) {
+                    span.close();
+                }
+            }
+        }
+
+        Map<ServiceDescriptor, ServiceActivationPlan> plans = new IdentityHashMap<>(all.length);
+
+        for (int i = 0; i < all.length; i++) {
+            plans.put(all[i], compiled[i]);
+        }
+
+        return new ServiceRegistry(descriptors, registeredTypes, index, plans, decorators, interceptions, modules);
+    }
+
+    /**
+     * Сопоставляет каждому объявленному типу модуль, который его предоставляет.
+     */
+    private static Map<Class<?>, LazyServiceModule> indexModules(Iterable<LazyServiceModule> modules) {
+        Map<Class<?>, LazyServiceModule> result = new HashMap<>();
+
+        for (LazyServiceModule module : modules) {
+            for (Class<?> serviceType : module.getServiceTypes()) {
+                if (result.putIfAbsent(serviceType, module) != null) {
+                    throw new IllegalStateException("Тип сервиса " + serviceType.getName() + " объявлен несколькими модулями");
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Возвращает модули, которые ещё не загружены в этот реестр.
+     */
+    private synchronized Map<Class<?>, LazyServiceModule> pendingModules() {
+        Map<Class<?>, LazyServiceModule> result = new HashMap<>();
+
+        for (Map.Entry<Class<?>, LazyServiceModule> entry : modules.entrySet()) {
+            if (!loadedModules.contains(entry.getValue())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Добавляет в реестр регистрации модуля и составляет их планы. Планы публикуются
+     * раньше индекса, поэтому найденный дескриптор всегда имеет план.
+     */
+    private synchronized void load(LazyServiceModule module) {
+        if (loadedModules.contains(module)) {
+            return;
+        }
+
+        ServiceDescriptor[] moduleDescriptors = module.load();
+        Set<Class<?>> types = new HashSet<>(registeredTypes);
+        types.addAll(loadedIndex.keySet());
+
+        for (ServiceDescriptor descriptor : moduleDescriptors) {
+            types.add(descriptor.getServiceType());
+        }
+
+        Map<Class<?>, List<ServiceDecorator>> serviceDecorators = groupDecorators(decorators);
+        Map<Class<?>, ServiceInterceptor[]> serviceInterceptors = groupInterceptors(interceptions);
+
+        for (ServiceDescriptor descriptor : moduleDescriptors) {
+            loadedPlans.put(descriptor, ServiceActivationPlan.compile(descriptor, types,
+                    serviceDecorators.getOrDefault(descriptor.getServiceType(), NO_DECORATORS),
+                    serviceInterceptors.getOrDefault(descriptor.getServiceType(), NO_INTERCEPTORS)));
+        }
+
+        for (ServiceDescriptor descriptor : moduleDescriptors) {
+            loadedDescriptors.add(descriptor);
+            loadedIndex.merge(descriptor.getServiceType(), new ServiceDescriptor[]{descriptor}, ServiceRegistry::concat);
+        }
+
+        loadedModules.add(module);
+    }
+
+    private static ServiceDescriptor[] concat(ServiceDescriptor[] first, ServiceDescriptor[] second) {
+        ServiceDescriptor[] result = new ServiceDescriptor[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Строит индекс дескрипторов по типу сервиса, разделённый на сегменты по хешу типа.
+     * Дескрипторы распределяются по сегментам за один проход, после чего сегменты
+     * группируются независимо, каждый в порядке регистрации.
+     */
+    private static Map<Class<?>, ServiceDescriptor[]>[] buildIndex(ServiceDescriptor[] descriptors, int shardCount) {
+        @SuppressWarnings("unchecked")
+        Map<Class<?>, ServiceDescriptor[]>[] index = (Map<Class<?>, ServiceDescriptor[]>[]) new Map<?, ?>[shardCount];
+        @SuppressWarnings("unchecked")
+        List<ServiceDescriptor>[] partitions = (List<ServiceDescriptor>[]) new List<?>[shardCount];
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            partitions[shard] = new List<>();
+        }
+
+        for (ServiceDescriptor descriptor : descriptors) {
+            partitions[shardOf(descriptor.getServiceType(), shardCount)].add(descriptor);
+        }
+
+        IntStream shards = IntStream.range(0, shardCount);
+        (shardCount > 1 ? shards.parallel() : shards).forEach(shard -> {
+            Map<Class<?>, List<ServiceDescriptor>> grouped = new HashMap<>();
+
+            for (ServiceDescriptor descriptor : partitions[shard]) {
+                grouped.computeIfAbsent(descriptor.getServiceType(), type -> new List<>()).add(descriptor);
+            }
+
+            Map<Class<?>, ServiceDescriptor[]> result = new HashMap<>(grouped.size() * 2);
+
+            for (Map.Entry<Class<?>, List<ServiceDescriptor>> entry : grouped.entrySet()) {
+                result.put(entry.getKey(), toArray(entry.getValue()));
+            }
+
+            index[shard] = result;
+        });
+
+        return index;
+    }
+
+    private static ServiceDescriptor[] toArray(List<ServiceDescriptor> descriptors) {
+        ServiceDescriptor[] result = new ServiceDescriptor[descriptors.count()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = descriptors.get(i);
+        }
+
+        return result;
+    }
+
+    private static int shardOf(Class<?> serviceType, int shardCount) {
+        int hash = serviceType.hashCode();
+        return (hash ^ (hash >>> 16)) & (shardCount - 1);
+    }
+
+    /**
+     * Составляет планы частями в общем пуле потоков. Если составление нескольких планов
+     * завершилось ошибкой, выбрасывается ошибка дескриптора, зарегистрированного первым.
+     */
+    private static void compileInParallel(ServiceActivationPlan[] compiled, PlanCompiler compiler, int parallelism) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, compiled.length / (parallelism * 4) + 1);
+        int chunkCount = (compiled.length + chunkSize - 1) / chunkSize;
+        RuntimeException[] failures = new RuntimeException[chunkCount];
+
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int end = Math.min(compiled.length, (chunk + 1) * chunkSize);
+
+            try {
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    compiled[i] = compiler.compile(i);
+                }
+            } catch (RuntimeException e) {
+                failures[chunk] = e;
+            }
+        });
+
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Группирует декораторы по типам сервисов с сохранением порядка регистрации.
+     */
+    private static Map<Class<?>, List<ServiceDecorator>> groupDecorators(Iterable<ServiceDecorator> decorators) {
+        Map<Class<?>, List<ServiceDecorator>> result = new HashMap<>();
+
+        for (ServiceDecorator decorator : decorators) {
+            result.computeIfAbsent(decorator.getServiceType(), type -> new List<>()).add(decorator);
+        }
+
+        return result;
+    }
+
+    private static <T> List<T> copy(Iterable<T> items) {
+        List<T> result = new List<>();
+
+        for (T item : items) {
+            result.add(item);
+        }
+
+        return result;
+    }
+
+    /**
+     * Группирует перехватчики по интерфейсам сервисов с сохранением порядка регистрации.
+     */
+    private static Map<Class<?>, ServiceInterceptor[]> groupInterceptors(Iterable<ServiceInterception> interceptions) {
+        Map<Class<?>, List<ServiceInterceptor>> interceptors = new HashMap<>();
+
+        for (ServiceInterception interception : interceptions) {
+            interceptors.computeIfAbsent(interception.getServiceType(), type -> new List<>()).add(interception.getInterceptor());
+        }
+
+        Map<Class<?>, ServiceInterceptor[]> result = new HashMap<>();
+
+        for (Map.Entry<Class<?>, List<ServiceInterceptor>> entry : interceptors.entrySet()) {
+            ServiceInterceptor[] chain = new ServiceInterceptor[entry.getValue().count()];
+
+            for (int i = 0; i < chain.length; i++) {
+                chain[i] = entry.getValue().get(i);
+            }
+
+            result.put(entry.getKey(), chain);
+        }
+
+        return result;
+    }
+
+    /**
+     * Возвращает зарегистрированные дескрипторы сервисов в порядке регистрации, за которыми
+     * следуют дескрипторы загруженных модулей в порядке загрузки.
+     *
+     * @return Коллекция дескрипторов сервисов.
+     */
+    synchronized List<ServiceDescriptor> getDescriptors() {
+        if (loadedDescriptors.count() == 0) {
+            return descriptors;
+        }
+
+        List<ServiceDescriptor> result = copy(descriptors);
+
+        for (ServiceDescriptor descriptor : loadedDescriptors) {
+            result.add(descriptor);
+        }
+
+        return result;
+    }
+
+    /**
+     * Возвращает дескрипторы указанного типа сервиса в порядке регистрации.
+     *
+     * Если тип объявлен незагруженным модулем, модуль загружается.
+     *
+     * @param serviceType Тип сервиса.
+     * @return Дескрипторы сервиса; пустой массив, если тип не зарегистрирован.
+     */
+    ServiceDescriptor[] getDescriptors(Class<?> serviceType) {
+        return findDescriptors(serviceType, true);
+    }
+
+    private ServiceDescriptor[] findDescriptors(Class<?> serviceType, boolean isLoading) {
+        ServiceDescriptor[] registrations = index[shardOf(serviceType, index.length)].get(serviceType);
+
+        if (registrations != null || modules.isEmpty()) {
+            return registrations != null ? registrations : NO_DESCRIPTORS;
+        }
+
+        registrations = loadedIndex.get(serviceType);
+
+        if (registrations != null) {
+            return registrations;
+        }
+
+        LazyServiceModule module = modules.get(serviceType);
+
+        if (module == null || !isLoading) {
+            return NO_DESCRIPTORS;
+        }
+
+        load(module);
+        return loadedIndex.getOrDefault(serviceType, NO_DESCRIPTORS);
+    }
+
+    /**
+     * Возвращает план активации для указанного дескриптора.
+     *
+     * @param descriptor Дескриптор сервиса из этого реестра.
+     * @return План активации сервиса.
+     */
+    ServiceActivationPlan getPlan(ServiceDescriptor descriptor) {
+        ServiceActivationPlan plan = plans.get(descriptor);
+        return plan != null ? plan : loadedPlans.get(descriptor);
+    }
+
+    /**
+     * Составление плана для дескриптора в указанной позиции реестра.
+     */
+    @FunctionalInterface
+    private interface PlanCompiler {
+        ServiceActivationPlan compile(int position);
+    }
+}
@@ -1,30 +1,56 @@
 package codeislive63.dependencyInjection.implementations;
 
 import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.ServiceDelta;
 import codeislive63.dependencyInjection.ServiceDescriptor;
 import codeislive63.dependencyInjection.ServiceLifetime;
-import codeislive63.dependencyInjection.annotations.Inject;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+import codeislive63.dependencyInjection.interfaces.ServiceHandle;
 import codeislive63.dependencyInjection.interfaces.ServiceProvider;
 import codeislive63.dependencyInjection.interfaces.ServiceScope;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Базовая реализация интерфейса {@link ServiceScope}.
  * <p>
  * Этот класс управляет временем жизни сервисов, зарегистрированных с временем жизни {@code Scoped}.
+ * Scoped и transient сервисы, запрошенные в области, создаются через провайдер области, поэтому
+ * их зависимости и фабрики получают scoped экземпляры этой же области. Каждый scoped сервис
+ * создаётся в области один раз.
+ * </p>
+ * <p>
+ * Провайдер области создаёт вложенные области. Вложенная область видит scoped экземпляры
+ * родительских областей, не копируя их. Scoped сервис создаётся в самой внешней области,
+ * если ни одна из областей ниже неё не переопределяет сервис или его зависимости; иначе
+ * он создаётся в ближайшей области с таким переопределением. Поэтому то, разделяют ли
+ * вложенные области экземпляр родителя, не зависит от порядка запросов. При закрытии
+ * вложенная область освобождает только свои экземпляры; родительские области остаются открытыми.
+ * </p>
+ * <p>
+ * Область можно использовать из нескольких потоков. Созданные экземпляры читаются без
+ * блокировки, а создание экземпляров и закрытие области выполняются под монитором области.
  * </p>
  */
 public class ServiceScopeBase implements ServiceScope {
 
+    private static final Object CREATING = new Object();
+    private static final Object NULL_INSTANCE = new Object();
+
     private final ServiceProvider rootProvider;
-    private final List<ServiceDescriptor> serviceDescriptors;
-    private final Map<Class<?>, Object> scopedInstances = new HashMap<>();
+    private final ServiceScopeBase parent;
+    private final ServiceRegistry registry;
+    private final ScopedServiceProvider serviceProvider;
+    private final ActivationCosts activationCosts;
+    private final ScopeResolutionHost resolutionHost;
+    private final Map<ServiceDescriptor, Object> scopedInstances = new ConcurrentHashMap<>();
+    private final List<PooledRental> pooledRentals = new List<>();
 
-    private boolean isClosed = false;
+    private volatile Map<Class<?>, Object> overrides;
+    private volatile boolean isClosed = false;
 
     /**
      * Инициализирует новый экземпляр {@link ServiceScopeBase} с указанным корневым провайдером.
@@ -33,8 +59,40 @@ public class ServiceScopeBase implements ServiceScope {
      * @param serviceDescriptors Список дескрипторов сервисов.
      */
     public ServiceScopeBase(ServiceProvider rootProvider, List<ServiceDescriptor> serviceDescriptors) {
+        this(rootProvider, rootProvider instanceof ServiceProviderBase provider
+                ? provider.getRegistry()
+                : ServiceRegistry.compile(serviceDescriptors, new List<>(), new List<>()));
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceScopeBase} с реестром сервисов корневого провайдера.
+     *
+     * @param rootProvider Корневой провайдер сервисов.
+     * @param registry     Реестр сервисов с планами активации.
+     */
+    ServiceScopeBase(ServiceProvider rootProvider, ServiceRegistry registry) {
         this.rootProvider = rootProvider;
-        this.serviceDescriptors = serviceDescriptors;
+        this.parent = null;
+        this.registry = registry;
+        this.serviceProvider = new ScopedServiceProvider(this, registry);
+        this.activationCosts = rootProvider instanceof ServiceProviderBase provider ? provider.getActivationCosts() : null;
+        this.resolutionHost = rootProvider instanceof ServiceProviderBase provider && provider.isResolvingIteratively()
+                ? new ScopeResolutionHost()
+                : null;
+    }
+
+    /**
+     * Инициализирует новый экземпляр {@link ServiceScopeBase}, вложенный в указанную область.
+     *
+     * @param parent Родительская область.
+     */
+    private ServiceScopeBase(ServiceScopeBase parent) {
+        this.rootProvider = parent.rootProvider;
+        this.parent = parent;
+        this.registry = parent.registry;
+        this.serviceProvider = new ScopedServiceProvider(this, registry);
+        this.activationCosts = parent.activationCosts;
+        this.resolutionHost = parent.resolutionHost != null ? new ScopeResolutionHost() : null;
     }
 
     /**
@@ -44,113 +102,416 @@ public class ServiceScopeBase implements ServiceScope {
      */
     @Override
     public ServiceProvider getServiceProvider() {
-        return new ScopedServiceProvider(this, serviceDescriptors);
+        return serviceProvider;
+    }
+
+    /**
+     * Возвращает корневой провайдер, создавший эту область.
+     *
+     * @return Корневой провайдер сервисов.
+     */
+    ServiceProvider getRootProvider() {
+        return rootProvider;
+    }
+
+    /**
+     * Возвращает экземпляр scoped сервиса этой области, создавая его при первом запросе.
+     *
+     * @param descriptor Дескриптор scoped сервиса.
+     * @return Экземпляр сервиса.
+     */
+    Object getScopedInstance(ServiceDescriptor descriptor) {
+        return getOrCreateService(descriptor);
     }
 
     /**
-     * Закрывает область, освобождая ресурсы.
+     * Переопределяет сервис в этой области и во вложенных в неё областях.
+     *
+     * @param serviceType Класс сервиса.
+     * @param instance    Экземпляр, возвращаемый вместо зарегистрированных реализаций.
+     * @return Текущая область.
+     * @throws IllegalArgumentException Если тип сервиса или экземпляр равны {@code null}.
+     * @throws IllegalStateException    Если область закрыта.
      */
     @Override
-    public void close() {
+    public synchronized <TService> ServiceScope override(Class<TService> serviceType, TService instance) {
+        checkIfClosed();
+
+        if (serviceType == null || instance == null) {
+            throw new IllegalArgumentException("Тип сервиса и экземпляр не могут быть null.");
+        }
+
+        Map<Class<?>, Object> current = overrides;
+
+        if (current == null) {
+            current = new ConcurrentHashMap<>();
+            overrides = current;
+        }
+
+        current.put(serviceType, instance);
+        return this;
+    }
+
+    /**
+     * Возвращает экземпляр, которым сервис переопределён в этой области или в ближайшей
+     * родительской области.
+     *
+     * @param serviceType Класс сервиса.
+     * @return Переопределяющий экземпляр или {@code null}, если сервис не переопределён.
+     */
+    Object findOverride(Class<?> serviceType) {
+        for (ServiceScopeBase scope = this; scope != null; scope = scope.parent) {
+            Map<Class<?>, Object> scopeOverrides = scope.overrides;
+
+            if (scopeOverrides != null) {
+                Object instance = scopeOverrides.get(serviceType);
+
+                if (instance != null) {
+                    return instance;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Закрывает область, освобождая ресурсы. Экземпляры родительских областей не затрагиваются.
+     */
+    @Override
+    public synchronized void close() {
         if (!isClosed) {
             isClosed = true;
             scopedInstances.clear();
+            overrides = null;
+
+            for (PooledRental rental : pooledRentals) {
+                releaseToRoot(rental);
+            }
+
+            pooledRentals.clear();
         }
     }
 
     private void checkIfClosed() {
-        if (isClosed) {
-            throw new IllegalStateException("ServiceScope уже закрыт.");
+        for (ServiceScopeBase scope = this; scope != null; scope = scope.parent) {
+            if (scope.isClosed) {
+                throw new IllegalStateException("ServiceScope уже закрыт.");
+            }
         }
     }
 
     /**
-     * Возвращает существующий экземпляр сервиса из области или создает новый, если он еще не создан.
+     * Возвращает существующий экземпляр сервиса из области или из родительских областей
+     * или создает новый в области-владельце, если он еще не создан.
      *
      * @param <TService>  Тип сервиса.
      * @param descriptor  Дескриптор сервиса.
      * @return Экземпляр запрашиваемого сервиса.
+     * @throws IllegalStateException Если область закрыта или scoped сервис зависит сам от себя.
      */
     @SuppressWarnings("unchecked")
     private <TService> TService getOrCreateService(ServiceDescriptor descriptor) {
         checkIfClosed();
-        return (TService) scopedInstances.computeIfAbsent(descriptor.getServiceType(), key -> instantiateService(descriptor));
+
+        Object instance = scopedInstances.get(descriptor);
+
+        if (instance == null && parent != null) {
+            instance = parent.findScopedInstance(descriptor);
+        }
+
+        if (instance == null || instance == CREATING) {
+            instance = ownerOf(descriptor).createService(descriptor);
+        }
+
+        return instance != NULL_INSTANCE ? (TService) instance : null;
+    }
+
+    /**
+     * Возвращает область, в которой создаётся scoped сервис: ближайшую область, переопределяющую
+     * сервис или одну из его зависимостей, или самую внешнюю область, если таких нет. Сервис,
+     * в цепочке которого есть фабрика, зависит от любого переопределения.
+     */
+    private ServiceScopeBase ownerOf(ServiceDescriptor descriptor) {
+        Set<Class<?>> dependencyTypes = null;
+        boolean isCollected = false;
+        ServiceScopeBase scope = this;
+
+        for (; scope.parent != null; scope = scope.parent) {
+            Map<Class<?>, Object> scopeOverrides = scope.overrides;
+
+            if (scopeOverrides == null || scopeOverrides.isEmpty()) {
+                continue;
+            }
+
+            if (!isCollected) {
+                dependencyTypes = registry.collectDependencyTypes(descriptor);
+                isCollected = true;
+            }
+
+            if (dependencyTypes == null || dependsOnAny(dependencyTypes, scopeOverrides)) {
+                return scope;
+            }
+        }
+
+        return scope;
+    }
+
+    private static boolean dependsOnAny(Set<Class<?>> dependencyTypes, Map<Class<?>, Object> scopeOverrides) {
+        for (Class<?> serviceType : scopeOverrides.keySet()) {
+            if (dependencyTypes.contains(serviceType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Ищет созданный экземпляр scoped сервиса в этой области и в родительских областях,
+     * не создавая его.
+     */
+    private Object findScopedInstance(ServiceDescriptor descriptor) {
+        for (ServiceScopeBase scope = this; scope != null; scope = scope.parent) {
+            Object instance = scope.scopedInstances.get(descriptor);
+
+            if (instance != null && instance != CREATING) {
+                return instance;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Создаёт экземпляр scoped сервиса под монитором области. Другие потоки ожидают
+     * завершения создания, а повторный запрос того же сервиса из создающего потока
+     * означает циклическую зависимость.
+     */
+    private synchronized Object createService(ServiceDescriptor descriptor) {
+        checkIfClosed();
+
+        Object instance = scopedInstances.get(descriptor);
+
+        if (instance == CREATING) {
+            throw new IllegalStateException("Обнаружена циклическая зависимость scoped сервиса: " + descriptor.getServiceType().getName());
+        }
+
+        if (instance != null) {
+            return instance;
+        }
+
+        scopedInstances.put(descriptor, CREATING);
+
+        try {
+            instance = instantiateService(descriptor);
+        } catch (RuntimeException | Error e) {
+            scopedInstances.remove(descriptor);
+            throw e;
+        }
+
+        instance = instance != null ? instance : NULL_INSTANCE;
+        scopedInstances.put(descriptor, instance);
+        return instance;
     }
 
     /**
-     * Создает экземпляр сервиса на основе его дескриптора, используя корневой провайдер.
+     * Получает экземпляр сервиса по указанной регистрации: scoped и transient сервисы
+     * создаются в области, остальные запрашиваются у корневого провайдера.
      *
-     * @param descriptor  Дескриптор сервиса.
+     * @param descriptor Дескриптор сервиса.
      * @return Экземпляр сервиса.
      */
-    private Object instantiateService(ServiceDescriptor descriptor) {
-        try {
-            Object instance = null;
-
-            if (descriptor.getImplementationInstance() != null) {
-                instance = descriptor.getImplementationInstance();
-            } else if (descriptor.getImplementationFactory() != null) {
-                instance = descriptor.getImplementationFactory().apply(rootProvider);
-            } else if (descriptor.getImplementationType() != null) {
-                for (Constructor<?> constructor : descriptor.getImplementationType().getConstructors()) {
-                    Class<?>[] parameterTypes = constructor.getParameterTypes();
-                    Object[] parameters = new Object[parameterTypes.length];
-                    boolean canInstantiate = true;
-
-                    for (int i = 0; i < parameterTypes.length; i++) {
-                        parameters[i] = rootProvider.getService(parameterTypes[i]);
-                        if (parameters[i] == null) {
-                            canInstantiate = false;
-                            break;
-                        }
-                    }
-
-                    if (canInstantiate) {
-                        instance = constructor.newInstance(parameters);
-                        break;
-                    }
-
-                    throw new IllegalStateException("Не удалось найти подходящий конструктор для " + descriptor.getImplementationType());
+    private Object resolve(ServiceDescriptor descriptor) {
+        return switch (descriptor.getLifetime()) {
+            case SCOPED -> getOrCreateService(descriptor);
+            case TRANSIENT -> {
+                checkIfClosed();
+                yield instantiateService(descriptor);
+            }
+            case POOLED -> rentPooledService(descriptor);
+            default -> resolveByRoot(descriptor);
+        };
+    }
+
+    private Object resolveByRoot(ServiceDescriptor descriptor) {
+        return rootProvider instanceof ServiceProviderBase provider
+                ? provider.getService(registry, descriptor)
+                : rootProvider.getService(descriptor.getServiceType());
+    }
+
+    /**
+     * Получает экземпляр pooled сервиса у корневого провайдера и запоминает его,
+     * чтобы вернуть в пул при закрытии области.
+     *
+     * @param descriptor Дескриптор pooled сервиса.
+     * @return Экземпляр запрашиваемого сервиса.
+     */
+    private Object rentPooledService(ServiceDescriptor descriptor) {
+        checkIfClosed();
+        Object instance = rootProvider instanceof ServiceProviderBase provider
+                ? provider.rentPooledService(registry, descriptor, this)
+                : rootProvider.getService(descriptor.getServiceType());
+
+        if (instance != null) {
+            PooledRental rental = new PooledRental(descriptor.getServiceType(), instance);
+
+            synchronized (this) {
+                if (isClosed) {
+                    releaseToRoot(rental);
+                    throw new IllegalStateException("ServiceScope уже закрыт.");
                 }
-            } else {
-                throw new IllegalStateException("Неверный дескриптор: " + descriptor);
+
+                pooledRentals.add(rental);
             }
+        }
 
-            if (instance != null) {
-                for (Method method : instance.getClass().getMethods()) {
-                    if (method.isAnnotationPresent(Inject.class)) {
-                        invokeMethodWithDependencies(instance, method);
-                    }
+        return instance;
+    }
+
+    /**
+     * Возвращает экземпляр pooled сервиса в пул до закрытия области. Экземпляры, которые
+     * область не арендовала или уже вернула, игнорируются.
+     *
+     * @param instance Возвращаемый экземпляр.
+     */
+    private void releasePooledService(Object instance) {
+        PooledRental released = null;
+
+        synchronized (this) {
+            for (int i = 0; i < pooledRentals.count(); i++) {
+                PooledRental rental = pooledRentals.get(i);
+
+                if (rental.instance() == instance) {
+                    pooledRentals.removeAt(i);
+                    released = rental;
+                    break;
                 }
             }
+        }
 
-            return instance;
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось создать экземпляр сервиса: " + descriptor.getServiceType().getName(), e);
+        if (released != null) {
+            releaseToRoot(released);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TService> void releaseToRoot(PooledRental rental) {
+        if (rootProvider instanceof ServiceProviderBase provider) {
+            provider.release(rental.serviceType(), rental.instance(), this);
+        } else {
+            rootProvider.release((Class<TService>) rental.serviceType(), (TService) rental.instance());
         }
     }
 
     /**
-     * Вызывает метод с внедрением зависимостей.
+     * Создает экземпляр сервиса по его плану активации, разрешая зависимости через провайдер области.
      *
-     * @param target Объект, на котором вызывается метод.
-     * @param method Метод, который вызывается.
+     * @param descriptor  Дескриптор сервиса.
+     * @return Экземпляр сервиса.
      */
-    private void invokeMethodWithDependencies(Object target, Method method) {
+    private Object instantiateService(ServiceDescriptor descriptor) {
+        if (activationCosts == null) {
+            return activatePlan(descriptor);
+        }
+
+        long startedAt = System.nanoTime();
+        Object instance = activatePlan(descriptor);
+        activationCosts.record(descriptor, System.nanoTime() - startedAt);
+        return instance;
+    }
+
+    private Object activatePlan(ServiceDescriptor descriptor) {
+        if (resolutionHost != null && registry.getPlan(descriptor).getServiceParameterTypes() != null) {
+            return IterativeResolver.activate(registry, descriptor, resolutionHost);
+        }
+
         try {
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            Object[] parameters = new Object[parameterTypes.length];
+            return registry.getPlan(descriptor).activate(serviceProvider);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Не удалось создать экземпляр сервиса: " + descriptor.getServiceType().getName(), e);
+        }
+    }
+
+    /**
+     * Итеративное разрешение в области. Обходом создаются transient сервисы и scoped
+     * сервисы, которых ещё нет ни в этой области, ни в родительских, если эта область
+     * владеет ими и поток уже создаёт экземпляр под монитором области. Переопределённые и pooled сервисы
+     * запрашиваются у провайдера области.
+     */
+    private final class ScopeResolutionHost implements IterativeResolver.Host {
+
+        @Override
+        public ServiceDescriptor expand(Class<?> serviceType) {
+            if (findOverride(serviceType) != null) {
+                return null;
+            }
+
+            ServiceDescriptor[] descriptors = registry.getDescriptors(serviceType);
+
+            for (ServiceDescriptor descriptor : descriptors) {
+                if (descriptor.getLifetime() == ServiceLifetime.POOLED) {
+                    return null;
+                }
+            }
 
-            for (int i = 0; i < parameterTypes.length; i++) {
-                parameters[i] = rootProvider.getService(parameterTypes[i]);
-                if (parameters[i] == null) {
-                    throw new IllegalStateException("Не удалось разрешить зависимость для параметра " + parameterTypes[i].getName());
+            for (ServiceDescriptor descriptor : descriptors) {
+                if (descriptor.getLifetime() == ServiceLifetime.SCOPED) {
+                    return !scopedInstances.containsKey(descriptor)
+                            && (parent == null || parent.findScopedInstance(descriptor) == null)
+                            && Thread.holdsLock(ServiceScopeBase.this)
+                            && ownerOf(descriptor) == ServiceScopeBase.this
+                            && registry.getPlan(descriptor).getServiceParameterTypes() != null
+                            ? descriptor
+                            : null;
                 }
             }
 
-            method.invoke(target, parameters);
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось вызвать метод с зависимостями: " + method.getName(), e);
+            return descriptors.length > 0 && descriptors[0].getLifetime() == ServiceLifetime.TRANSIENT
+                    && registry.getPlan(descriptors[0]).getServiceParameterTypes() != null
+                    ? descriptors[0]
+                    : null;
+        }
+
+        @Override
+        public Object resolve(Class<?> serviceType) {
+            return serviceProvider.getService(serviceType);
+        }
+
+        @Override
+        public ServiceProvider provider() {
+            return serviceProvider;
+        }
+
+        @Override
+        public Object enter(ServiceDescriptor descriptor) {
+            if (descriptor.getLifetime() == ServiceLifetime.SCOPED) {
+                scopedInstances.put(descriptor, CREATING);
+            } else {
+                checkIfClosed();
+            }
+
+            return null;
+        }
+
+        @Override
+        public void complete(ServiceDescriptor descriptor, Object instance) {
+            if (descriptor.getLifetime() == ServiceLifetime.SCOPED) {
+                scopedInstances.put(descriptor, instance != null ? instance : NULL_INSTANCE);
+            }
+        }
+
+        @Override
+        public void abort(ServiceDescriptor descriptor) {
+            if (descriptor.getLifetime() == ServiceLifetime.SCOPED) {
+                scopedInstances.remove(descriptor);
+            }
+        }
+
+        @Override
+        public void exit(ServiceDescriptor descriptor, Object state) {
         }
     }
 
@@ -160,17 +521,17 @@ public class ServiceScopeBase implements ServiceScope {
     private class ScopedServiceProvider implements ServiceProvider {
 
         private final ServiceScopeBase scope;
-        private final List<ServiceDescriptor> serviceDescriptors;
+        private final ServiceRegistry registry;
 
         /**
          * Инициализирует новый экземпляр {@link ScopedServiceProvider} с указанной областью.
          *
-         * @param scope               Область, связанная с этим провайдером сервисов.
-         * @param serviceDescriptors  Список дескрипторов сервисов.
+         * @param scope    Область, связанная с этим провайдером сервисов.
+         * @param registry Реестр сервисов области.
          */
-        public ScopedServiceProvider(ServiceScopeBase scope, List<ServiceDescriptor> serviceDescriptors) {
+        public ScopedServiceProvider(ServiceScopeBase scope, ServiceRegistry registry) {
             this.scope = scope;
-            this.serviceDescriptors = serviceDescriptors;
+            this.registry = registry;
         }
 
         /**
@@ -180,31 +541,58 @@ public class ServiceScopeBase implements ServiceScope {
          * @return Экземпляр запрашиваемого сервиса или {@code null}, если сервис не зарегистрирован.
          */
         @Override
+        @SuppressWarnings("unchecked")
         public <TService> TService getService(Class<TService> serviceType) {
-            for (ServiceDescriptor descriptor : serviceDescriptors) {
-                if (descriptor.getServiceType().equals(serviceType) && descriptor.getLifetime() == ServiceLifetime.SCOPED) {
+            Object overridden = scope.findOverride(serviceType);
+
+            if (overridden != null) {
+                return (TService) overridden;
+            }
+
+            ServiceDescriptor[] descriptors = registry.getDescriptors(serviceType);
+
+            for (ServiceDescriptor descriptor : descriptors) {
+                if (descriptor.getLifetime() == ServiceLifetime.SCOPED) {
                     return scope.getOrCreateService(descriptor);
                 }
             }
 
+            for (ServiceDescriptor descriptor : descriptors) {
+                if (descriptor.getLifetime() == ServiceLifetime.POOLED) {
+                    return (TService) scope.rentPooledService(descriptor);
+                }
+            }
+
+            if (descriptors.length > 0 && descriptors[0].getLifetime() == ServiceLifetime.TRANSIENT) {
+                scope.checkIfClosed();
+                return (TService) scope.instantiateService(descriptors[0]);
+            }
+
             return rootProvider.getService(serviceType);
         }
 
 
         /**
-         * Получает все зарегистрированные экземпляры указанного типа сервиса.
+         * Получает экземпляры всех регистраций указанного типа сервиса в порядке регистрации.
+         * Scoped сервисы берутся из этой области. Переопределённый сервис возвращается
+         * единственным элементом.
          *
          * @param serviceType Класс запрашиваемого сервиса.
          * @return Коллекция зарегистрированных экземпляров запрашиваемого сервиса.
          */
         @Override
+        @SuppressWarnings("unchecked")
         public <TService> List<TService> getServices(Class<TService> serviceType) {
             List<TService> result = new List<>();
+            Object overridden = scope.findOverride(serviceType);
 
-            for (ServiceDescriptor descriptor : serviceDescriptors) {
-                if (descriptor.getServiceType().equals(serviceType) && descriptor.getLifetime() == ServiceLifetime.SCOPED) {
-                    result.add(scope.getOrCreateService(descriptor));
-                }
+            if (overridden != null) {
+                result.add((TService) overridden);
+                return result;
+            }
+
+            for (ServiceDescriptor descriptor : registry.getDescriptors(serviceType)) {
+                result.add((TService) scope.resolve(descriptor));
             }
 
             return result;
@@ -230,13 +618,71 @@ public class ServiceScopeBase implements ServiceScope {
         }
 
         /**
-         * Создает новую область для сервисов.
+         * Возвращает ссылку на сервис, разрешающую его в этой области.
+         *
+         * @param serviceType Класс сервиса.
+         * @return Ссылка на сервис.
+         */
+        @Override
+        public <TService> ServiceHandle<TService> handle(Class<TService> serviceType) {
+            return new ServiceLookupHandle<>(this, serviceType);
+        }
+
+        /**
+         * Возвращает экземпляр pooled сервиса в пул, не дожидаясь закрытия области.
+         *
+         * @param serviceType Класс сервиса, под которым экземпляр был получен.
+         * @param instance    Возвращаемый экземпляр.
+         */
+        @Override
+        public <TService> void release(Class<TService> serviceType, TService instance) {
+            scope.releasePooledService(instance);
+        }
+
+        /**
+         * Возвращает будущее готовности корневого провайдера.
+         *
+         * @return Будущее готовности провайдера.
+         */
+        @Override
+        public CompletableFuture<Void> whenReady() {
+            return rootProvider.whenReady();
+        }
+
+        /**
+         * Составляет граф зависимостей корневого провайдера.
+         *
+         * @return Граф зависимостей.
+         */
+        @Override
+        public DependencyGraph getDependencyGraph() {
+            return rootProvider.getDependencyGraph();
+        }
+
+        /**
+         * Создает область, вложенную в область этого провайдера.
          *
-         * @return Новый экземпляр области для сервисов.
+         * @return Новый экземпляр вложенной области.
+         * @throws IllegalStateException Если область закрыта.
          */
         @Override
         public ServiceScope createScope() {
-            return rootProvider.createScope();
+            scope.checkIfClosed();
+            return new ServiceScopeBase(scope);
+        }
+
+        /**
+         * Строит новый корневой провайдер из регистраций корневого провайдера области
+         * и указанных изменений. Экземпляры области в новый провайдер не переносятся.
+         *
+         * @param delta Изменения регистраций.
+         * @return Новый провайдер сервисов.
+         * @throws IllegalStateException Если область закрыта.
+         */
+        @Override
+        public ServiceProvider rebuildWith(ServiceDelta delta) {
+            scope.checkIfClosed();
+            return rootProvider.rebuildWith(delta);
         }
 
         @Override
@@ -244,4 +690,13 @@ public class ServiceScopeBase implements ServiceScope {
             scope.close();
         }
     }
+
+    /**
+     * Экземпляр pooled сервиса, полученный в этой области.
+     *
+     * @param serviceType Класс сервиса, под которым экземпляр был получен.
+     * @param instance    Полученный экземпляр.
+     */
+    private record PooledRental(Class<?> serviceType, Object instance) {
+    }
 }
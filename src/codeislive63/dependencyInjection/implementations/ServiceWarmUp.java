@@ -0,0 +1,152 @@
+package codeislive63.dependencyInjection.implementations;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.annotations.WarmUp;
+import codeislive63.dependencyInjection.interfaces.Warmable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прогрев singleton сервисов, реализующих {@link Warmable} или содержащих методы,
+ * помеченные {@link WarmUp}.
+ * <p>
+ * Методы прогрева каждого класса находятся один раз и преобразуются в {@link MethodHandle}.
+ * Прогрев выполняется на ограниченном пуле фоновых потоков, который завершается после
+ * прогрева всех сервисов.
+ * </p>
+ */
+final class ServiceWarmUp {
+
+    /**
+     * Число потоков прогрева по умолчанию.
+     */
+    static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType HOOK_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private static final ClassValue<MethodHandle[]> WARM_UP_METHODS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type) {
+            return discoverWarmUpMethods(type);
+        }
+    };
+
+    private ServiceWarmUp() {
+    }
+
+    /**
+     * Проверяет, нужен ли прогрев экземплярам указанного класса.
+     *
+     * @param type Класс реализации или тип сервиса.
+     * @return {@code true}, если класс реализует {@link Warmable} или содержит методы прогрева.
+     * @throws IllegalStateException Если метод прогрева объявлен неверно.
+     */
+    static boolean isWarmable(Class<?> type) {
+        return Warmable.class.isAssignableFrom(type) || WARM_UP_METHODS.get(type).length > 0;
+    }
+
+    /**
+     * Выполняет прогрев экземпляра сервиса.
+     *
+     * @param instance Экземпляр сервиса.
+     * @throws Throwable Если прогрев завершился с исключением.
+     */
+    static void warmUp(Object instance) throws Throwable {
+        if (instance instanceof Warmable warmable) {
+            warmable.warmUp();
+        }
+
+        for (MethodHandle method : WARM_UP_METHODS.get(instance.getClass())) {
+            method.invokeExact(instance);
+        }
+    }
+
+    /**
+     * Запускает задачи прогрева на пуле не более чем из {@code parallelism} фоновых потоков.
+     *
+     * @param tasks       Задачи прогрева.
+     * @param parallelism Максимальное число потоков.
+     * @return Пул потоков и будущее, завершающееся после выполнения всех задач.
+     */
+    static Execution start(List<Runnable> tasks, int parallelism) {
+        int threadCount = Math.max(1, Math.min(parallelism, tasks.count()));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads());
+        executor.allowCoreThreadTimeOut(true);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.count()];
+
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(tasks.get(i), executor);
+        }
+
+        CompletableFuture<Void> readiness = CompletableFuture.allOf(futures);
+        readiness.whenComplete((result, error) -> executor.shutdown());
+        return new Execution(executor, readiness);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        return task -> {
+            Thread thread = new Thread(task, "injectx-warmup-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static MethodHandle[] discoverWarmUpMethods(Class<?> type) {
+        List<MethodHandle> methods = new List<>();
+
+        for (Method method : type.getMethods()) {
+            if (!method.isAnnotationPresent(WarmUp.class)) {
+                continue;
+            }
+
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+                throw new IllegalStateException("Метод, помеченный @WarmUp, должен быть нестатическим и не принимать параметров: " + method);
+            }
+
+            try {
+                methods.add(LOOKUP.unreflect(method).asType(HOOK_TYPE));
+            } catch (IllegalAccessException e) {
+                if (!method.trySetAccessible()) {
+                    throw new IllegalStateException("Нет доступа к " + method, e);
+                }
+
+                try {
+                    methods.add(LOOKUP.unreflect(method).asType(HOOK_TYPE));
+                } catch (IllegalAccessException inner) {
+                    throw new IllegalStateException("Нет доступа к " + method, inner);
+                }
+            }
+        }
+
+        MethodHandle[] result = new MethodHandle[methods.count()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = methods.get(i);
+        }
+
+        return result;
+    }
+
+    /**
+     * Запущенный прогрев.
+     *
+     * @param executor  Пул потоков прогрева.
+     * @param readiness Будущее, завершающееся после прогрева всех сервисов.
+     */
+    record Execution(ExecutorService executor, CompletableFuture<Void> readiness) {
+    }
+}
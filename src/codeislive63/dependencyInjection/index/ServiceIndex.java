@@ -0,0 +1,141 @@
+package codeislive63.dependencyInjection.index;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+
+/**
+ * Индекс сервисов, сформированный на этапе сборки процессором {@link ServiceIndexProcessor}.
+ * <p>
+ * Индекс хранится в ресурсе {@value #RESOURCE_NAME} и содержит по одной строке на каждую
+ * регистрацию в формате {@code <время жизни> <тип сервиса> <тип реализации>}. Строки,
+ * начинающиеся с {@code #}, считаются комментариями. Индекс позволяет регистрировать
+ * сервисы без сканирования classpath во время выполнения.
+ * </p>
+ */
+public final class ServiceIndex {
+
+    /**
+     * Путь к ресурсу индекса сервисов внутри jar-файла или каталога классов.
+     */
+    public static final String RESOURCE_NAME = "META-INF/injectx/services.index";
+
+    private ServiceIndex() {
+    }
+
+    /**
+     * Читает все индексы сервисов, доступные указанному загрузчику классов.
+     * <p>
+     * Индексы, расположенные в файловой системе, отображаются в память целиком,
+     * индексы внутри jar-файлов читаются одним блоком.
+     * </p>
+     *
+     * @param classLoader Загрузчик классов, через который ищутся индексы и загружаются типы.
+     * @return Дескрипторы сервисов в порядке их следования в индексах.
+     * @throws IllegalStateException Если индекс повреждён или ссылается на несуществующий тип.
+     */
+    public static List<ServiceDescriptor> read(ClassLoader classLoader) {
+        List<ServiceDescriptor> descriptors = new List<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                parse(readResource(resource), resource, classLoader, descriptors);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать индекс сервисов.", e);
+        }
+
+        return descriptors;
+    }
+
+    /**
+     * Читает содержимое ресурса индекса. Файлы отображаются в память,
+     * остальные ресурсы читаются через поток.
+     *
+     * @param resource Адрес ресурса.
+     * @return Содержимое ресурса.
+     * @throws IOException Если ресурс не удалось прочитать.
+     */
+    private static CharBuffer readResource(URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(resource.toURI()), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return StandardCharsets.UTF_8.decode(buffer);
+            } catch (URISyntaxException e) {
+                throw new IOException("Неверный путь к индексу сервисов: " + resource, e);
+            }
+        }
+
+        try (InputStream stream = resource.openStream()) {
+            return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(stream.readAllBytes()));
+        }
+    }
+
+    /**
+     * Разбирает содержимое индекса и добавляет найденные дескрипторы в список.
+     *
+     * @param content     Содержимое индекса.
+     * @param resource    Адрес ресурса, используется в сообщениях об ошибках.
+     * @param classLoader Загрузчик классов для типов из индекса.
+     * @param descriptors Список, в который добавляются дескрипторы.
+     */
+    private static void parse(CharBuffer content, URL resource, ClassLoader classLoader, List<ServiceDescriptor> descriptors) {
+        int length = content.length();
+        int lineStart = 0;
+
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+
+            while (lineEnd < length && content.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            String line = content.subSequence(lineStart, lineEnd).toString().trim();
+            lineStart = lineEnd + 1;
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split(" ");
+
+            if (parts.length != 3) {
+                throw new IllegalStateException("Неверная строка индекса сервисов " + resource + ": " + line);
+            }
+
+            descriptors.add(createDescriptor(parts, resource, classLoader));
+        }
+    }
+
+    private static ServiceDescriptor createDescriptor(String[] parts, URL resource, ClassLoader classLoader) {
+        try {
+            ServiceLifetime lifetime = ServiceLifetime.valueOf(parts[0]);
+            Class<?> serviceType = Class.forName(parts[1], false, classLoader);
+            Class<?> implementationType = Class.forName(parts[2], false, classLoader);
+
+            if (!serviceType.isAssignableFrom(implementationType)) {
+                throw new IllegalStateException("Тип " + implementationType.getName() + " не реализует " + serviceType.getName());
+            }
+
+            return new ServiceDescriptor(serviceType, implementationType, lifetime);
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            throw new IllegalStateException("Неверная строка индекса сервисов " + resource + ": " + String.join(" ", parts), e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package codeislive63.dependencyInjection.index;
+
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.annotations.Scoped;
+import codeislive63.dependencyInjection.annotations.Singleton;
+import codeislive63.dependencyInjection.annotations.Transient;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Процессор аннотаций, формирующий {@link ServiceIndex} на этапе сборки.
+ * <p>
+ * Собирает классы, помеченные {@link Singleton}, {@link Scoped} и {@link Transient},
+ * и записывает их в ресурс {@value ServiceIndex#RESOURCE_NAME}, который попадает в jar
+ * вместе со скомпилированными классами.
+ * </p>
+ */
+public class ServiceIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> entries = new LinkedHashSet<>();
+
+    /**
+     * Возвращает имена аннотаций, обрабатываемых процессором.
+     *
+     * @return Полные имена аннотаций регистрации сервисов.
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(Singleton.class.getName(), Scoped.class.getName(), Transient.class.getName());
+    }
+
+    /**
+     * Возвращает последнюю поддерживаемую версию исходного кода.
+     *
+     * @return Последняя поддерживаемая версия исходного кода.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Собирает аннотированные классы текущего раунда и записывает индекс
+     * после завершения последнего раунда.
+     *
+     * @param annotations Аннотации, запрошенные в этом раунде.
+     * @param roundEnv    Окружение текущего раунда.
+     * @return {@code true}, так как аннотации регистрации обрабатываются только этим процессором.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        collect(roundEnv, Singleton.class, ServiceLifetime.SINGLETON);
+        collect(roundEnv, Scoped.class, ServiceLifetime.SCOPED);
+        collect(roundEnv, Transient.class, ServiceLifetime.TRANSIENT);
+
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeIndex();
+        }
+
+        return true;
+    }
+
+    private void collect(RoundEnvironment roundEnv, Class<? extends Annotation> annotationType, ServiceLifetime lifetime) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotationType)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(element, "@" + annotationType.getSimpleName() + " допустима только для неабстрактных классов.");
+                continue;
+            }
+
+            TypeElement implementationElement = (TypeElement) element;
+            TypeElement serviceElement = getServiceElement(implementationElement, annotationType);
+
+            if (!processingEnv.getTypeUtils().isAssignable(
+                    processingEnv.getTypeUtils().erasure(implementationElement.asType()),
+                    processingEnv.getTypeUtils().erasure(serviceElement.asType()))) {
+                error(element, "Класс не реализует тип сервиса " + serviceElement.getQualifiedName());
+                continue;
+            }
+
+            entries.add(lifetime.name() + " " + binaryName(serviceElement) + " " + binaryName(implementationElement));
+        }
+    }
+
+    /**
+     * Возвращает тип сервиса, указанный в аннотации, или сам класс, если тип не указан.
+     *
+     * @param implementationElement Аннотированный класс.
+     * @param annotationType        Тип аннотации регистрации.
+     * @return Элемент типа сервиса.
+     */
+    private TypeElement getServiceElement(TypeElement implementationElement, Class<? extends Annotation> annotationType) {
+        for (AnnotationMirror mirror : implementationElement.getAnnotationMirrors()) {
+            TypeElement mirrorType = (TypeElement) mirror.getAnnotationType().asElement();
+
+            if (!mirrorType.getQualifiedName().contentEquals(annotationType.getCanonicalName())) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    TypeMirror value = (TypeMirror) entry.getValue().getValue();
+
+                    if (value.getKind() == TypeKind.DECLARED) {
+                        return (TypeElement) ((DeclaredType) value).asElement();
+                    }
+                }
+            }
+        }
+
+        return implementationElement;
+    }
+
+    private String binaryName(TypeElement element) {
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ServiceIndex.RESOURCE_NAME);
+
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Не удалось записать индекс сервисов: " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,33 @@
+package codeislive63.dependencyInjection.interfaces;
+
+import codeislive63.dependencyInjection.CacheStatistics;
+
+/**
+ * Интерфейс, который реализуют прокси сервисов с методами, помеченными
+ * {@link codeislive63.dependencyInjection.annotations.Cached}.
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * CurrencyService currencyService = serviceProvider.getService(CurrencyService.class);
+ * CacheStatistics statistics = ((CachedService) currencyService).getCacheStatistics("getRate");
+ * }
+ * </pre>
+ */
+public interface CachedService {
+
+    /**
+     * Возвращает статистику всех кэшируемых методов сервиса.
+     *
+     * @return Статистика кэша.
+     */
+    CacheStatistics getCacheStatistics();
+
+    /**
+     * Возвращает статистику кэшируемых методов с указанным именем.
+     *
+     * @param methodName Имя метода интерфейса сервиса.
+     * @return Статистика кэша; пустая, если кэшируемых методов с таким именем нет.
+     */
+    CacheStatistics getCacheStatistics(String methodName);
+}
@@ -0,0 +1,23 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий обработчик событий указанного типа.
+ * <p>
+ * Обработчики регистрируются методом
+ * {@link ServiceCollection#addEventHandler(Class, Class, codeislive63.dependencyInjection.ServiceLifetime)}
+ * и получают события, опубликованные через {@link EventPublisher}. Обработчик получает
+ * события своего типа и всех его подтипов.
+ * </p>
+ *
+ * @param <TEvent> Тип события.
+ */
+public interface EventHandler<TEvent> {
+
+    /**
+     * Обрабатывает событие.
+     *
+     * @param event Событие.
+     * @throws Exception Если обработка не удалась.
+     */
+    void handle(TEvent event) throws Exception;
+}
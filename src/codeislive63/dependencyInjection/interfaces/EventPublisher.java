@@ -0,0 +1,45 @@
+package codeislive63.dependencyInjection.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Интерфейс, представляющий публикацию событий зарегистрированным обработчикам.
+ * <p>
+ * Обработчики каждого типа события определяются один раз при построении провайдера,
+ * поэтому публикация сводится к поиску по таблице и вызову обработчиков. Обработчики
+ * разрешаются через провайдер, из которого получен публикатор, с учётом их времени жизни:
+ * публикатор области использует scoped обработчики этой области.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * serviceCollection.addEventHandler(OrderPlaced.class, OrderMailer.class, ServiceLifetime.SCOPED);
+ *
+ * EventPublisher publisher = scope.getServiceProvider().getRequiredService(EventPublisher.class);
+ * publisher.publish(new OrderPlaced(orderId));
+ * }
+ * </pre>
+ */
+public interface EventPublisher {
+
+    /**
+     * Публикует событие синхронно: обработчики вызываются в текущем потоке в порядке
+     * регистрации. Ошибка одного обработчика не прерывает вызов остальных.
+     *
+     * @param event Событие.
+     * @throws RuntimeException Если хотя бы один обработчик завершился ошибкой. Ошибки
+     *                          остальных обработчиков добавляются как подавленные.
+     */
+    void publish(Object event);
+
+    /**
+     * Публикует событие асинхронно. Обработчики разрешаются в текущем потоке, а вызываются
+     * в виртуальном потоке. События, опубликованные до начала доставки, доставляются одним
+     * пакетом в порядке публикации.
+     *
+     * @param event Событие.
+     * @return Задача, завершающаяся после вызова всех обработчиков события.
+     */
+    CompletableFuture<Void> publishAsync(Object event);
+}
@@ -0,0 +1,35 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий типизированные параметры конфигурации, внедряемые в сервис.
+ * <p>
+ * Параметры регистрируются методом {@link ServiceCollection#addOptions(Class, String)}
+ * и связываются с разделом конфигурации один раз. Сервис может принимать как сам тип
+ * параметров, так и {@code Options<T>}.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * public record DatabaseOptions(String url, int poolSize) {
+ * }
+ *
+ * public class Repository {
+ *     public Repository(Options<DatabaseOptions> options) {
+ *         this.url = options.get().url();
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @param <TOptions> Тип параметров.
+ */
+public interface Options<TOptions> {
+
+    /**
+     * Возвращает экземпляр параметров.
+     *
+     * @return Экземпляр параметров.
+     */
+    TOptions get();
+}
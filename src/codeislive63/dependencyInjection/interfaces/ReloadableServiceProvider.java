@@ -0,0 +1,41 @@
+package codeislive63.dependencyInjection.interfaces;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+
+/**
+ * Интерфейс, представляющий провайдера сервисов, регистрации которого можно изменять
+ * после построения.
+ * <p>
+ * Регистрации хранятся в неизменяемом снимке, который заменяется атомарно. Чтение
+ * снимка не требует блокировки. Разрешение, начатое до замены, завершается по
+ * прежнему снимку. Синглтоны, которые не зависят от изменённых регистраций ни прямо,
+ * ни через другие сервисы, сохраняются.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider();
+ * serviceProvider.replace(new ServiceDescriptor(PaymentGateway.class, NewPaymentGateway.class, ServiceLifetime.SINGLETON));
+ * }
+ * </pre>
+ */
+public interface ReloadableServiceProvider extends ServiceProvider {
+
+    /**
+     * Заменяет все регистрации типа сервиса указанным дескриптором. Если тип
+     * не зарегистрирован, дескриптор добавляется.
+     *
+     * @param descriptor Новый дескриптор сервиса.
+     * @return Текущий провайдер сервисов.
+     */
+    ReloadableServiceProvider replace(ServiceDescriptor descriptor);
+
+    /**
+     * Добавляет регистрацию сервиса.
+     *
+     * @param descriptor Добавляемый дескриптор сервиса.
+     * @return Текущий провайдер сервисов.
+     */
+    ReloadableServiceProvider add(ServiceDescriptor descriptor);
+}
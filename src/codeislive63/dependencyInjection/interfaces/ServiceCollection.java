@@ -2,7 +2,12 @@ package codeislive63.dependencyInjection.interfaces;
 
 import codeislive63.collections.generic.ModifiableList;
 import codeislive63.delegates.generic.Func;
+import codeislive63.dependencyInjection.ServiceCachePolicy;
 import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+import codeislive63.dependencyInjection.configuration.Configuration;
+import codeislive63.dependencyInjection.diagnostics.StartupProfiler;
 
 /**
  * Интерфейс, представляющий коллекцию сервисов для конфигурации зависимостей.
@@ -99,6 +104,233 @@ public interface ServiceCollection extends ModifiableList<ServiceDescriptor> {
      */
     <TService> ServiceCollection addSingleton(Class<TService> implementationClass);
 
+    /**
+     * Регистрирует per-thread зависимость.
+     *
+     * @param <TAbstract>        Тип абстракции.
+     * @param <TImplementation>  Тип реализации, который наследует или реализует {@code TAbstract}.
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @return Текущая коллекция сервисов.
+     */
+    <TAbstract, TImplementation extends TAbstract> ServiceCollection addPerThread(Class<TAbstract> abstractType, Class<TImplementation> implementationType);
+
+    /**
+     * Регистрирует per-thread зависимость с помощью фабричного метода.
+     *
+     * @param <TService>            Тип сервиса.
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addPerThread(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory);
+
+    /**
+     * Регистрирует per-thread зависимость для указанного класса сервиса.
+     *
+     * @param <TService>          Тип сервиса.
+     * @param implementationClass Класс типа сервиса.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addPerThread(Class<TService> implementationClass);
+
+    /**
+     * Регистрирует pooled зависимость.
+     *
+     * @param <TAbstract>        Тип абстракции.
+     * @param <TImplementation>  Тип реализации, который наследует или реализует {@code TAbstract}.
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @param poolPolicy         Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    <TAbstract, TImplementation extends TAbstract> ServiceCollection addPooled(Class<TAbstract> abstractType, Class<TImplementation> implementationType, ServicePoolPolicy<TAbstract> poolPolicy);
+
+    /**
+     * Регистрирует pooled зависимость с помощью фабричного метода.
+     *
+     * @param <TService>            Тип сервиса.
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param poolPolicy            Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addPooled(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory, ServicePoolPolicy<TService> poolPolicy);
+
+    /**
+     * Регистрирует pooled зависимость для указанного класса сервиса.
+     *
+     * @param <TService>          Тип сервиса.
+     * @param implementationClass Класс типа сервиса.
+     * @param poolPolicy          Параметры пула экземпляров.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addPooled(Class<TService> implementationClass, ServicePoolPolicy<TService> poolPolicy);
+
+    /**
+     * Регистрирует cached зависимость.
+     *
+     * @param <TAbstract>        Тип абстракции.
+     * @param <TImplementation>  Тип реализации, который наследует или реализует {@code TAbstract}.
+     * @param abstractType       Класс абстракции.
+     * @param implementationType Класс реализации.
+     * @param cachePolicy        Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    <TAbstract, TImplementation extends TAbstract> ServiceCollection addCached(Class<TAbstract> abstractType, Class<TImplementation> implementationType, ServiceCachePolicy<TAbstract> cachePolicy);
+
+    /**
+     * Регистрирует cached зависимость с помощью фабричного метода.
+     *
+     * @param <TService>            Тип сервиса.
+     * @param serviceType           Класс типа сервиса.
+     * @param implementationFactory Фабричный метод для создания реализации.
+     * @param cachePolicy           Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addCached(Class<TService> serviceType, Func<ServiceProvider, TService> implementationFactory, ServiceCachePolicy<TService> cachePolicy);
+
+    /**
+     * Регистрирует cached зависимость для указанного класса сервиса.
+     *
+     * @param <TService>          Тип сервиса.
+     * @param implementationClass Класс типа сервиса.
+     * @param cachePolicy         Параметры кэширования экземпляра.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection addCached(Class<TService> implementationClass, ServiceCachePolicy<TService> cachePolicy);
+
+    /**
+     * Регистрирует конфигурацию как singleton сервис. Разделы зарегистрированной конфигурации
+     * связываются с параметрами, добавленными методом {@link #addOptions(Class, String)}.
+     *
+     * @param configuration Загруженная конфигурация.
+     * @return Текущая коллекция сервисов.
+     */
+    ServiceCollection addConfiguration(Configuration configuration);
+
+    /**
+     * Регистрирует параметры, связанные с разделом конфигурации, как singleton сервис.
+     * Параметры связываются один раз при первом запросе и могут внедряться как сам тип
+     * параметров или как {@link Options}{@code <TOptions>}.
+     *
+     * @param <TOptions>  Тип параметров.
+     * @param optionsType Класс параметров: запись или класс с единственным открытым конструктором.
+     * @param section     Имя раздела конфигурации или пустая строка для корня конфигурации.
+     * @return Текущая коллекция сервисов.
+     */
+    <TOptions> ServiceCollection addOptions(Class<TOptions> optionsType, String section);
+
+    /**
+     * Регистрирует обработчик событий указанного типа и его подтипов. Обработчик
+     * регистрируется как сервис своего класса с указанным временем жизни, а опубликовать
+     * событие можно через {@link EventPublisher}, который добавляется в провайдер при
+     * регистрации хотя бы одного обработчика.
+     *
+     * @param <TEvent>    Тип события.
+     * @param <THandler>  Тип обработчика.
+     * @param eventType   Класс события.
+     * @param handlerType Класс обработчика.
+     * @param lifetime    Время жизни обработчика.
+     * @return Текущая коллекция сервисов.
+     */
+    <TEvent, THandler extends EventHandler<TEvent>> ServiceCollection addEventHandler(Class<TEvent> eventType, Class<THandler> handlerType, ServiceLifetime lifetime);
+
+    /**
+     * Регистрирует модуль сервисов, регистрация которого откладывается до первого запроса
+     * одного из объявленных им типов.
+     *
+     * @param module Модуль сервисов.
+     * @return Текущая коллекция сервисов.
+     * @see ServiceModule
+     */
+    ServiceCollection addModule(ServiceModule module);
+
+    /**
+     * Регистрирует сервисы из индекса, сформированного на этапе сборки по аннотациям
+     * {@code @Singleton}, {@code @Scoped} и {@code @Transient}. Индексы ищутся через
+     * контекстный загрузчик классов текущего потока.
+     *
+     * @return Текущая коллекция сервисов.
+     * @see codeislive63.dependencyInjection.index.ServiceIndex
+     */
+    ServiceCollection addIndexedServices();
+
+    /**
+     * Регистрирует сервисы из индекса, сформированного на этапе сборки по аннотациям
+     * {@code @Singleton}, {@code @Scoped} и {@code @Transient}.
+     *
+     * @param classLoader Загрузчик классов, через который ищутся индексы и загружаются типы.
+     * @return Текущая коллекция сервисов.
+     * @see codeislive63.dependencyInjection.index.ServiceIndex
+     */
+    ServiceCollection addIndexedServices(ClassLoader classLoader);
+
+    /**
+     * Регистрирует декоратор для всех реализаций указанного сервиса. Декоратор получает
+     * оборачиваемый экземпляр через параметр конструктора с типом сервиса, остальные
+     * параметры разрешаются из контейнера. Декораторы применяются в порядке регистрации:
+     * первый зарегистрированный декоратор оборачивает реализацию непосредственно.
+     *
+     * @param <TService>    Тип сервиса.
+     * @param <TDecorator>  Тип декоратора, который реализует {@code TService}.
+     * @param serviceType   Класс типа сервиса.
+     * @param decoratorType Класс декоратора.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService, TDecorator extends TService> ServiceCollection decorate(Class<TService> serviceType, Class<TDecorator> decoratorType);
+
+    /**
+     * Регистрирует перехватчик вызовов для всех реализаций указанного интерфейса сервиса.
+     * Каждый экземпляр оборачивается сгенерированным прокси после применения декораторов.
+     * Перехватчики вызываются в порядке регистрации: первый зарегистрированный перехватчик
+     * получает управление первым и завершает вызов последним.
+     *
+     * @param <TService>  Тип сервиса.
+     * @param serviceType Интерфейс сервиса.
+     * @param interceptor Перехватчик вызовов.
+     * @return Текущая коллекция сервисов.
+     */
+    <TService> ServiceCollection intercept(Class<TService> serviceType, ServiceInterceptor interceptor);
+
+    /**
+     * Подключает профилировщик запуска. Профилировщик измеряет построение провайдера,
+     * составление планов активации и первое разрешение каждого синглтона.
+     *
+     * @param profiler Профилировщик запуска.
+     * @return Текущая коллекция сервисов.
+     */
+    ServiceCollection profileStartup(StartupProfiler profiler);
+
+    /**
+     * Включает измерение количества и времени создания экземпляров каждого сервиса
+     * для графа зависимостей {@link ServiceProvider#getDependencyGraph()}.
+     *
+     * @return Текущая коллекция сервисов.
+     */
+    ServiceCollection measureActivations();
+
+    /**
+     * Включает создание экземпляров обходом зависимостей с явным стеком вместо рекурсивного
+     * разрешения. Глубина стека потока при разрешении не зависит от глубины графа
+     * зависимостей, а ошибка создания содержит путь от запрошенного сервиса до сервиса,
+     * создание которого не удалось. Провайдеры с заменой регистраций, профилированием
+     * запуска или измерением активаций разрешают сервисы рекурсивно.
+     *
+     * @return Текущая коллекция сервисов.
+     */
+    ServiceCollection useIterativeResolution();
+
+    /**
+     * Устанавливает максимальное число фоновых потоков, прогревающих синглтоны после
+     * построения провайдера.
+     *
+     * @param parallelism Максимальное число потоков прогрева.
+     * @return Текущая коллекция сервисов.
+     * @throws IllegalArgumentException Если число потоков меньше единицы.
+     */
+    ServiceCollection setWarmUpParallelism(int parallelism);
+
     /**
      * Устанавливает пользовательский фабричный метод для создания экземпляров ServiceScope.
      *
@@ -113,4 +345,20 @@ public interface ServiceCollection extends ModifiableList<ServiceDescriptor> {
      * @return Провайдер сервисов.
      */
     ServiceProvider buildServiceProvider();
+
+    /**
+     * Создаёт и возвращает провайдера сервисов, регистрации которого можно заменять
+     * и дополнять после построения.
+     *
+     * @return Провайдер сервисов с поддержкой замены регистраций.
+     */
+    ReloadableServiceProvider buildReloadableServiceProvider();
+
+    /**
+     * Составляет реестр сервисов один раз и возвращает шаблон, который быстро создаёт
+     * независимые провайдеры сервисов.
+     *
+     * @return Шаблон провайдеров сервисов.
+     */
+    ServiceProviderTemplate buildServiceProviderTemplate();
 }
@@ -0,0 +1,48 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий заранее разрешённую ссылку на сервис.
+ * <p>
+ * Ссылка создаётся методом {@link ServiceProvider#handle(Class)} и связывается с регистрацией
+ * сервиса один раз, поэтому последующие вызовы {@link #get()} не выполняют поиск по типу.
+ * Ссылку удобно хранить в статическом или неизменяемом поле и использовать в часто
+ * выполняемом коде.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * private final ServiceHandle<RequestHandler> handler = serviceProvider.handle(RequestHandler.class);
+ *
+ * try (ServiceScope scope = serviceProvider.createScope()) {
+ *     handler.get(scope).handle(request);
+ * }
+ * }
+ * </pre>
+ *
+ * @param <TService> Тип сервиса.
+ */
+public interface ServiceHandle<TService> {
+
+    /**
+     * Возвращает класс сервиса, с которым связана ссылка.
+     *
+     * @return Класс сервиса.
+     */
+    Class<TService> getServiceType();
+
+    /**
+     * Получает экземпляр сервиса у провайдера, создавшего ссылку.
+     *
+     * @return Экземпляр сервиса или {@code null}, если сервис не зарегистрирован.
+     */
+    TService get();
+
+    /**
+     * Получает экземпляр сервиса в указанной области.
+     *
+     * @param scope Область, в которой разрешается сервис.
+     * @return Экземпляр сервиса или {@code null}, если сервис не зарегистрирован.
+     */
+    TService get(ServiceScope scope);
+}
@@ -0,0 +1,54 @@
+package codeislive63.dependencyInjection.interfaces;
+
+import java.lang.reflect.Method;
+
+/**
+ * Интерфейс, представляющий перехватчик вызовов методов сервиса.
+ * <p>
+ * Перехватчики регистрируются методом {@link ServiceCollection#intercept(Class, ServiceInterceptor)}
+ * и вызываются сгенерированным прокси до и после каждого вызова метода интерфейса сервиса.
+ * Аргументы и результат вызова перехватчику не передаются, поэтому вызов не требует
+ * упаковки аргументов в массив.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * public class TimingInterceptor implements ServiceInterceptor {
+ *
+ *     @Override
+ *     public Object before(Method method, Object target) {
+ *         return System.nanoTime();
+ *     }
+ *
+ *     @Override
+ *     public void after(Method method, Object target, Object state, Throwable error) {
+ *         metrics.record(method.getName(), System.nanoTime() - (long) state);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+public interface ServiceInterceptor {
+
+    /**
+     * Вызывается перед вызовом метода сервиса. Исключение, выброшенное этим методом,
+     * отменяет вызов и передаётся вызывающему коду.
+     *
+     * @param method Вызываемый метод интерфейса сервиса.
+     * @param target Экземпляр сервиса, метод которого вызывается.
+     * @return Произвольное состояние, которое будет передано в {@link #after}.
+     */
+    Object before(Method method, Object target);
+
+    /**
+     * Вызывается после завершения вызова метода сервиса, в том числе с исключением.
+     *
+     * @param method Вызванный метод интерфейса сервиса.
+     * @param target Экземпляр сервиса, метод которого был вызван.
+     * @param state  Состояние, возвращённое {@link #before}.
+     * @param error  Исключение, с которым завершился вызов, или {@code null}.
+     */
+    default void after(Method method, Object target, Object state, Throwable error) {
+    }
+}
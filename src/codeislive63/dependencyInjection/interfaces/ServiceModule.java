@@ -0,0 +1,54 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий модуль сервисов, регистрация которого откладывается до первого
+ * запроса одного из его типов.
+ * <p>
+ * Модуль заранее объявляет все типы сервисов, которые он регистрирует. При построении
+ * провайдера эти типы считаются зарегистрированными, но метод {@link #configure(ServiceCollection)}
+ * не вызывается и планы активации сервисов модуля не составляются. Модуль загружается один
+ * раз при первом разрешении любого из объявленных типов, напрямую или как зависимости
+ * другого сервиса, после чего его сервисы доступны провайдеру и всем его областям.
+ * </p>
+ * <p>
+ * Регистрация необъявленного типа отклоняется при загрузке модуля: такой тип мог бы
+ * совпасть с регистрацией основной коллекции или другого модуля, и результат зависел
+ * бы от порядка загрузки.
+ * </p>
+ * <p>
+ * Модуль регистрирует только сервисы: декораторы и перехватчики, добавленные в основную
+ * коллекцию, применяются и к сервисам модуля.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * public class BillingModule implements ServiceModule {
+ *     public Class<?>[] getServiceTypes() {
+ *         return new Class<?>[] { InvoiceService.class, TaxTable.class };
+ *     }
+ *
+ *     public void configure(ServiceCollection services) {
+ *         services.addSingleton(TaxTable.class, TaxTable.class);
+ *         services.addScoped(InvoiceService.class, InvoiceServiceImplementation.class);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+public interface ServiceModule {
+
+    /**
+     * Возвращает типы сервисов, которые предоставляет модуль.
+     *
+     * @return Типы сервисов модуля.
+     */
+    Class<?>[] getServiceTypes();
+
+    /**
+     * Регистрирует сервисы модуля.
+     *
+     * @param services Коллекция, в которую регистрируются сервисы модуля.
+     */
+    void configure(ServiceCollection services);
+}
@@ -1,6 +1,10 @@
 package codeislive63.dependencyInjection.interfaces;
 
 import codeislive63.collections.generic.Enumerable;
+import codeislive63.dependencyInjection.ServiceDelta;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Интерфейс, представляющий провайдера сервисов для конфигурации зависимостей.
@@ -36,6 +40,47 @@ public interface ServiceProvider extends AutoCloseable {
      */
     <TService> TService getRequiredService(Class<TService> serviceType);
 
+    /**
+     * Возвращает ссылку на сервис указанного типа, связанную с его регистрацией.
+     * Ссылку следует получить один раз и использовать повторно.
+     *
+     * @param <TService>  Тип сервиса.
+     * @param serviceType Класс сервиса.
+     * @return Ссылка на сервис.
+     */
+    <TService> ServiceHandle<TService> handle(Class<TService> serviceType);
+
+    /**
+     * Возвращает экземпляр сервиса со временем жизни {@code POOLED} в пул.
+     * Для сервисов с другим временем жизни вызов не имеет эффекта. Экземпляр возвращается
+     * только провайдером, который его выдал, и только один раз: повторный возврат и возврат
+     * экземпляра, полученного в другой области, игнорируются.
+     *
+     * @param <TService>  Тип сервиса.
+     * @param serviceType Класс сервиса, под которым экземпляр был получен.
+     * @param instance    Возвращаемый экземпляр.
+     */
+    <TService> void release(Class<TService> serviceType, TService instance);
+
+    /**
+     * Возвращает будущее, которое завершается после прогрева всех синглтонов, реализующих
+     * {@link Warmable} или содержащих методы, помеченные
+     * {@link codeislive63.dependencyInjection.annotations.WarmUp}. Если прогрев одного из
+     * сервисов не удался, будущее завершается с исключением.
+     *
+     * @return Будущее готовности провайдера.
+     */
+    CompletableFuture<Void> whenReady();
+
+    /**
+     * Составляет граф зависимостей зарегистрированных сервисов. Если при построении провайдера
+     * было включено измерение активаций, узлы графа содержат количество созданных экземпляров
+     * и время их создания.
+     *
+     * @return Граф зависимостей.
+     */
+    DependencyGraph getDependencyGraph();
+
     /**
      * Создает новую область для сервисов.
      *
@@ -43,6 +88,17 @@ public interface ServiceProvider extends AutoCloseable {
      */
     ServiceScope createScope();
 
+    /**
+     * Строит новый провайдер из регистраций этого провайдера и указанных изменений.
+     * Индекс и планы активации незатронутых регистраций используются повторно, поэтому
+     * стоимость построения пропорциональна изменению. Текущий провайдер не изменяется.
+     * Провайдер области строит новый провайдер из регистраций корневого провайдера.
+     *
+     * @param delta Изменения регистраций.
+     * @return Новый провайдер сервисов.
+     */
+    ServiceProvider rebuildWith(ServiceDelta delta);
+
     /**
      * Закрывает область и освобождает все связанные с ней ресурсы.
      * Переопределяет метод из интерфейса {@link AutoCloseable}.
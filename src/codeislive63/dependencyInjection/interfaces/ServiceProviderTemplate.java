@@ -0,0 +1,31 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий шаблон для создания независимых провайдеров сервисов.
+ * <p>
+ * Шаблон содержит реестр сервисов и планы активации, составленные один раз. Каждый
+ * провайдер, созданный шаблоном, получает собственные синглтоны, пулы и области,
+ * поэтому провайдеры не разделяют состояние, а их создание не требует повторного
+ * анализа регистраций.
+ * </p>
+ *
+ * <p>Пример использования:</p>
+ * <pre>
+ * {@code
+ * ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+ *
+ * try (ServiceProvider tenantProvider = template.newProvider()) {
+ *     tenantProvider.getService(TenantWorker.class).run();
+ * }
+ * }
+ * </pre>
+ */
+public interface ServiceProviderTemplate {
+
+    /**
+     * Создаёт новый провайдер сервисов по шаблону.
+     *
+     * @return Провайдер сервисов.
+     */
+    ServiceProvider newProvider();
+}
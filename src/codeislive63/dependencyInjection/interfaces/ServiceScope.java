@@ -12,6 +12,17 @@ public interface ServiceScope extends AutoCloseable {
      */
     ServiceProvider getServiceProvider();
 
+    /**
+     * Переопределяет сервис в этой области и во вложенных в неё областях: провайдер области
+     * возвращает указанный экземпляр вместо зарегистрированных реализаций.
+     *
+     * @param serviceType Класс сервиса.
+     * @param instance    Переопределяющий экземпляр.
+     * @param <TService>  Тип сервиса.
+     * @return Текущая область.
+     */
+    <TService> ServiceScope override(Class<TService> serviceType, TService instance);
+
     /**
      * Закрывает область и освобождает все связанные с ней ресурсы.
      * Переопределяет метод из интерфейса {@link AutoCloseable}.
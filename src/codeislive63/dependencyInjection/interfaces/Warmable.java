@@ -0,0 +1,20 @@
+package codeislive63.dependencyInjection.interfaces;
+
+/**
+ * Интерфейс, представляющий singleton сервис, которому нужен прогрев после создания.
+ * <p>
+ * Прогрев выполняется в фоновых потоках после построения провайдера, поэтому дорогая
+ * подготовка сервиса не задерживает ни построение провайдера, ни первое разрешение
+ * сервиса. Завершение прогрева всех сервисов можно ожидать через
+ * {@link ServiceProvider#whenReady()}.
+ * </p>
+ */
+public interface Warmable {
+
+    /**
+     * Выполняет прогрев сервиса.
+     *
+     * @throws Exception Если прогрев не удался.
+     */
+    void warmUp() throws Exception;
+}
@@ -0,0 +1,269 @@
+package codeislive63.test.java.dependencyInjection.concurrencyTests;
+
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProviderConcurrencyTest {
+
+    private static final int TASK_COUNT = 256;
+    private static final int MAX_ITERATIONS = 20_000;
+
+    private ServiceCollection serviceCollection;
+    private AtomicInteger singletonCount;
+    private AtomicInteger scopedCount;
+
+    @BeforeEach
+    void setUp() {
+        singletonCount = new AtomicInteger();
+        scopedCount = new AtomicInteger();
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, provider -> {
+            singletonCount.incrementAndGet();
+            Thread.yield();
+            return new DataServiceImplementation();
+        });
+        serviceCollection.addScoped(LoggingService.class, provider -> {
+            scopedCount.incrementAndGet();
+            Thread.yield();
+            return new RecordingLoggingService();
+        });
+        serviceCollection.addTransient(DataProcessor.class);
+    }
+
+    @Test
+    void testSingletonIsConstructedExactlyOnce() throws Exception {
+        for (Supplier<ExecutorService> executorFactory : executorFactories()) {
+            singletonCount.set(0);
+
+            try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+                List<DataService> services = runConcurrently(executorFactory, () -> serviceProvider.getService(DataService.class));
+
+                assertEquals(1, singletonCount.get());
+                assertEquals(1, distinctCount(services));
+            }
+
+        }
+    }
+
+    @Test
+    void testScopedServiceIsUniquePerScope() throws Exception {
+        for (Supplier<ExecutorService> executorFactory : executorFactories()) {
+            scopedCount.set(0);
+
+            try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+                 ServiceScope sharedScope = serviceProvider.createScope()) {
+                List<LoggingService> shared = runConcurrently(executorFactory,
+                        () -> sharedScope.getServiceProvider().getService(DataProcessor.class).getLoggingService());
+
+                assertEquals(1, distinctCount(shared));
+                assertSame(sharedScope.getServiceProvider().getService(LoggingService.class), shared.get(0));
+
+                List<LoggingService> isolated = runConcurrently(executorFactory, () -> {
+                    try (ServiceScope scope = serviceProvider.createScope()) {
+                        LoggingService first = scope.getServiceProvider().getService(LoggingService.class);
+                        assertSame(first, scope.getServiceProvider().getService(DataProcessor.class).getLoggingService());
+                        return first;
+                    }
+                });
+
+                assertEquals(TASK_COUNT, distinctCount(isolated));
+                assertEquals(TASK_COUNT + 1, scopedCount.get());
+            }
+
+        }
+    }
+
+    @Test
+    void testProviderRejectsResolutionAfterConcurrentClose() throws Exception {
+        for (Supplier<ExecutorService> executorFactory : executorFactories()) {
+            ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+            AtomicBoolean isStarted = new AtomicBoolean();
+            ExecutorService executor = executorFactory.get();
+
+            try {
+                List<Future<Throwable>> futures = new ArrayList<>();
+
+                for (int i = 0; i < TASK_COUNT; i++) {
+                    futures.add(executor.submit(() -> resolveUntilClosed(() -> {
+                        isStarted.set(true);
+
+                        try (ServiceScope scope = serviceProvider.createScope()) {
+                            scope.getServiceProvider().getService(DataProcessor.class);
+                        }
+                    })));
+                }
+
+                while (!isStarted.get()) {
+                    Thread.onSpinWait();
+                }
+
+                serviceProvider.close();
+
+                for (Future<Throwable> future : futures) {
+                    Throwable failure = future.get(30, TimeUnit.SECONDS);
+                    assertTrue(failure == null || isClosedFailure(failure), () -> "Unexpected failure: " + failure);
+                }
+            } finally {
+                shutdown(executor);
+            }
+
+            assertThrows(IllegalStateException.class, () -> serviceProvider.getService(DataService.class));
+            assertThrows(IllegalStateException.class, serviceProvider::createScope);
+        }
+    }
+
+    @Test
+    void testScopeRejectsResolutionAfterConcurrentClose() throws Exception {
+        for (Supplier<ExecutorService> executorFactory : executorFactories()) {
+            try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+                ServiceScope scope = serviceProvider.createScope();
+                CountDownLatch isStarted = new CountDownLatch(1);
+                ExecutorService executor = executorFactory.get();
+
+                try {
+                    List<Future<Throwable>> futures = new ArrayList<>();
+
+                    for (int i = 0; i < TASK_COUNT; i++) {
+                        futures.add(executor.submit(() -> resolveUntilClosed(() -> {
+                            isStarted.countDown();
+                            assertNotNull(scope.getServiceProvider().getService(DataProcessor.class).getLoggingService());
+                        })));
+                    }
+
+                    isStarted.await();
+                    scope.close();
+
+                    for (Future<Throwable> future : futures) {
+                        Throwable failure = future.get(30, TimeUnit.SECONDS);
+                        assertTrue(failure == null || isClosedFailure(failure), () -> "Unexpected failure: " + failure);
+                    }
+                } finally {
+                    shutdown(executor);
+                }
+
+                assertThrows(IllegalStateException.class, () -> scope.getServiceProvider().getService(LoggingService.class));
+            }
+
+        }
+    }
+
+    @Test
+    void testPooledRentalsOfSharedScopeAreReturnedOnClose() throws Exception {
+        for (Supplier<ExecutorService> executorFactory : executorFactories()) {
+            ServiceCollection pooledCollection = new ServiceCollectionBase();
+            pooledCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(TASK_COUNT));
+
+            try (ServiceProvider serviceProvider = pooledCollection.buildServiceProvider()) {
+                List<TestService> rented;
+
+                try (ServiceScope scope = serviceProvider.createScope()) {
+                    rented = runConcurrently(executorFactory, () -> scope.getServiceProvider().getService(TestService.class));
+                }
+
+                assertEquals(TASK_COUNT, distinctCount(rented));
+
+                Set<TestService> returned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+                for (int i = 0; i < TASK_COUNT; i++) {
+                    returned.add(serviceProvider.getService(TestService.class));
+                }
+
+                Set<TestService> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+                expected.addAll(rented);
+                assertEquals(expected, returned);
+            }
+        }
+    }
+
+    private static List<Supplier<ExecutorService>> executorFactories() {
+        return List.of(() -> Executors.newFixedThreadPool(32), Executors::newVirtualThreadPerTaskExecutor);
+    }
+
+    private static <TResult> List<TResult> runConcurrently(Supplier<ExecutorService> executorFactory, Callable<TResult> task) throws Exception {
+        ExecutorService executor = executorFactory.get();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<TResult>> futures = new ArrayList<>();
+
+            for (int i = 0; i < TASK_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            start.countDown();
+            List<TResult> results = new ArrayList<>();
+
+            for (Future<TResult> future : futures) {
+                try {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    fail(e.getCause());
+                }
+            }
+
+            return results;
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    private static Throwable resolveUntilClosed(Runnable resolution) {
+        try {
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                resolution.run();
+            }
+
+            return null;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+
+    private static boolean isClosedFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalStateException && cause.getMessage().contains("закрыт")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int distinctCount(List<?> instances) {
+        Set<Object> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(instances);
+        return distinct.size();
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    }
+}
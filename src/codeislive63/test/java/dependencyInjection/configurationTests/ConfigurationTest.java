@@ -0,0 +1,106 @@
+package codeislive63.test.java.dependencyInjection.configurationTests;
+
+import codeislive63.dependencyInjection.configuration.Configuration;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.configurationTests.options.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("injectx", ".properties");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, """
+                # База данных
+                database.url = jdbc:postgresql://localhost/app
+                database.poolSize: 16
+                database.readOnly=true
+                database.timeout = PT30S
+                database.replicas = replica-1, replica-2
+                database.retry.attempts = 3
+                database.retry.mode = EXPONENTIAL
+                ! комментарий
+                greeting = Привет
+                """, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testLoadReadsValues() {
+        Configuration configuration = Configuration.load(file);
+
+        assertEquals("jdbc:postgresql://localhost/app", configuration.get("database.url"));
+        assertEquals("16", configuration.get("database.poolSize"));
+        assertEquals("Привет", configuration.get("greeting"));
+        assertFalse(configuration.contains("комментарий"));
+    }
+
+    @Test
+    void testLaterFilesOverrideEarlierOnes() throws IOException {
+        Path overrides = Files.createTempFile("injectx-overrides", ".properties");
+        overrides.toFile().deleteOnExit();
+        Files.writeString(overrides, "database.poolSize=32\n");
+
+        Configuration configuration = Configuration.load(file, overrides);
+
+        assertEquals("32", configuration.get("database.poolSize"));
+        assertEquals("true", configuration.get("database.readOnly"));
+    }
+
+    @Test
+    void testBindCreatesTypedOptions() {
+        DatabaseOptions options = Configuration.load(file).bind("database", DatabaseOptions.class);
+
+        assertEquals("jdbc:postgresql://localhost/app", options.url());
+        assertEquals(16, options.poolSize());
+        assertTrue(options.readOnly());
+        assertEquals(Duration.ofSeconds(30), options.timeout());
+        assertArrayEquals(new String[]{"replica-1", "replica-2"}, options.replicas());
+        assertEquals(new RetryOptions(3, RetryMode.EXPONENTIAL), options.retry());
+    }
+
+    @Test
+    void testMissingPrimitiveValueIsReported() {
+        Configuration configuration = Configuration.of(Map.of("retry.mode", "FIXED"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> configuration.bind("retry", RetryOptions.class));
+        assertTrue(exception.getMessage().contains("retry.attempts"));
+    }
+
+    @Test
+    void testInvalidValueIsReported() {
+        Configuration configuration = Configuration.of(Map.of("attempts", "three"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> configuration.bind("", RetryOptions.class));
+        assertTrue(exception.getMessage().contains("attempts"));
+    }
+
+    @Test
+    void testOptionsAreInjectedFromServiceCollection() {
+        ServiceCollection serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addConfiguration(Configuration.load(file));
+        serviceCollection.addOptions(DatabaseOptions.class, "database");
+        serviceCollection.addTransient(DatabaseClient.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DatabaseOptions options = serviceProvider.getService(DatabaseOptions.class);
+
+            assertSame(options, serviceProvider.getService(DatabaseOptions.class));
+            assertSame(options, serviceProvider.getService(DatabaseClient.class).getOptions());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package codeislive63.test.java.dependencyInjection.configurationTests.options;
+
+import codeislive63.dependencyInjection.interfaces.Options;
+
+public class DatabaseClient {
+    private final Options<DatabaseOptions> options;
+
+    public DatabaseClient(Options<DatabaseOptions> options) {
+        this.options = options;
+    }
+
+    public DatabaseOptions getOptions() {
+        return options.get();
+    }
+}
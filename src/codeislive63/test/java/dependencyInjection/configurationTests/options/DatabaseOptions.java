@@ -0,0 +1,7 @@
+package codeislive63.test.java.dependencyInjection.configurationTests.options;
+
+import java.time.Duration;
+
+public record DatabaseOptions(String url, int poolSize, boolean readOnly, Duration timeout, String[] replicas,
+                              RetryOptions retry) {
+}
@@ -0,0 +1,6 @@
+package codeislive63.test.java.dependencyInjection.configurationTests.options;
+
+public enum RetryMode {
+    FIXED,
+    EXPONENTIAL
+}
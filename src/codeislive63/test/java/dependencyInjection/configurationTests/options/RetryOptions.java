@@ -0,0 +1,4 @@
+package codeislive63.test.java.dependencyInjection.configurationTests.options;
+
+public record RetryOptions(int attempts, RetryMode mode) {
+}
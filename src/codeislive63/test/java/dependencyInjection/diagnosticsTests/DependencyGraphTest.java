@@ -0,0 +1,114 @@
+package codeislive63.test.java.dependencyInjection.diagnosticsTests;
+
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.diagnostics.DependencyEdge;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+import codeislive63.dependencyInjection.diagnostics.DependencyKind;
+import codeislive63.dependencyInjection.diagnostics.DependencyNode;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addTransient(DataProcessor.class);
+        serviceCollection.addScoped(MethodInjectedProcessor.class);
+        serviceCollection.addTransient(TestService.class, provider -> new TestServiceImplementation());
+    }
+
+    @Test
+    void testGraphContainsLifetimesAndEdgeKinds() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DependencyGraph graph = serviceProvider.getDependencyGraph();
+            DependencyNode processor = graph.getNode(DataProcessor.class);
+            DependencyNode injected = graph.getNode(MethodInjectedProcessor.class);
+
+            assertEquals(5, graph.getNodes().count());
+            assertEquals(ServiceLifetime.TRANSIENT, processor.getLifetime());
+            assertEquals(DataProcessor.class, processor.getImplementationType());
+            assertNull(graph.getNode(TestService.class).getImplementationType());
+
+            assertEquals(2, processor.getDependencies().count());
+            assertEdge(processor.getDependencies().get(0), LoggingService.class, DependencyKind.CONSTRUCTOR);
+            assertEdge(processor.getDependencies().get(1), DataService.class, DependencyKind.CONSTRUCTOR);
+
+            assertEquals(2, injected.getDependencies().count());
+
+            for (DependencyEdge edge : injected.getDependencies()) {
+                assertEquals(DependencyKind.INJECT_METHOD, edge.getKind());
+            }
+
+            assertEquals(2, processor.getCreatedObjects());
+            assertEquals(1, graph.getNode(DataService.class).getCreatedObjects());
+        }
+    }
+
+    @Test
+    void testMeasuredActivationsAreReported() {
+        serviceCollection.measureActivations();
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            for (int i = 0; i < 3; i++) {
+                serviceProvider.getService(DataProcessor.class);
+            }
+
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                scope.getServiceProvider().getService(MethodInjectedProcessor.class);
+                scope.getServiceProvider().getService(MethodInjectedProcessor.class);
+            }
+
+            DependencyGraph graph = serviceProvider.getDependencyGraph();
+
+            assertEquals(3, graph.getNode(DataProcessor.class).getActivationCount());
+            assertEquals(4, graph.getNode(LoggingService.class).getActivationCount());
+            assertEquals(1, graph.getNode(DataService.class).getActivationCount());
+            assertEquals(1, graph.getNode(MethodInjectedProcessor.class).getActivationCount());
+            assertEquals(0, graph.getNode(TestService.class).getActivationCount());
+            assertTrue(graph.getNode(DataProcessor.class).getTotalNanos() > 0);
+        }
+    }
+
+    @Test
+    void testActivationsAreNotMeasuredByDefault() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getService(DataProcessor.class);
+
+            assertEquals(0, serviceProvider.getDependencyGraph().getNode(DataProcessor.class).getActivationCount());
+        }
+    }
+
+    @Test
+    void testExportFormats() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DependencyGraph graph = serviceProvider.getDependencyGraph();
+            String dot = graph.toDot();
+            String json = graph.toJson();
+
+            assertTrue(dot.startsWith("digraph services {"));
+            assertTrue(dot.contains(graph.getNode(DataProcessor.class).getId() + " -> " + graph.getNode(DataService.class).getId() + " [label=\"constructor\"]"));
+            assertTrue(dot.contains("inject_method"));
+            assertTrue(json.contains("\"serviceType\":\"" + DataProcessor.class.getName() + "\""));
+            assertTrue(json.contains("\"lifetime\":\"SCOPED\""));
+            assertTrue(json.contains("\"implementationType\":null"));
+            assertTrue(json.contains("\"kind\":\"INJECT_METHOD\""));
+        }
+    }
+
+    private static void assertEdge(DependencyEdge edge, Class<?> targetType, DependencyKind kind) {
+        assertEquals(targetType, edge.getTarget().getServiceType());
+        assertEquals(kind, edge.getKind());
+    }
+}
@@ -0,0 +1,94 @@
+package codeislive63.test.java.dependencyInjection.diagnosticsTests;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.diagnostics.StartupNode;
+import codeislive63.dependencyInjection.diagnostics.StartupProfiler;
+import codeislive63.dependencyInjection.diagnostics.StartupReport;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupProfilerTest {
+
+    private ServiceCollection serviceCollection;
+    private StartupProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        profiler = new StartupProfiler();
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, provider -> {
+            sleep(20);
+            return new DataServiceImplementation();
+        });
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addSingleton(ConstructorInjectedProcessor.class);
+        serviceCollection.profileStartup(profiler);
+    }
+
+    @Test
+    void testBuildAndSingletonResolutionAreRecorded() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getService(ConstructorInjectedProcessor.class);
+            serviceProvider.getService(ConstructorInjectedProcessor.class);
+            serviceProvider.getService(LoggingService.class);
+        }
+
+        List<StartupNode> roots = profiler.getReport().getRoots();
+        assertEquals(2, roots.count());
+
+        StartupNode build = roots.get(0);
+        assertEquals("build", build.getKind());
+        assertEquals(3, build.getChildren().count());
+        assertEquals("plan", build.getChildren().get(0).getKind());
+
+        StartupNode processor = roots.get(1);
+        assertEquals(ConstructorInjectedProcessor.class.getName(), processor.getName());
+        assertEquals(2, processor.getChildren().count());
+        assertEquals("transient", processor.getChildren().get(0).getKind());
+        assertTrue(processor.getChildren().get(1).getExclusiveNanos() >= 20_000_000L);
+        assertTrue(processor.getExclusiveNanos() < processor.getInclusiveNanos());
+    }
+
+    @Test
+    void testCriticalPathFollowsSlowestDependency() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getService(ConstructorInjectedProcessor.class);
+        }
+
+        List<StartupNode> criticalPath = profiler.getReport().getCriticalPath();
+
+        assertEquals(2, criticalPath.count());
+        assertEquals(ConstructorInjectedProcessor.class.getName(), criticalPath.get(0).getName());
+        assertEquals(DataService.class.getName(), criticalPath.get(1).getName());
+    }
+
+    @Test
+    void testReportIsExported() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getService(ConstructorInjectedProcessor.class);
+        }
+
+        StartupReport report = profiler.getReport();
+        String json = report.toJson();
+        String stacks = report.toCollapsedStacks();
+
+        assertTrue(json.startsWith("{\"totalNanos\":"));
+        assertTrue(json.contains("\"criticalPath\":[\"" + ConstructorInjectedProcessor.class.getName() + "\",\"" + DataService.class.getName() + "\"]"));
+        assertTrue(json.contains("\"exclusiveNanos\":"));
+        assertTrue(stacks.contains(ConstructorInjectedProcessor.class.getName() + ";" + DataService.class.getName() + " "));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
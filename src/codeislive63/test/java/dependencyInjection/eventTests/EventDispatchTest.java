@@ -0,0 +1,127 @@
+package codeislive63.test.java.dependencyInjection.eventTests;
+
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.EventPublisher;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.eventTests.events.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventDispatchTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(EventLog.class, EventLog.class);
+    }
+
+    @Test
+    void testPublishInvokesHandlersInRegistrationOrder() {
+        serviceCollection.addEventHandler(OrderPlaced.class, OrderMailer.class, ServiceLifetime.TRANSIENT);
+        serviceCollection.addEventHandler(OrderEvent.class, OrderAuditor.class, ServiceLifetime.SINGLETON);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getRequiredService(EventPublisher.class).publish(new OrderPlaced(1));
+
+            assertEquals(List.of("mail:1", "audit:1"), serviceProvider.getRequiredService(EventLog.class).getEntries());
+        }
+    }
+
+    @Test
+    void testPublishSelectsHandlersByEventType() {
+        serviceCollection.addEventHandler(OrderPlaced.class, OrderMailer.class, ServiceLifetime.TRANSIENT);
+        serviceCollection.addEventHandler(OrderEvent.class, OrderAuditor.class, ServiceLifetime.TRANSIENT);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            EventPublisher publisher = serviceProvider.getRequiredService(EventPublisher.class);
+            publisher.publish(new OrderCancelled(2));
+            publisher.publish("событие без обработчиков");
+
+            assertEquals(List.of("audit:2"), serviceProvider.getRequiredService(EventLog.class).getEntries());
+        }
+    }
+
+    @Test
+    void testScopedHandlersAreResolvedFromPublishingScope() {
+        serviceCollection.addEventHandler(OrderPlaced.class, OrderCounter.class, ServiceLifetime.SCOPED);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            try (ServiceScope first = serviceProvider.createScope(); ServiceScope second = serviceProvider.createScope()) {
+                EventPublisher publisher = first.getServiceProvider().getRequiredService(EventPublisher.class);
+                publisher.publish(new OrderPlaced(1));
+                publisher.publish(new OrderPlaced(2));
+
+                assertEquals(2, first.getServiceProvider().getRequiredService(OrderCounter.class).getCount());
+                assertEquals(0, second.getServiceProvider().getRequiredService(OrderCounter.class).getCount());
+            }
+        }
+    }
+
+    @Test
+    void testFailingHandlerDoesNotStopOtherHandlers() {
+        serviceCollection.addEventHandler(OrderPlaced.class, FailingOrderHandler.class, ServiceLifetime.TRANSIENT);
+        serviceCollection.addEventHandler(OrderPlaced.class, OrderMailer.class, ServiceLifetime.TRANSIENT);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            EventPublisher publisher = serviceProvider.getRequiredService(EventPublisher.class);
+
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> publisher.publish(new OrderPlaced(3)));
+            assertEquals("Заказ 3 не обработан", exception.getCause().getMessage());
+            assertEquals(List.of("mail:3"), serviceProvider.getRequiredService(EventLog.class).getEntries());
+        }
+    }
+
+    @Test
+    void testPublishAsyncDeliversEventsInOrderOnVirtualThread() throws Exception {
+        serviceCollection.addEventHandler(OrderPlaced.class, OrderMailer.class, ServiceLifetime.SINGLETON);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            EventPublisher publisher = serviceProvider.getRequiredService(EventPublisher.class);
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+
+            for (int i = 0; i < 100; i++) {
+                deliveries.add(publisher.publishAsync(new OrderPlaced(i)));
+                expected.add("mail:" + i);
+            }
+
+            CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+            EventLog log = serviceProvider.getRequiredService(EventLog.class);
+            assertEquals(expected, log.getEntries());
+            assertTrue(log.isVirtualThreadSeen());
+        }
+    }
+
+    @Test
+    void testPublishAsyncCompletesExceptionallyOnHandlerFailure() {
+        serviceCollection.addEventHandler(OrderPlaced.class, FailingOrderHandler.class, ServiceLifetime.TRANSIENT);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CompletableFuture<Void> delivery = serviceProvider.getRequiredService(EventPublisher.class).publishAsync(new OrderPlaced(4));
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+            assertEquals("Заказ 4 не обработан", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void testPublisherIsNotRegisteredWithoutHandlers() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertNull(serviceProvider.getService(EventPublisher.class));
+        }
+    }
+}
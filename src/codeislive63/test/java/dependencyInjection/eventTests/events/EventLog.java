@@ -0,0 +1,22 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventLog {
+    private final List<String> entries = new ArrayList<>();
+    private volatile boolean isVirtualThreadSeen;
+
+    public synchronized void write(String entry) {
+        entries.add(entry);
+        isVirtualThreadSeen |= Thread.currentThread().isVirtual();
+    }
+
+    public synchronized List<String> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    public boolean isVirtualThreadSeen() {
+        return isVirtualThreadSeen;
+    }
+}
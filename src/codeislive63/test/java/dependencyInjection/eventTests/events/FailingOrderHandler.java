@@ -0,0 +1,11 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+
+public class FailingOrderHandler implements EventHandler<OrderPlaced> {
+
+    @Override
+    public void handle(OrderPlaced event) throws Exception {
+        throw new Exception("Заказ " + event.orderId() + " не обработан");
+    }
+}
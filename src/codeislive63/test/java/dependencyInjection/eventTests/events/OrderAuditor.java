@@ -0,0 +1,16 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+
+public class OrderAuditor implements EventHandler<OrderEvent> {
+    private final EventLog log;
+
+    public OrderAuditor(EventLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        log.write("audit:" + event.orderId());
+    }
+}
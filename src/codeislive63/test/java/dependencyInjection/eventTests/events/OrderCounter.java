@@ -0,0 +1,16 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+
+public class OrderCounter implements EventHandler<OrderPlaced> {
+    private int count;
+
+    @Override
+    public void handle(OrderPlaced event) {
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,5 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+public interface OrderEvent {
+    int orderId();
+}
@@ -0,0 +1,16 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+import codeislive63.dependencyInjection.interfaces.EventHandler;
+
+public class OrderMailer implements EventHandler<OrderPlaced> {
+    private final EventLog log;
+
+    public OrderMailer(EventLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void handle(OrderPlaced event) {
+        log.write("mail:" + event.orderId());
+    }
+}
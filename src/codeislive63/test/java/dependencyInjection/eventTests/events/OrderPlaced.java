@@ -0,0 +1,4 @@
+package codeislive63.test.java.dependencyInjection.eventTests.events;
+
+public record OrderPlaced(int orderId) implements OrderEvent {
+}
@@ -0,0 +1,99 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.AmbientServiceScope;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmbientServiceScopeTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addScoped(TestService.class, TestServiceImplementation.class);
+    }
+
+    @Test
+    void testRootProviderResolvesScopedServiceInAmbientScope() throws Exception {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            TestService scopedService = scope.getServiceProvider().getService(TestService.class);
+
+            TestService ambientService = AmbientServiceScope.call(scope, () -> serviceProvider.getService(TestService.class));
+
+            assertSame(scopedService, ambientService);
+            assertNull(AmbientServiceScope.current());
+            assertNotSame(scopedService, serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testWrappedTaskInheritsAmbientScope() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            TestService scopedService = scope.getServiceProvider().getService(TestService.class);
+
+            Future<TestService> future = AmbientServiceScope.call(scope,
+                    () -> executor.submit(AmbientServiceScope.wrap(() -> serviceProvider.getService(TestService.class))));
+
+            assertSame(scopedService, future.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testScopeOfAnotherProviderIsIgnored() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceProvider otherProvider = serviceCollection.buildServiceProvider();
+             ServiceScope otherScope = otherProvider.createScope()) {
+            TestService otherService = otherScope.getServiceProvider().getService(TestService.class);
+
+            AmbientServiceScope.run(otherScope, () -> assertNotSame(otherService, serviceProvider.getService(TestService.class)));
+        }
+    }
+
+    @Test
+    void testRootProviderResolvesEveryScopedRegistrationInAmbientScope() throws Exception {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addScoped(DataService.class, AlternativeDataService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            List<DataService> scopedServices = new ArrayList<>();
+            List<DataService> ambientServices = new ArrayList<>();
+
+            for (DataService service : scope.getServiceProvider().getServices(DataService.class)) {
+                scopedServices.add(service);
+            }
+
+            AmbientServiceScope.run(scope, () -> {
+                for (DataService service : serviceProvider.getServices(DataService.class)) {
+                    ambientServices.add(service);
+                }
+            });
+
+            assertEquals(2, ambientServices.size());
+            assertInstanceOf(DataServiceImplementation.class, ambientServices.get(0));
+            assertInstanceOf(AlternativeDataService.class, ambientServices.get(1));
+            assertSame(scopedServices.get(0), ambientServices.get(0));
+            assertSame(scopedServices.get(1), ambientServices.get(1));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceHandle;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NestedServiceScopeTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addScoped(DataProcessor.class);
+    }
+
+    @Test
+    void testChildScopeSeesParentScopedInstances() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope parent = serviceProvider.createScope()) {
+            LoggingService parentLogger = parent.getServiceProvider().getService(LoggingService.class);
+
+            try (ServiceScope child = parent.getServiceProvider().createScope()) {
+                assertSame(parentLogger, child.getServiceProvider().getService(LoggingService.class));
+                assertSame(parentLogger, child.getServiceProvider().getService(DataProcessor.class).getLoggingService());
+            }
+        }
+    }
+
+    @Test
+    void testChildCreatesNonOverriddenServicesInParent() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope parent = serviceProvider.createScope()) {
+            DataProcessor childProcessor;
+
+            try (ServiceScope child = parent.getServiceProvider().createScope()) {
+                childProcessor = child.getServiceProvider().getService(DataProcessor.class);
+            }
+
+            assertSame(childProcessor, parent.getServiceProvider().getService(DataProcessor.class));
+            assertSame(childProcessor.getLoggingService(), parent.getServiceProvider().getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testChildLocalInstancesAreReleasedWithChild() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope parent = serviceProvider.createScope()) {
+            ServiceScope first = parent.getServiceProvider().createScope().override(LoggingService.class, new RecordingLoggingService());
+            DataProcessor firstProcessor = first.getServiceProvider().getService(DataProcessor.class);
+            assertSame(firstProcessor, first.getServiceProvider().getService(DataProcessor.class));
+            first.close();
+
+            try (ServiceScope second = parent.getServiceProvider().createScope()) {
+                DataProcessor secondProcessor = second.getServiceProvider().getService(DataProcessor.class);
+
+                assertNotSame(firstProcessor, secondProcessor);
+                assertSame(secondProcessor, parent.getServiceProvider().getService(DataProcessor.class));
+            }
+
+            assertThrows(IllegalStateException.class, () -> first.getServiceProvider().getService(DataProcessor.class));
+        }
+    }
+
+    @Test
+    void testOverrideAppliesToChildDependencies() {
+        RecordingLoggingService itemLogger = new RecordingLoggingService();
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope parent = serviceProvider.createScope()) {
+            LoggingService parentLogger = parent.getServiceProvider().getService(LoggingService.class);
+
+            try (ServiceScope child = parent.getServiceProvider().createScope().override(LoggingService.class, itemLogger);
+                 ServiceScope grandchild = child.getServiceProvider().createScope()) {
+                assertSame(itemLogger, child.getServiceProvider().getService(LoggingService.class));
+                assertSame(itemLogger, grandchild.getServiceProvider().getService(DataProcessor.class).getLoggingService());
+            }
+
+            assertSame(parentLogger, parent.getServiceProvider().getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testHandleResolvesOverrideInChildScope() {
+        RecordingLoggingService itemLogger = new RecordingLoggingService();
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope parent = serviceProvider.createScope();
+             ServiceScope child = parent.getServiceProvider().createScope().override(LoggingService.class, itemLogger)) {
+            ServiceHandle<LoggingService> handle = serviceProvider.handle(LoggingService.class);
+
+            assertSame(itemLogger, handle.get(child));
+            assertNotSame(itemLogger, handle.get(parent));
+        }
+    }
+
+    @Test
+    void testClosedParentClosesChild() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ServiceScope parent = serviceProvider.createScope();
+            ServiceScope child = parent.getServiceProvider().createScope();
+            parent.close();
+
+            assertThrows(IllegalStateException.class, () -> child.getServiceProvider().getService(DataService.class));
+            assertThrows(IllegalStateException.class, () -> child.getServiceProvider().createScope());
+        }
+    }
+}
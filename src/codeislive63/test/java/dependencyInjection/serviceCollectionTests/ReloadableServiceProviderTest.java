@@ -0,0 +1,154 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ReloadableServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadableServiceProviderTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addSingleton(DataConsumer.class);
+    }
+
+    @Test
+    void testReplaceKeepsUnaffectedSingletons() {
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            LoggingService loggingService = serviceProvider.getService(LoggingService.class);
+            DataConsumer consumer = serviceProvider.getService(DataConsumer.class);
+            assertInstanceOf(DataServiceImplementation.class, consumer.getDataService());
+
+            serviceProvider.replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON));
+
+            assertInstanceOf(AlternativeDataService.class, serviceProvider.getService(DataService.class));
+            assertSame(loggingService, serviceProvider.getService(LoggingService.class));
+
+            DataConsumer rebuilt = serviceProvider.getService(DataConsumer.class);
+            assertNotSame(consumer, rebuilt);
+            assertSame(serviceProvider.getService(DataService.class), rebuilt.getDataService());
+        }
+    }
+
+    @Test
+    void testDependenciesThroughTransientServicesAreTracked() {
+        serviceCollection.addTransient(ConstructorInjectedProcessor.class);
+        serviceCollection.addSingleton(TestService.class, provider -> {
+            ConstructorInjectedProcessor processor = provider.getService(ConstructorInjectedProcessor.class);
+            return processor::process;
+        });
+
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            TestService testService = serviceProvider.getService(TestService.class);
+            DataConsumer consumer = serviceProvider.getService(DataConsumer.class);
+
+            serviceProvider.replace(new ServiceDescriptor(LoggingService.class, RecordingLoggingService.class, ServiceLifetime.SINGLETON));
+
+            assertNotSame(testService, serviceProvider.getService(TestService.class));
+            assertSame(consumer, serviceProvider.getService(DataConsumer.class));
+        }
+    }
+
+    @Test
+    void testAddPublishesAdditionalRegistration() {
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            DataService dataService = serviceProvider.getService(DataService.class);
+
+            serviceProvider.add(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.TRANSIENT));
+
+            int count = 0;
+
+            for (DataService ignored : serviceProvider.getServices(DataService.class)) {
+                count++;
+            }
+
+            assertEquals(2, count);
+            assertSame(dataService, serviceProvider.getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testResolutionInProgressUsesPreviousRegistrations() {
+        ServiceCollection collection = new ServiceCollectionBase();
+        collection.addSingleton(DataService.class, DataServiceImplementation.class);
+        ReloadableServiceProvider[] holder = new ReloadableServiceProvider[1];
+        collection.addTransient(DataConsumer.class, provider -> {
+            holder[0].replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON));
+            return new DataConsumer(provider.getService(DataService.class));
+        });
+
+        try (ReloadableServiceProvider serviceProvider = collection.buildReloadableServiceProvider()) {
+            holder[0] = serviceProvider;
+
+            DataConsumer consumer = serviceProvider.getService(DataConsumer.class);
+
+            assertInstanceOf(DataServiceImplementation.class, consumer.getDataService());
+            assertInstanceOf(AlternativeDataService.class, serviceProvider.getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testReplaceRequiresReloadableProvider() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ReloadableServiceProvider reloadable = assertInstanceOf(ReloadableServiceProvider.class, serviceProvider);
+
+            assertThrows(IllegalStateException.class, () -> reloadable.replace(
+                    new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON)));
+        }
+    }
+
+    @Test
+    void testSingletonCreatedByStaleResolutionIsNotCached() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        serviceCollection.addTransient(CalculatorService.class, provider -> {
+            entered.countDown();
+
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            provider.getService(DataConsumer.class);
+            return new CalculatorServiceImplementation();
+        });
+
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread handler = new Thread(() -> {
+                try {
+                    serviceProvider.getService(CalculatorService.class);
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            handler.start();
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            serviceProvider.replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON));
+            released.countDown();
+            handler.join();
+
+            assertNull(failure.get());
+            assertInstanceOf(AlternativeDataService.class, serviceProvider.getService(DataService.class));
+            assertSame(serviceProvider.getService(DataService.class), serviceProvider.getService(DataConsumer.class).getDataService());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.AmbientServiceScope;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionArgumentTemplateTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addTransient(DataProcessor.class);
+    }
+
+    @Test
+    void testSingletonArgumentsAreReusedAndTransientArgumentsAreResolvedAgain() {
+        AtomicInteger dataServiceCount = new AtomicInteger();
+        serviceCollection.addSingleton(DataService.class, provider -> {
+            dataServiceCount.incrementAndGet();
+            return new DataServiceImplementation();
+        });
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataProcessor first = serviceProvider.getService(DataProcessor.class);
+            DataProcessor second = serviceProvider.getService(DataProcessor.class);
+            DataProcessor third = serviceProvider.getService(DataProcessor.class);
+
+            assertNotSame(first, second);
+            assertSame(first.getDataService(), second.getDataService());
+            assertSame(second.getDataService(), third.getDataService());
+            assertSame(serviceProvider.getService(DataService.class), third.getDataService());
+            assertNotSame(first.getLoggingService(), second.getLoggingService());
+            assertNotSame(second.getLoggingService(), third.getLoggingService());
+            assertEquals(1, dataServiceCount.get());
+        }
+    }
+
+    @Test
+    void testSingletonFactoryResultIsReused() {
+        DataService dataService = new DataServiceImplementation();
+        LoggingService loggingService = new RecordingLoggingService();
+        serviceCollection.addSingleton(DataService.class, provider -> dataService);
+        serviceCollection.addSingleton(LoggingService.class, provider -> loggingService);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            for (int i = 0; i < 3; i++) {
+                DataProcessor processor = serviceProvider.getService(DataProcessor.class);
+
+                assertSame(dataService, processor.getDataService());
+                assertSame(loggingService, processor.getLoggingService());
+            }
+        }
+    }
+
+    @Test
+    void testScopedArgumentsAreNotReusedAcrossScopes() throws Exception {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope firstScope = serviceProvider.createScope();
+             ServiceScope secondScope = serviceProvider.createScope()) {
+            DataProcessor first = AmbientServiceScope.call(firstScope, () -> serviceProvider.getService(DataProcessor.class));
+            DataProcessor second = AmbientServiceScope.call(secondScope, () -> serviceProvider.getService(DataProcessor.class));
+
+            assertSame(firstScope.getServiceProvider().getService(LoggingService.class), first.getLoggingService());
+            assertSame(secondScope.getServiceProvider().getService(LoggingService.class), second.getLoggingService());
+            assertSame(first.getDataService(), second.getDataService());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServiceCachePolicy;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionCachedLifetimeTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testInstanceIsReusedWithinTimeToLive() {
+        serviceCollection.addCached(DataService.class, DataServiceImplementation.class, new ServiceCachePolicy<>(60_000));
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            DataService dataService = serviceProvider.getService(DataService.class);
+
+            assertSame(dataService, serviceProvider.getService(DataService.class));
+            assertSame(dataService, scope.getServiceProvider().getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testExpiredInstanceIsRebuiltAndClosed() throws InterruptedException {
+        serviceCollection.addCached(CloseableLookupTable.class, new ServiceCachePolicy<>(30, false, true));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CloseableLookupTable first = serviceProvider.getService(CloseableLookupTable.class);
+            Thread.sleep(60);
+            CloseableLookupTable second = serviceProvider.getService(CloseableLookupTable.class);
+
+            assertNotSame(first, second);
+            assertTrue(first.isClosed());
+            assertFalse(second.isClosed());
+        }
+    }
+
+    @Test
+    void testEvictedInstanceIsNotClosedByDefault() throws InterruptedException {
+        serviceCollection.addCached(CloseableLookupTable.class, new ServiceCachePolicy<>(30));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CloseableLookupTable first = serviceProvider.getService(CloseableLookupTable.class);
+            Thread.sleep(60);
+
+            assertNotSame(first, serviceProvider.getService(CloseableLookupTable.class));
+            assertFalse(first.isClosed());
+        }
+    }
+
+    @Test
+    void testClosingProviderClosesCachedInstance() {
+        serviceCollection.addCached(CloseableLookupTable.class, new ServiceCachePolicy<>(0, true, true));
+
+        ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+        CloseableLookupTable table = serviceProvider.getService(CloseableLookupTable.class);
+        assertSame(table, serviceProvider.getService(CloseableLookupTable.class));
+
+        serviceProvider.close();
+        assertTrue(table.isClosed());
+    }
+
+    @Test
+    void testConcurrentResolvesShareSingleRebuild() throws Exception {
+        AtomicInteger createdCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        serviceCollection.addCached(DataService.class, provider -> {
+            createdCount.incrementAndGet();
+            sleep(50);
+            return new DataServiceImplementation();
+        }, new ServiceCachePolicy<>(60_000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            List<Future<DataService>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return serviceProvider.getService(DataService.class);
+                }));
+            }
+
+            start.countDown();
+            DataService expected = futures.get(0).get();
+
+            for (Future<DataService> future : futures) {
+                assertSame(expected, future.get());
+            }
+
+            assertEquals(1, createdCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNegativeTimeToLiveIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ServiceCachePolicy<>(-1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
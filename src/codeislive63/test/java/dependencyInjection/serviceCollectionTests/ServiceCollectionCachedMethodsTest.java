@@ -0,0 +1,202 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.CacheStatistics;
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.CachedService;
+import codeislive63.dependencyInjection.interfaces.ReloadableServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionCachedMethodsTest {
+
+    private ServiceCollection serviceCollection;
+    private RateServiceImplementation implementation;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        implementation = new RateServiceImplementation();
+    }
+
+    @Test
+    void testResultsAreMemoizedPerArguments() {
+        serviceCollection.addSingleton(RateService.class, provider -> implementation);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+
+            assertEquals(rateService.getRate("USD", "EUR"), rateService.getRate("USD", "EUR"));
+            rateService.getRate("USD", "RUB");
+
+            assertEquals(2, implementation.getCallCount());
+            assertEquals(2, rateService.getCallCount());
+
+            CacheStatistics statistics = ((CachedService) rateService).getCacheStatistics("getRate");
+            assertEquals(1, statistics.getHitCount());
+            assertEquals(2, statistics.getMissCount());
+            assertEquals(2, statistics.getSize());
+        }
+    }
+
+    @Test
+    void testRebuiltSingletonReusesProxyClassWithFreshCaches() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(RateService.class, provider -> {
+            provider.getService(DataService.class);
+            return new RateServiceImplementation();
+        });
+
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            RateService first = serviceProvider.getService(RateService.class);
+            first.getRate("USD", "EUR");
+
+            serviceProvider.replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON));
+            RateService second = serviceProvider.getService(RateService.class);
+
+            assertNotSame(first, second);
+            assertSame(first.getClass(), second.getClass());
+            assertEquals(1, ((CachedService) first).getCacheStatistics().getMissCount());
+            assertEquals(0, ((CachedService) second).getCacheStatistics().getMissCount());
+        }
+    }
+
+    @Test
+    void testEldestEntriesAreEvicted() {
+        serviceCollection.addSingleton(RateService.class, provider -> implementation);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+
+            rateService.getRate("USD", "EUR");
+            rateService.getRate("USD", "RUB");
+            rateService.getRate("USD", "GBP");
+            rateService.getRate("USD", "EUR");
+
+            assertEquals(4, implementation.getCallCount());
+            CacheStatistics statistics = ((CachedService) rateService).getCacheStatistics("getRate");
+            assertEquals(2, statistics.getSize());
+            assertEquals(2, statistics.getEvictionCount());
+        }
+    }
+
+    @Test
+    void testExpiredEntriesAreRecomputed() throws InterruptedException {
+        serviceCollection.addSingleton(RateService.class, provider -> implementation);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+
+            long version = rateService.getVersion();
+            assertEquals(version, rateService.getVersion());
+
+            Thread.sleep(100);
+
+            assertNotEquals(version, rateService.getVersion());
+        }
+    }
+
+    @Test
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        implementation.block();
+        serviceCollection.addSingleton(RateService.class, provider -> implementation);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+            Future<?>[] futures = new Future<?>[8];
+
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> rateService.getRate("USD", "EUR"));
+            }
+
+            while (((CachedService) rateService).getCacheStatistics().getHitCount() < futures.length - 1) {
+                Thread.onSpinWait();
+            }
+
+            implementation.unblock();
+
+            for (Future<?> future : futures) {
+                assertEquals(rateService.getRate("USD", "EUR"), (Double) future.get(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, implementation.getCallCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExceptionsAreNotCached() {
+        serviceCollection.addSingleton(RateService.class, provider -> implementation);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+
+            assertThrows(IllegalArgumentException.class, () -> rateService.getRate("USD", "USD"));
+            assertThrows(IllegalArgumentException.class, () -> rateService.getRate("USD", "USD"));
+
+            assertEquals(2, implementation.getCallCount());
+            assertEquals(0, ((CachedService) rateService).getCacheStatistics().getSize());
+        }
+    }
+
+    @Test
+    void testTransientServicesAreNotCached() {
+        serviceCollection.addTransient(RateService.class, provider -> implementation);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RateService rateService = serviceProvider.getService(RateService.class);
+
+            assertSame(implementation, rateService);
+        }
+    }
+
+    @Test
+    void testCachedVoidMethodIsRejected() {
+        serviceCollection.addSingleton(VoidCachedService.class, provider -> () -> {
+        });
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+    }
+
+    @Test
+    void testMutatingArrayArgumentDoesNotAlterCachedKey() {
+        AtomicInteger calls = new AtomicInteger();
+        serviceCollection.addSingleton(ArraySumService.class, provider -> values -> {
+            calls.incrementAndGet();
+            int sum = 0;
+
+            for (int value : values) {
+                sum += value;
+            }
+
+            return sum;
+        });
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ArraySumService sumService = serviceProvider.getService(ArraySumService.class);
+            int[] values = {1, 2};
+
+            assertEquals(3, sumService.sum(values));
+            values[1] = 5;
+
+            assertEquals(6, sumService.sum(values));
+            assertEquals(3, sumService.sum(new int[]{1, 2}));
+            assertEquals(2, calls.get());
+        }
+    }
+}
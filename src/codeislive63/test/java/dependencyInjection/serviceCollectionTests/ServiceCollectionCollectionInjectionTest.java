@@ -0,0 +1,117 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.diagnostics.DependencyEdge;
+import codeislive63.dependencyInjection.diagnostics.DependencyGraph;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionCollectionInjectionTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(DataService.class, AlternativeDataService.class);
+    }
+
+    @Test
+    void testListParameterReceivesAllRegistrationsInOrder() {
+        serviceCollection.addTransient(DataServiceAggregator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataServiceAggregator aggregator = serviceProvider.getService(DataServiceAggregator.class);
+
+            assertEquals(2, aggregator.getDataServices().count());
+            assertEquals("Sample data, Alternative data", aggregator.getData());
+            assertSame(serviceProvider.getService(DataService.class), aggregator.getDataServices().get(0));
+        }
+    }
+
+    @Test
+    void testArrayParameterReceivesAllRegistrations() {
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addTransient(DataServiceArrayConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataServiceArrayConsumer consumer = serviceProvider.getService(DataServiceArrayConsumer.class);
+            DataServiceArrayConsumer other = serviceProvider.getService(DataServiceArrayConsumer.class);
+
+            assertEquals(2, consumer.getDataServices().length);
+            assertInstanceOf(DataServiceImplementation.class, consumer.getDataServices()[0]);
+            assertInstanceOf(AlternativeDataService.class, consumer.getDataServices()[1]);
+            assertNotSame(consumer.getDataServices(), other.getDataServices());
+            assertNotSame(consumer.getDataServices()[1], other.getDataServices()[1]);
+            assertSame(consumer.getLoggingService(), other.getLoggingService());
+        }
+    }
+
+    @Test
+    void testInjectMethodReceivesEnumerable() {
+        serviceCollection.addTransient(MethodInjectedDataServiceConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            MethodInjectedDataServiceConsumer consumer = serviceProvider.getService(MethodInjectedDataServiceConsumer.class);
+            int count = 0;
+
+            for (DataService ignored : consumer.getDataServices()) {
+                count++;
+            }
+
+            assertEquals(2, count);
+        }
+    }
+
+    @Test
+    void testCollectionIsEmptyWithoutRegistrations() {
+        ServiceCollection emptyCollection = new ServiceCollectionBase();
+        emptyCollection.addTransient(DataServiceAggregator.class);
+
+        try (ServiceProvider serviceProvider = emptyCollection.buildServiceProvider()) {
+            assertEquals(0, serviceProvider.getService(DataServiceAggregator.class).getDataServices().count());
+        }
+    }
+
+    @Test
+    void testScopedElementsComeFromCurrentScope() {
+        serviceCollection.addScoped(DataService.class, provider -> new DataServiceImplementation());
+        serviceCollection.addScoped(DataServiceAggregator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            ServiceProvider scopedProvider = scope.getServiceProvider();
+            List<DataService> dataServices = scopedProvider.getService(DataServiceAggregator.class).getDataServices();
+
+            assertEquals(3, dataServices.count());
+            assertSame(serviceProvider.getService(DataService.class), dataServices.get(0));
+            assertSame(scopedProvider.getService(DataService.class), dataServices.get(2));
+        }
+    }
+
+    @Test
+    void testDependencyGraphLinksEveryElement() {
+        serviceCollection.addTransient(DataServiceAggregator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DependencyGraph graph = serviceProvider.getDependencyGraph();
+            int edgeCount = 0;
+
+            for (DependencyEdge edge : graph.getEdges()) {
+                if (edge.getSource().getServiceType() == DataServiceAggregator.class) {
+                    edgeCount++;
+                }
+            }
+
+            assertEquals(2, edgeCount);
+        }
+    }
+}
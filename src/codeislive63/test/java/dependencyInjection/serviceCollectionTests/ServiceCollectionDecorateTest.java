@@ -0,0 +1,82 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionDecorateTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+    }
+
+    @Test
+    void testDecoratorsAreAppliedInRegistrationOrder() {
+        RecordingLoggingService recorder = new RecordingLoggingService();
+        serviceCollection.addTransient(LoggingService.class, provider -> recorder);
+        serviceCollection.decorate(LoggingService.class, PrefixLoggingDecorator.class);
+        serviceCollection.decorate(LoggingService.class, UpperCaseLoggingDecorator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            LoggingService loggingService = serviceProvider.getService(LoggingService.class);
+
+            UpperCaseLoggingDecorator outer = assertInstanceOf(UpperCaseLoggingDecorator.class, loggingService);
+            PrefixLoggingDecorator inner = assertInstanceOf(PrefixLoggingDecorator.class, outer.getInner());
+            assertSame(recorder, inner.getInner());
+
+            loggingService.log("message");
+            assertEquals("Sample data: MESSAGE", recorder.getMessages().get(0));
+        }
+    }
+
+    @Test
+    void testDecoratedSingletonIsCreatedOnce() {
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.decorate(LoggingService.class, UpperCaseLoggingDecorator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            LoggingService loggingService = serviceProvider.getService(LoggingService.class);
+
+            assertInstanceOf(UpperCaseLoggingDecorator.class, loggingService);
+            assertSame(loggingService, serviceProvider.getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testDecoratorWithoutInnerParameterIsRejected() {
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.decorate(LoggingService.class, RecordingLoggingService.class);
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+    }
+
+    @Test
+    void testDecoratorConstructorWithUnregisteredDependencyIsSkipped() {
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.decorate(LoggingService.class, OptionalCalculatorLoggingDecorator.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            OptionalCalculatorLoggingDecorator decorator = assertInstanceOf(OptionalCalculatorLoggingDecorator.class,
+                    serviceProvider.getService(LoggingService.class));
+
+            assertNull(decorator.getCalculatorService());
+        }
+    }
+
+    @Test
+    void testDecoratorWithoutSatisfiableConstructorIsRejected() {
+        serviceCollection.addSingleton(TestService.class, TestServiceImplementation.class);
+        serviceCollection.decorate(TestService.class, CalculatorDependentTestServiceDecorator.class);
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+    }
+}
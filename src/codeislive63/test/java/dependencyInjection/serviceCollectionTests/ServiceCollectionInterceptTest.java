@@ -0,0 +1,118 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionInterceptTest {
+
+    private ServiceCollection serviceCollection;
+    private List<String> events;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        events = new List<>();
+    }
+
+    @Test
+    void testInterceptorsWrapCallsInRegistrationOrder() {
+        serviceCollection.addSingleton(CalculatorService.class, CalculatorServiceImplementation.class);
+        serviceCollection.intercept(CalculatorService.class, new RecordingInterceptor("outer", events));
+        serviceCollection.intercept(CalculatorService.class, new RecordingInterceptor("inner", events));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+
+            assertFalse(calculator instanceof CalculatorServiceImplementation);
+            assertEquals(5, calculator.add(2, 3));
+            assertEquals(4, events.count());
+            assertEquals("outer:before:add", events.get(0));
+            assertEquals("inner:before:add", events.get(1));
+            assertEquals("inner:after:add", events.get(2));
+            assertEquals("outer:after:add", events.get(3));
+        }
+    }
+
+    @Test
+    void testInterceptorReceivesExceptionFromTarget() {
+        RecordingInterceptor interceptor = new RecordingInterceptor("recorder", events);
+        serviceCollection.addTransient(CalculatorService.class, CalculatorServiceImplementation.class);
+        serviceCollection.intercept(CalculatorService.class, interceptor);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+
+            assertEquals(5L, calculator.divide(10L, 2L));
+            assertNull(interceptor.getLastError());
+
+            assertThrows(ArithmeticException.class, () -> calculator.divide(1L, 0L));
+            assertInstanceOf(ArithmeticException.class, interceptor.getLastError());
+            assertEquals("recorder:after:divide", events.get(events.count() - 1));
+        }
+    }
+
+    @Test
+    void testExceptionFromBeforeCancelsCall() {
+        RecordingLoggingService recorder = new RecordingLoggingService();
+        serviceCollection.addSingleton(LoggingService.class, provider -> recorder);
+        serviceCollection.intercept(LoggingService.class, (method, target) -> {
+            throw new SecurityException("Доступ запрещён");
+        });
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            LoggingService loggingService = serviceProvider.getService(LoggingService.class);
+
+            assertThrows(SecurityException.class, () -> loggingService.log("message"));
+            assertEquals(0, recorder.getMessages().count());
+        }
+    }
+
+    @Test
+    void testInterceptorWrapsDecoratedInstance() {
+        RecordingLoggingService recorder = new RecordingLoggingService();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(LoggingService.class, provider -> recorder);
+        serviceCollection.decorate(LoggingService.class, UpperCaseLoggingDecorator.class);
+        serviceCollection.intercept(LoggingService.class, new RecordingInterceptor("recorder", events));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.getService(LoggingService.class).log("message");
+
+            assertEquals("MESSAGE", recorder.getMessages().get(0));
+            assertEquals("recorder:before:log", events.get(0));
+        }
+    }
+
+    @Test
+    void testInterceptionOfClassIsRejected() {
+        serviceCollection.addSingleton(DataServiceImplementation.class, DataServiceImplementation.class);
+        serviceCollection.intercept(DataServiceImplementation.class, new RecordingInterceptor("recorder", events));
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+    }
+
+    @Test
+    void testObjectMethodsAreForwardedToTarget() {
+        CalculatorServiceImplementation target = new CalculatorServiceImplementation();
+        serviceCollection.addSingleton(CalculatorService.class, provider -> target);
+        serviceCollection.intercept(CalculatorService.class, new RecordingInterceptor("recorder", events));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+
+            assertNotSame(target, calculator);
+            assertEquals(target.hashCode(), calculator.hashCode());
+            assertEquals(target.toString(), calculator.toString());
+            assertEquals(calculator, calculator);
+            assertTrue(calculator.equals(target));
+            assertEquals(0, events.count());
+        }
+    }
+}
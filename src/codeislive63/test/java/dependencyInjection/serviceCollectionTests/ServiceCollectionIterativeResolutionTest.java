@@ -0,0 +1,198 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionIterativeResolutionTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase().useIterativeResolution();
+    }
+
+    @Test
+    void testTransientChainSharesSingletons() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addTransient(DataProcessor.class, DataProcessor.class);
+        serviceCollection.addTransient(DataConsumer.class, DataConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataProcessor first = serviceProvider.getService(DataProcessor.class);
+            DataProcessor second = serviceProvider.getService(DataProcessor.class);
+
+            assertNotSame(first, second);
+            assertSame(first.getDataService(), second.getDataService());
+            assertSame(first.getLoggingService(), serviceProvider.getService(LoggingService.class));
+            assertSame(first.getDataService(), serviceProvider.getService(DataConsumer.class).getDataService());
+        }
+    }
+
+    @Test
+    void testSingletonDependenciesAreCreatedOnce() {
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(DataProcessor.class, DataProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataProcessor processor = serviceProvider.getService(DataProcessor.class);
+
+            assertSame(processor, serviceProvider.getService(DataProcessor.class));
+            assertSame(processor.getLoggingService(), serviceProvider.getService(LoggingService.class));
+            assertSame(processor.getDataService(), serviceProvider.getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testScopedChainIsCreatedInScope() {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addScoped(DataProcessor.class, DataProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope first = serviceProvider.createScope();
+             ServiceScope second = serviceProvider.createScope()) {
+            DataProcessor processor = first.getServiceProvider().getService(DataProcessor.class);
+
+            assertSame(processor, first.getServiceProvider().getService(DataProcessor.class));
+            assertSame(processor.getDataService(), first.getServiceProvider().getService(DataService.class));
+            assertNotSame(processor.getDataService(), second.getServiceProvider().getService(DataService.class));
+            assertSame(processor.getLoggingService(), serviceProvider.getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testCyclicDependencyErrorContainsPath() {
+        serviceCollection.addTransient(CyclicServiceA.class, CyclicServiceA.class);
+        serviceCollection.addTransient(CyclicServiceB.class, CyclicServiceB.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> serviceProvider.getService(CyclicServiceA.class));
+
+            assertEquals("Обнаружена циклическая зависимость: " + CyclicServiceA.class.getName() + " -> "
+                    + CyclicServiceB.class.getName() + " -> " + CyclicServiceA.class.getName(), exception.getMessage());
+        }
+    }
+
+    @Test
+    void testMissingDependencyErrorContainsPath() {
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addTransient(DataProcessor.class, DataProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> serviceProvider.getService(DataProcessor.class));
+
+            assertTrue(exception.getMessage().endsWith(DataProcessor.class.getName() + " -> " + DataService.class.getName()));
+        }
+    }
+
+    @Test
+    void testFailedSingletonIsNotCachedAndErrorContainsPath() {
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addSingleton(DataService.class, FailingDataService.class);
+        serviceCollection.addTransient(DataConsumer.class, DataConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> serviceProvider.getService(DataConsumer.class));
+
+            assertTrue(exception.getMessage().contains(DataConsumer.class.getName()));
+            assertTrue(exception.getMessage().endsWith(DataService.class.getName()));
+            assertThrows(RuntimeException.class, () -> serviceProvider.getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testResolutionOnVirtualThread() throws InterruptedException {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addTransient(DataProcessor.class, DataProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            AtomicReference<DataProcessor> resolved = new AtomicReference<>();
+            Thread.ofVirtual().start(() -> resolved.set(serviceProvider.getService(DataProcessor.class))).join();
+
+            assertNotNull(resolved.get());
+            assertSame(serviceProvider.getService(DataService.class), resolved.get().getDataService());
+        }
+    }
+
+    @Test
+    void testDeepChainResolvesOnSmallStack() throws Exception {
+        int depth = 3000;
+        Class<?>[] chain = compileChain(depth);
+
+        for (Class<?> link : chain) {
+            serviceCollection.addTransient(link);
+        }
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            AtomicReference<Object> resolved = new AtomicReference<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            Thread thread = new Thread(null, () -> {
+                try {
+                    resolved.set(serviceProvider.getService(chain[0]));
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }, "iterative-resolution", 256 * 1024);
+            thread.start();
+            thread.join();
+
+            assertNull(failure.get());
+            assertInstanceOf(chain[0], resolved.get());
+        }
+    }
+
+    /**
+     * Компилирует цепочку классов {@code Link0 -> Link1 -> ... -> LinkN}, в которой каждый
+     * класс принимает следующий через конструктор.
+     */
+    private static Class<?>[] compileChain(int depth) throws IOException, ClassNotFoundException {
+        Path directory = Files.createTempDirectory("iterative-resolution");
+        StringBuilder source = new StringBuilder("public class Chain {\n");
+
+        for (int i = 0; i < depth; i++) {
+            source.append("    public static class Link").append(i).append(" {\n");
+
+            if (i + 1 < depth) {
+                source.append("        public Link").append(i).append("(Link").append(i + 1).append(" next) {}\n");
+            }
+
+            source.append("    }\n");
+        }
+
+        Path file = Files.writeString(directory.resolve("Chain.java"), source.append("}\n"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-d", directory.toString(), file.toString()));
+
+        ClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, ServiceCollectionIterativeResolutionTest.class.getClassLoader());
+        Class<?>[] chain = new Class<?>[depth];
+
+        for (int i = 0; i < depth; i++) {
+            chain[i] = loader.loadClass("Chain$Link" + i);
+        }
+
+        return chain;
+    }
+}
@@ -0,0 +1,63 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionLargeRegistryTest {
+
+    private static final int REGISTRATION_COUNT = 20_000;
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testRegistrationOrderIsPreservedInLargeCollections() {
+        for (int i = 0; i < REGISTRATION_COUNT; i++) {
+            String data = "data-" + i;
+            serviceCollection.addTransient(DataService.class, provider -> () -> data);
+            serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+        }
+
+        serviceCollection.addSingleton(ConstructorInjectedProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertEquals("data-0", serviceProvider.getService(DataService.class).getData());
+            assertNotNull(serviceProvider.getService(ConstructorInjectedProcessor.class));
+
+            int index = 0;
+
+            for (DataService dataService : serviceProvider.getServices(DataService.class)) {
+                assertEquals("data-" + index++, dataService.getData());
+            }
+
+            assertEquals(REGISTRATION_COUNT, index);
+        }
+    }
+
+    @Test
+    void testFirstRegisteredFailureIsReported() {
+        serviceCollection.addTransient(DataService.class, DataServiceImplementation.class);
+
+        for (int i = 0; i < REGISTRATION_COUNT; i++) {
+            serviceCollection.addTransient(TestService.class, provider -> () -> {
+            });
+        }
+
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.decorate(DataService.class, DataServiceImplementation.class);
+        serviceCollection.decorate(LoggingService.class, RecordingLoggingService.class);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+        assertTrue(exception.getMessage().contains(DataService.class.getName()));
+    }
+}
@@ -0,0 +1,133 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceProviderTemplate;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionModuleTest {
+
+    private ServiceCollection serviceCollection;
+    private RecordingServiceModule dataModule;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        dataModule = new RecordingServiceModule(services -> {
+            services.addSingleton(DataService.class, DataServiceImplementation.class);
+            services.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+            services.addTransient(DataProcessor.class, DataProcessor.class);
+        }, DataService.class, LoggingService.class, DataProcessor.class);
+    }
+
+    @Test
+    void testModuleIsConfiguredOnFirstRequest() {
+        serviceCollection.addModule(dataModule);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertEquals(0, dataModule.getConfigureCount());
+
+            DataService dataService = serviceProvider.getService(DataService.class);
+            DataProcessor processor = serviceProvider.getService(DataProcessor.class);
+
+            assertNotNull(dataService);
+            assertSame(dataService, processor.getDataService());
+            assertNotNull(processor.getLoggingService());
+            assertEquals(1, dataModule.getConfigureCount());
+        }
+    }
+
+    @Test
+    void testUnrequestedModuleIsNotConfigured() {
+        serviceCollection.addSingleton(CalculatorService.class, CalculatorServiceImplementation.class);
+        serviceCollection.addModule(dataModule);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertNotNull(serviceProvider.getService(CalculatorService.class));
+            assertNull(serviceProvider.getService(RateService.class));
+            assertNotNull(serviceProvider.getDependencyGraph());
+            assertEquals(0, dataModule.getConfigureCount());
+        }
+    }
+
+    @Test
+    void testRegisteredServiceDependsOnModuleType() {
+        serviceCollection.addTransient(DataConsumer.class, DataConsumer.class);
+        serviceCollection.addModule(dataModule);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            DataConsumer consumer = serviceProvider.getService(DataConsumer.class);
+
+            assertNotNull(consumer.getDataService());
+            assertEquals(1, dataModule.getConfigureCount());
+        }
+    }
+
+    @Test
+    void testModuleIsLoadedFromScope() {
+        serviceCollection.addModule(dataModule);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            DataProcessor processor = scope.getServiceProvider().getService(DataProcessor.class);
+
+            assertSame(serviceProvider.getService(DataService.class), processor.getDataService());
+            assertEquals(1, dataModule.getConfigureCount());
+        }
+    }
+
+    @Test
+    void testTemplateProvidersShareLoadedModule() {
+        serviceCollection.addModule(dataModule);
+        ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+
+        try (ServiceProvider first = template.newProvider(); ServiceProvider second = template.newProvider()) {
+            assertNotNull(first.getService(DataService.class));
+            assertNotNull(second.getService(DataService.class));
+            assertNotSame(first.getService(DataService.class), second.getService(DataService.class));
+            assertEquals(1, dataModule.getConfigureCount());
+        }
+    }
+
+    @Test
+    void testModuleMustRegisterDeclaredTypes() {
+        serviceCollection.addModule(new RecordingServiceModule(services -> {
+        }, CalculatorService.class));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertThrows(IllegalStateException.class, () -> serviceProvider.getService(CalculatorService.class));
+        }
+    }
+
+    @Test
+    void testModuleMustNotRegisterUndeclaredTypes() {
+        serviceCollection.addSingleton(LoggingService.class, LoggingServiceImplementation.class);
+        serviceCollection.addModule(new RecordingServiceModule(services -> {
+            services.addSingleton(CalculatorService.class, CalculatorServiceImplementation.class);
+            services.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        }, CalculatorService.class));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> serviceProvider.getService(CalculatorService.class));
+
+            assertTrue(exception.getMessage().contains(LoggingService.class.getName()));
+            assertInstanceOf(LoggingServiceImplementation.class, serviceProvider.getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testTypeDeclaredByTwoModulesIsRejected() {
+        serviceCollection.addModule(dataModule);
+        serviceCollection.addModule(new RecordingServiceModule(services -> {
+        }, DataService.class));
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.buildServiceProvider());
+    }
+}
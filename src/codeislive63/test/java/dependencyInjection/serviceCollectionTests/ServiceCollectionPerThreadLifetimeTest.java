@@ -0,0 +1,155 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServiceCachePolicy;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.CloseableLookupTable;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.TestService;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.TestServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionPerThreadLifetimeTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testSameThreadGetsSameInstance() throws InterruptedException {
+        serviceCollection.addPerThread(TestService.class, TestServiceImplementation.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service1 = serviceProvider.getService(TestService.class);
+            assertSame(service1, serviceProvider.getService(TestService.class));
+
+            AtomicReference<TestService> otherThreadService = new AtomicReference<>();
+            CountDownLatch release = new CountDownLatch(1);
+            Thread thread = new Thread(() -> {
+                otherThreadService.set(serviceProvider.getService(TestService.class));
+                awaitQuietly(release);
+            });
+
+            thread.start();
+
+            while (otherThreadService.get() == null) {
+                Thread.onSpinWait();
+            }
+
+            assertNotSame(service1, otherThreadService.get());
+            release.countDown();
+            thread.join();
+        }
+    }
+
+    @Test
+    void testTerminatedVirtualThreadsShareInstances() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        serviceCollection.addPerThread(TestService.class, provider -> {
+            created.incrementAndGet();
+            return new TestServiceImplementation();
+        });
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            Set<TestService> instances = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+            for (int i = 0; i < 1_000; i++) {
+                Thread.ofVirtual().start(() -> instances.add(serviceProvider.getService(TestService.class))).join();
+            }
+
+            assertTrue(created.get() < 1_000, "Экземпляры завершившихся потоков должны переиспользоваться");
+            assertEquals(created.get(), instances.size());
+        }
+    }
+
+    @Test
+    void testCloseClosesCachedInstances() {
+        AtomicInteger closed = new AtomicInteger();
+        serviceCollection.addPerThread(AutoCloseable.class, provider -> closed::incrementAndGet);
+
+        ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+        serviceProvider.getService(AutoCloseable.class);
+        serviceProvider.close();
+
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void testCloseFailureDoesNotSkipRemainingCleanup() {
+        serviceCollection.addPerThread(AutoCloseable.class, provider -> () -> {
+            throw new IllegalStateException("close failed");
+        });
+        serviceCollection.addCached(CloseableLookupTable.class, new ServiceCachePolicy<>(0, true, true));
+
+        ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+        serviceProvider.getService(AutoCloseable.class);
+        CloseableLookupTable table = serviceProvider.getService(CloseableLookupTable.class);
+
+        assertThrows(IllegalStateException.class, serviceProvider::close);
+        assertTrue(table.isClosed());
+    }
+
+    @Test
+    void testLiveThreadsBeyondSlotCountKeepTheirInstances() throws InterruptedException {
+        int threadCount = Runtime.getRuntime().availableProcessors() * 8 + 64;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        serviceCollection.addPerThread(AutoCloseable.class, provider -> {
+            created.incrementAndGet();
+            return closed::incrementAndGet;
+        });
+
+        ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+        AtomicInteger mismatches = new AtomicInteger();
+        CountDownLatch resolved = new CountDownLatch(threadCount);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                AutoCloseable first = serviceProvider.getService(AutoCloseable.class);
+                resolved.countDown();
+                awaitQuietly(release);
+
+                if (first != serviceProvider.getService(AutoCloseable.class)) {
+                    mismatches.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        resolved.await();
+        release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, mismatches.get());
+        assertEquals(threadCount, created.get());
+
+        serviceProvider.close();
+        assertEquals(threadCount, closed.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServicePoolPolicy;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.TestService;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.TestServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionPooledLifetimeTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testPooledInstanceIsReusedAfterRelease() {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(2));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service1 = serviceProvider.getService(TestService.class);
+            TestService service2 = serviceProvider.getService(TestService.class);
+            assertNotSame(service1, service2);
+
+            serviceProvider.release(TestService.class, service1);
+            assertSame(service1, serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testPooledInstanceIsReturnedWhenScopeCloses() {
+        serviceCollection.addPooled(TestService.class, provider -> new TestServiceImplementation(), new ServicePoolPolicy<>(1));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service1;
+
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                service1 = scope.getServiceProvider().getService(TestService.class);
+                assertNotSame(service1, scope.getServiceProvider().getService(TestService.class));
+            }
+
+            assertSame(service1, serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testResetHookRejectsInstance() {
+        AtomicInteger resets = new AtomicInteger();
+        serviceCollection.addPooled(TestServiceImplementation.class, new ServicePoolPolicy<>(4, service -> resets.incrementAndGet() > 1));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestServiceImplementation service1 = serviceProvider.getService(TestServiceImplementation.class);
+            serviceProvider.release(TestServiceImplementation.class, service1);
+            assertNotSame(service1, serviceProvider.getService(TestServiceImplementation.class));
+
+            TestServiceImplementation service2 = serviceProvider.getService(TestServiceImplementation.class);
+            serviceProvider.release(TestServiceImplementation.class, service2);
+            assertSame(service2, serviceProvider.getService(TestServiceImplementation.class));
+            assertEquals(2, resets.get());
+        }
+    }
+
+    @Test
+    void testPoolIsBounded() {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(1));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service1 = serviceProvider.getService(TestService.class);
+            TestService service2 = serviceProvider.getService(TestService.class);
+
+            serviceProvider.release(TestService.class, service1);
+            serviceProvider.release(TestService.class, service2);
+
+            assertSame(service1, serviceProvider.getService(TestService.class));
+            TestService service3 = serviceProvider.getService(TestService.class);
+            assertNotSame(service1, service3);
+            assertNotSame(service2, service3);
+        }
+    }
+
+    @Test
+    void testRepeatedReleaseDoesNotDuplicateInstance() {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(2));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service = serviceProvider.getService(TestService.class);
+
+            serviceProvider.release(TestService.class, service);
+            serviceProvider.release(TestService.class, service);
+
+            assertNotSame(serviceProvider.getService(TestService.class), serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testScopeReturnsOnlyInstancesItStillRents() {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(2));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service;
+
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                service = scope.getServiceProvider().getService(TestService.class);
+                scope.getServiceProvider().release(TestService.class, service);
+                scope.getServiceProvider().release(TestService.class, service);
+                serviceProvider.release(TestService.class, service);
+            }
+
+            assertNotSame(serviceProvider.getService(TestService.class), serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testRootReleaseOfScopeRentalIsIgnored() {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(2));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            TestService service;
+
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                service = scope.getServiceProvider().getService(TestService.class);
+                serviceProvider.release(TestService.class, service);
+                assertNotSame(service, serviceProvider.getService(TestService.class));
+            }
+
+            assertSame(service, serviceProvider.getService(TestService.class));
+            assertNotSame(service, serviceProvider.getService(TestService.class));
+        }
+    }
+
+    @Test
+    void testUnreleasedRootRentalIsNotRetained() throws InterruptedException {
+        serviceCollection.addPooled(TestService.class, TestServiceImplementation.class, new ServicePoolPolicy<>(2));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            WeakReference<TestService> rental = new WeakReference<>(serviceProvider.getService(TestService.class));
+
+            for (int i = 0; i < 50 && rental.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertNull(rental.get());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionScopedDependenciesTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testScopedDependencyIsCreatedOncePerScope() {
+        AtomicInteger dataServiceCount = new AtomicInteger();
+        serviceCollection.addScoped(DataService.class, provider -> {
+            dataServiceCount.incrementAndGet();
+            return new DataServiceImplementation();
+        });
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addScoped(DataProcessor.class);
+        serviceCollection.addScoped(DataConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                ServiceProvider scopedProvider = scope.getServiceProvider();
+                DataProcessor processor = scopedProvider.getService(DataProcessor.class);
+                DataConsumer consumer = scopedProvider.getService(DataConsumer.class);
+
+                assertSame(scopedProvider.getService(DataService.class), processor.getDataService());
+                assertSame(processor.getDataService(), consumer.getDataService());
+                assertSame(scopedProvider.getService(LoggingService.class), processor.getLoggingService());
+            }
+
+            try (ServiceScope scope = serviceProvider.createScope()) {
+                scope.getServiceProvider().getService(DataProcessor.class);
+            }
+
+            assertEquals(2, dataServiceCount.get());
+        }
+    }
+
+    @Test
+    void testTransientAndFactoryReceiveScopedInstances() {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addTransient(DataProcessor.class);
+        serviceCollection.addTransient(DataConsumer.class, provider -> new DataConsumer(provider.getService(DataService.class)));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            ServiceProvider scopedProvider = scope.getServiceProvider();
+            DataProcessor first = scopedProvider.getService(DataProcessor.class);
+            DataProcessor second = scopedProvider.getService(DataProcessor.class);
+            DataConsumer consumer = scopedProvider.getService(DataConsumer.class);
+
+            assertNotSame(first, second);
+            assertSame(first.getDataService(), second.getDataService());
+            assertSame(first.getDataService(), consumer.getDataService());
+        }
+    }
+
+    @Test
+    void testSingletonCapturingScopedServiceIsRejected() {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addSingleton(DataProcessor.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> scope.getServiceProvider().getService(DataProcessor.class));
+
+            assertTrue(hasIllegalStateCause(exception));
+        }
+    }
+
+    @Test
+    void testSingletonFactoryCapturingScopedServiceIsRejected() {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(DataConsumer.class);
+        serviceCollection.addSingleton(LoggingService.class, provider -> {
+            provider.getService(DataConsumer.class);
+            return new RecordingLoggingService();
+        });
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> serviceProvider.getService(LoggingService.class));
+
+            assertTrue(hasIllegalStateCause(exception));
+        }
+    }
+
+    @Test
+    void testScopedCycleIsReported() {
+        serviceCollection.addScoped(DataService.class, provider -> provider.getService(DataService.class));
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> scope.getServiceProvider().getService(DataService.class));
+
+            assertTrue(hasIllegalStateCause(exception));
+        }
+    }
+
+    private static boolean hasIllegalStateCause(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalStateException && cause.getMessage().contains("scoped")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceProviderTemplate;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCollectionWarmUpTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        WarmableDataService.gate = new CountDownLatch(0);
+    }
+
+    @Test
+    void testProviderIsReadyWithoutWarmableServices() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertTrue(serviceProvider.whenReady().isDone());
+        }
+    }
+
+    @Test
+    void testReadinessWaitsForWarmableSingletons() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        WarmableDataService.gate = gate;
+        serviceCollection.addSingleton(DataService.class, WarmableDataService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertFalse(serviceProvider.whenReady().isDone());
+
+            gate.countDown();
+            serviceProvider.whenReady().get(5, TimeUnit.SECONDS);
+
+            WarmableDataService service = (WarmableDataService) serviceProvider.getService(DataService.class);
+            assertTrue(service.isWarmedUp());
+        }
+    }
+
+    @Test
+    void testWarmUpMethodsRunOnceOnSingletonInstance() throws Exception {
+        serviceCollection.addSingleton(LoggingService.class, PreloadingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.whenReady().get(5, TimeUnit.SECONDS);
+
+            PreloadingLoggingService service = (PreloadingLoggingService) serviceProvider.getService(LoggingService.class);
+            assertEquals(1, service.getPreloadCount());
+        }
+    }
+
+    @Test
+    void testNonSingletonServicesAreNotWarmedUp() {
+        serviceCollection.addTransient(LoggingService.class, PreloadingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertTrue(serviceProvider.whenReady().isDone());
+
+            PreloadingLoggingService service = (PreloadingLoggingService) serviceProvider.getService(LoggingService.class);
+            assertEquals(0, service.getPreloadCount());
+        }
+    }
+
+    @Test
+    void testFailedWarmUpCompletesReadinessExceptionally() {
+        serviceCollection.addSingleton(LoggingService.class, FailingWarmUpLoggingService.class);
+        serviceCollection.addSingleton(DataService.class, WarmableDataService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> serviceProvider.whenReady().get(5, TimeUnit.SECONDS));
+
+            Throwable cause = exception.getCause();
+            assertInstanceOf(IllegalStateException.class, cause);
+            assertEquals("Warm-up failed", cause.getMessage());
+        }
+    }
+
+    @Test
+    void testTemplateProvidersWarmUpOwnSingletons() throws Exception {
+        serviceCollection.addSingleton(LoggingService.class, PreloadingLoggingService.class);
+        serviceCollection.setWarmUpParallelism(1);
+        ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+
+        try (ServiceProvider first = template.newProvider(); ServiceProvider second = template.newProvider()) {
+            first.whenReady().get(5, TimeUnit.SECONDS);
+            second.whenReady().get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, ((PreloadingLoggingService) first.getService(LoggingService.class)).getPreloadCount());
+            assertEquals(1, ((PreloadingLoggingService) second.getService(LoggingService.class)).getPreloadCount());
+        }
+    }
+
+    @Test
+    void testWarmableSingletonsAreWarmedUpConcurrently() throws Exception {
+        int count = 3;
+        RendezvousWarmable.arrivals = new CountDownLatch(count);
+        serviceCollection.setWarmUpParallelism(count);
+
+        for (int i = 0; i < count; i++) {
+            serviceCollection.addSingleton(RendezvousWarmable.class, RendezvousWarmable.class);
+        }
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            serviceProvider.whenReady().get(10, TimeUnit.SECONDS);
+
+            assertEquals(0, RendezvousWarmable.arrivals.getCount());
+        }
+    }
+
+    @Test
+    void testInvalidWarmUpParallelismIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> serviceCollection.setWarmUpParallelism(0));
+    }
+}
@@ -0,0 +1,93 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ReloadableServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceHandle;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceHandleTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testHandleResolvesLikeProvider() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addTransient(LoggingService.class, RecordingLoggingService.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ServiceHandle<DataService> dataService = serviceProvider.handle(DataService.class);
+            ServiceHandle<LoggingService> loggingService = serviceProvider.handle(LoggingService.class);
+            ServiceHandle<TestService> testService = serviceProvider.handle(TestService.class);
+
+            assertEquals(DataService.class, dataService.getServiceType());
+            assertSame(serviceProvider.getService(DataService.class), dataService.get());
+            assertSame(dataService.get(), dataService.get());
+            assertNotSame(loggingService.get(), loggingService.get());
+            assertNull(testService.get());
+        }
+    }
+
+    @Test
+    void testHandleResolvesScopedServiceInScope() {
+        serviceCollection.addScoped(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addTransient(DataConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            ServiceHandle<DataService> dataService = serviceProvider.handle(DataService.class);
+            ServiceHandle<LoggingService> loggingService = serviceProvider.handle(LoggingService.class);
+            ServiceHandle<DataConsumer> dataConsumer = serviceProvider.handle(DataConsumer.class);
+
+            try (ServiceScope firstScope = serviceProvider.createScope();
+                 ServiceScope secondScope = serviceProvider.createScope()) {
+                DataService first = dataService.get(firstScope);
+
+                assertSame(firstScope.getServiceProvider().getService(DataService.class), first);
+                assertSame(first, dataService.get(firstScope));
+                assertNotSame(first, dataService.get(secondScope));
+                assertSame(first, dataConsumer.get(firstScope).getDataService());
+                assertSame(loggingService.get(), loggingService.get(firstScope));
+            }
+        }
+    }
+
+    @Test
+    void testHandleFailsAfterProviderIsClosed() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+        ServiceHandle<DataService> dataService = serviceProvider.handle(DataService.class);
+        dataService.get();
+
+        serviceProvider.close();
+
+        assertThrows(IllegalStateException.class, dataService::get);
+    }
+
+    @Test
+    void testReloadableProviderHandleFollowsReplacement() {
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+
+        try (ReloadableServiceProvider serviceProvider = serviceCollection.buildReloadableServiceProvider()) {
+            ServiceHandle<DataService> dataService = serviceProvider.handle(DataService.class);
+            assertInstanceOf(DataServiceImplementation.class, dataService.get());
+
+            serviceProvider.replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON));
+
+            assertInstanceOf(AlternativeDataService.class, dataService.get());
+        }
+    }
+}
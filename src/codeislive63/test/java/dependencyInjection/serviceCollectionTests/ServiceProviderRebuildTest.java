@@ -0,0 +1,123 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.ServiceDelta;
+import codeislive63.dependencyInjection.ServiceDescriptor;
+import codeislive63.dependencyInjection.ServiceLifetime;
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProviderRebuildTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addSingleton(DataConsumer.class, DataConsumer.class);
+        serviceCollection.addSingleton(CalculatorService.class, CalculatorServiceImplementation.class);
+    }
+
+    @Test
+    void testRebuildAddsRegistrationWithoutChangingOriginalProvider() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                     .add(new ServiceDescriptor(RateService.class, RateServiceImplementation.class, ServiceLifetime.TRANSIENT)))) {
+            assertNull(serviceProvider.getService(RateService.class));
+            assertNotNull(rebuilt.getService(RateService.class));
+            assertNotNull(rebuilt.getService(DataConsumer.class));
+        }
+    }
+
+    @Test
+    void testRebuildReplacesAndRemovesRegistrations() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                     .remove(CalculatorService.class)
+                     .replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON)))) {
+            assertNull(rebuilt.getService(CalculatorService.class));
+            assertInstanceOf(AlternativeDataService.class, rebuilt.getService(DataService.class));
+            assertInstanceOf(AlternativeDataService.class, rebuilt.getService(DataConsumer.class).getDataService());
+            assertInstanceOf(DataServiceImplementation.class, serviceProvider.getService(DataService.class));
+        }
+    }
+
+    @Test
+    void testSingletonsAreNotCarriedOverByDefault() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+
+            try (ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                    .add(new ServiceDescriptor(RateService.class, RateServiceImplementation.class, ServiceLifetime.TRANSIENT)))) {
+                assertNotSame(calculator, rebuilt.getService(CalculatorService.class));
+            }
+        }
+    }
+
+    @Test
+    void testUnaffectedSingletonsAreCarriedOver() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+            DataConsumer consumer = serviceProvider.getService(DataConsumer.class);
+
+            try (ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                    .replace(new ServiceDescriptor(DataService.class, AlternativeDataService.class, ServiceLifetime.SINGLETON))
+                    .carryOverSingletons())) {
+                assertSame(calculator, rebuilt.getService(CalculatorService.class));
+                assertNotSame(consumer, rebuilt.getService(DataConsumer.class));
+                assertInstanceOf(AlternativeDataService.class, rebuilt.getService(DataConsumer.class).getDataService());
+            }
+        }
+    }
+
+    @Test
+    void testRebuildReselectsConstructorWhenDependencyBecomesRegistered() {
+        serviceCollection.addTransient(OptionallyLoggingConsumer.class, OptionallyLoggingConsumer.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                     .add(new ServiceDescriptor(LoggingService.class, LoggingServiceImplementation.class, ServiceLifetime.SINGLETON)))) {
+            assertNull(serviceProvider.getService(OptionallyLoggingConsumer.class).getLoggingService());
+            assertNotNull(rebuilt.getService(OptionallyLoggingConsumer.class).getLoggingService());
+        }
+    }
+
+    @Test
+    void testRebuiltProviderCreatesScopesForAddedScopedServices() {
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider();
+             ServiceProvider rebuilt = serviceProvider.rebuildWith(new ServiceDelta()
+                     .add(new ServiceDescriptor(LoggingService.class, RecordingLoggingService.class, ServiceLifetime.SCOPED)));
+             ServiceScope scope = rebuilt.createScope()) {
+            LoggingService loggingService = scope.getServiceProvider().getService(LoggingService.class);
+
+            assertSame(loggingService, scope.getServiceProvider().getService(LoggingService.class));
+        }
+    }
+
+    @Test
+    void testScopeProviderRebuildsFromRootRegistrations() {
+        serviceCollection.addScoped(LoggingService.class, LoggingServiceImplementation.class);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            CalculatorService calculator = serviceProvider.getService(CalculatorService.class);
+            ServiceScope scope = serviceProvider.createScope();
+
+            try (ServiceProvider rebuilt = scope.getServiceProvider().rebuildWith(new ServiceDelta()
+                    .add(new ServiceDescriptor(RateService.class, RateServiceImplementation.class, ServiceLifetime.TRANSIENT))
+                    .carryOverSingletons())) {
+                assertNotNull(rebuilt.getService(RateService.class));
+                assertSame(calculator, rebuilt.getService(CalculatorService.class));
+            }
+
+            scope.close();
+            assertThrows(IllegalStateException.class, () -> scope.getServiceProvider().rebuildWith(new ServiceDelta()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.dependencyInjection.interfaces.ServiceProviderTemplate;
+import codeislive63.dependencyInjection.interfaces.ServiceScope;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProviderTemplateTest {
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+        serviceCollection.addSingleton(DataService.class, DataServiceImplementation.class);
+        serviceCollection.addScoped(LoggingService.class, RecordingLoggingService.class);
+        serviceCollection.addTransient(DataProcessor.class);
+    }
+
+    @Test
+    void testProvidersDoNotShareSingletons() {
+        ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+
+        try (ServiceProvider first = template.newProvider(); ServiceProvider second = template.newProvider()) {
+            assertNotSame(first, second);
+            assertSame(first.getService(DataService.class), first.getService(DataService.class));
+            assertNotSame(first.getService(DataService.class), second.getService(DataService.class));
+            assertSame(second.getService(DataService.class), second.getService(DataProcessor.class).getDataService());
+        }
+    }
+
+    @Test
+    void testProvidersCreateOwnScopes() {
+        ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+
+        try (ServiceProvider serviceProvider = template.newProvider();
+             ServiceScope scope = serviceProvider.createScope()) {
+            ServiceProvider scopedProvider = scope.getServiceProvider();
+            DataProcessor processor = scopedProvider.getService(DataProcessor.class);
+
+            assertSame(scopedProvider.getService(LoggingService.class), processor.getLoggingService());
+            assertSame(serviceProvider.getService(DataService.class), processor.getDataService());
+        }
+    }
+
+    @Test
+    void testClosingProviderDoesNotAffectTemplate() {
+        ServiceProviderTemplate template = serviceCollection.buildServiceProviderTemplate();
+        ServiceProvider closed = template.newProvider();
+        closed.getService(DataService.class);
+        closed.close();
+
+        try (ServiceProvider serviceProvider = template.newProvider()) {
+            assertNotNull(serviceProvider.getService(DataProcessor.class));
+        }
+
+        assertThrows(IllegalStateException.class, () -> closed.getService(DataService.class));
+    }
+
+    @Test
+    void testCollectionIsFrozenAfterTemplateIsBuilt() {
+        serviceCollection.buildServiceProviderTemplate();
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.addTransient(TestService.class, TestServiceImplementation.class));
+    }
+}
@@ -0,0 +1,9 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class AlternativeDataService implements DataService {
+
+    @Override
+    public String getData() {
+        return "Alternative data";
+    }
+}
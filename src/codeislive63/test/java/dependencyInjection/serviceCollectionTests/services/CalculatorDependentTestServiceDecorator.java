@@ -0,0 +1,17 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class CalculatorDependentTestServiceDecorator implements TestService {
+    private final TestService inner;
+    private final CalculatorService calculatorService;
+
+    public CalculatorDependentTestServiceDecorator(TestService inner, CalculatorService calculatorService) {
+        this.inner = inner;
+        this.calculatorService = calculatorService;
+    }
+
+    @Override
+    public void performAction() {
+        calculatorService.add(0, 0);
+        inner.performAction();
+    }
+}
@@ -0,0 +1,7 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public interface CalculatorService {
+    int add(int left, int right);
+
+    long divide(long dividend, long divisor);
+}
@@ -0,0 +1,14 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class CalculatorServiceImplementation implements CalculatorService {
+
+    @Override
+    public int add(int left, int right) {
+        return left + right;
+    }
+
+    @Override
+    public long divide(long dividend, long divisor) {
+        return dividend / divisor;
+    }
+}
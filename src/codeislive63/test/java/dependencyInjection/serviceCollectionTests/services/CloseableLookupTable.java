@@ -0,0 +1,14 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class CloseableLookupTable implements AutoCloseable {
+    private volatile boolean isClosed;
+
+    @Override
+    public void close() {
+        isClosed = true;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+}
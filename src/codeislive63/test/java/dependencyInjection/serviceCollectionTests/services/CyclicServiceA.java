@@ -0,0 +1,13 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class CyclicServiceA {
+    private final CyclicServiceB dependency;
+
+    public CyclicServiceA(CyclicServiceB dependency) {
+        this.dependency = dependency;
+    }
+
+    public CyclicServiceB getDependency() {
+        return dependency;
+    }
+}
@@ -0,0 +1,13 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class CyclicServiceB {
+    private final CyclicServiceA dependency;
+
+    public CyclicServiceB(CyclicServiceA dependency) {
+        this.dependency = dependency;
+    }
+
+    public CyclicServiceA getDependency() {
+        return dependency;
+    }
+}
@@ -0,0 +1,13 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class DataConsumer {
+    private final DataService dataService;
+
+    public DataConsumer(DataService dataService) {
+        this.dataService = dataService;
+    }
+
+    public DataService getDataService() {
+        return dataService;
+    }
+}
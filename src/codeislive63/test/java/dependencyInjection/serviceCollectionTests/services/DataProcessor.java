@@ -0,0 +1,19 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class DataProcessor {
+    private final LoggingService loggingService;
+    private final DataService dataService;
+
+    public DataProcessor(LoggingService loggingService, DataService dataService) {
+        this.loggingService = loggingService;
+        this.dataService = dataService;
+    }
+
+    public LoggingService getLoggingService() {
+        return loggingService;
+    }
+
+    public DataService getDataService() {
+        return dataService;
+    }
+}
@@ -0,0 +1,29 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.collections.generic.List;
+
+public class DataServiceAggregator {
+    private final List<DataService> dataServices;
+
+    public DataServiceAggregator(List<DataService> dataServices) {
+        this.dataServices = dataServices;
+    }
+
+    public List<DataService> getDataServices() {
+        return dataServices;
+    }
+
+    public String getData() {
+        StringBuilder data = new StringBuilder();
+
+        for (DataService dataService : dataServices) {
+            if (!data.isEmpty()) {
+                data.append(", ");
+            }
+
+            data.append(dataService.getData());
+        }
+
+        return data.toString();
+    }
+}
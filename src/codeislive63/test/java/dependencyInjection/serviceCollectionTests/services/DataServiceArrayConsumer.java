@@ -0,0 +1,19 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class DataServiceArrayConsumer {
+    private final DataService[] dataServices;
+    private final LoggingService loggingService;
+
+    public DataServiceArrayConsumer(DataService[] dataServices, LoggingService loggingService) {
+        this.dataServices = dataServices;
+        this.loggingService = loggingService;
+    }
+
+    public DataService[] getDataServices() {
+        return dataServices;
+    }
+
+    public LoggingService getLoggingService() {
+        return loggingService;
+    }
+}
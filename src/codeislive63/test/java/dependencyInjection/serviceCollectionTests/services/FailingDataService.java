@@ -0,0 +1,13 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class FailingDataService implements DataService {
+
+    public FailingDataService(LoggingService loggingService) {
+        throw new IllegalStateException("Источник данных недоступен");
+    }
+
+    @Override
+    public String getData() {
+        return null;
+    }
+}
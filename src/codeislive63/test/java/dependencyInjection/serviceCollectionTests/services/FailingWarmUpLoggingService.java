@@ -0,0 +1,15 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.annotations.WarmUp;
+
+public class FailingWarmUpLoggingService implements LoggingService {
+
+    @WarmUp
+    public void preload() {
+        throw new IllegalStateException("Warm-up failed");
+    }
+
+    @Override
+    public void log(String message) {
+    }
+}
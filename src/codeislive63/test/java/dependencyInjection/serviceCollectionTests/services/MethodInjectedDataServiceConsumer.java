@@ -0,0 +1,17 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.collections.generic.Enumerable;
+import codeislive63.dependencyInjection.annotations.Inject;
+
+public class MethodInjectedDataServiceConsumer {
+    private Enumerable<DataService> dataServices;
+
+    @Inject
+    public void setDataServices(Enumerable<DataService> dataServices) {
+        this.dataServices = dataServices;
+    }
+
+    public Enumerable<DataService> getDataServices() {
+        return dataServices;
+    }
+}
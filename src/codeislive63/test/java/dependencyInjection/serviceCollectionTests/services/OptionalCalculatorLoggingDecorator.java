@@ -0,0 +1,24 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class OptionalCalculatorLoggingDecorator implements LoggingService {
+    private final LoggingService inner;
+    private final CalculatorService calculatorService;
+
+    public OptionalCalculatorLoggingDecorator(LoggingService inner, CalculatorService calculatorService) {
+        this.inner = inner;
+        this.calculatorService = calculatorService;
+    }
+
+    public OptionalCalculatorLoggingDecorator(LoggingService inner) {
+        this(inner, null);
+    }
+
+    public CalculatorService getCalculatorService() {
+        return calculatorService;
+    }
+
+    @Override
+    public void log(String message) {
+        inner.log(message);
+    }
+}
@@ -0,0 +1,23 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class OptionallyLoggingConsumer {
+    private final DataService dataService;
+    private final LoggingService loggingService;
+
+    public OptionallyLoggingConsumer(DataService dataService) {
+        this(dataService, null);
+    }
+
+    public OptionallyLoggingConsumer(DataService dataService, LoggingService loggingService) {
+        this.dataService = dataService;
+        this.loggingService = loggingService;
+    }
+
+    public DataService getDataService() {
+        return dataService;
+    }
+
+    public LoggingService getLoggingService() {
+        return loggingService;
+    }
+}
@@ -0,0 +1,20 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class PrefixLoggingDecorator implements LoggingService {
+    private final LoggingService inner;
+    private final DataService dataService;
+
+    public PrefixLoggingDecorator(LoggingService inner, DataService dataService) {
+        this.inner = inner;
+        this.dataService = dataService;
+    }
+
+    public LoggingService getInner() {
+        return inner;
+    }
+
+    @Override
+    public void log(String message) {
+        inner.log(dataService.getData() + ": " + message);
+    }
+}
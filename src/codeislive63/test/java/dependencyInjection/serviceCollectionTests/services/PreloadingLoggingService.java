@@ -0,0 +1,20 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.annotations.WarmUp;
+
+public class PreloadingLoggingService implements LoggingService {
+    private volatile int preloadCount;
+
+    @WarmUp
+    public void preload() {
+        preloadCount++;
+    }
+
+    @Override
+    public void log(String message) {
+    }
+
+    public int getPreloadCount() {
+        return preloadCount;
+    }
+}
@@ -0,0 +1,13 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.annotations.Cached;
+
+public interface RateService {
+    @Cached(maximumSize = 2)
+    double getRate(String from, String to);
+
+    @Cached(expireAfterWriteMillis = 50)
+    long getVersion();
+
+    int getCallCount();
+}
@@ -0,0 +1,47 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateServiceImplementation implements RateService {
+    private final AtomicInteger callCount = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean isBlocking;
+
+    @Override
+    public double getRate(String from, String to) {
+        callCount.incrementAndGet();
+
+        if (isBlocking) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Одинаковые валюты");
+        }
+
+        return from.length() + to.length() / 10.0;
+    }
+
+    @Override
+    public long getVersion() {
+        return callCount.incrementAndGet();
+    }
+
+    @Override
+    public int getCallCount() {
+        return callCount.get();
+    }
+
+    public void block() {
+        isBlocking = true;
+    }
+
+    public void unblock() {
+        release.countDown();
+    }
+}
@@ -0,0 +1,33 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.collections.generic.List;
+import codeislive63.dependencyInjection.interfaces.ServiceInterceptor;
+
+import java.lang.reflect.Method;
+
+public class RecordingInterceptor implements ServiceInterceptor {
+    private final String name;
+    private final List<String> events;
+    private Throwable lastError;
+
+    public RecordingInterceptor(String name, List<String> events) {
+        this.name = name;
+        this.events = events;
+    }
+
+    @Override
+    public Object before(Method method, Object target) {
+        events.add(name + ":before:" + method.getName());
+        return name;
+    }
+
+    @Override
+    public void after(Method method, Object target, Object state, Throwable error) {
+        lastError = error;
+        events.add(state + ":after:" + method.getName());
+    }
+
+    public Throwable getLastError() {
+        return lastError;
+    }
+}
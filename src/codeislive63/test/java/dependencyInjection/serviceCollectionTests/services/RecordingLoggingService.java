@@ -0,0 +1,16 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.collections.generic.List;
+
+public class RecordingLoggingService implements LoggingService {
+    private final List<String> messages = new List<>();
+
+    @Override
+    public void log(String message) {
+        messages.add(message);
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+}
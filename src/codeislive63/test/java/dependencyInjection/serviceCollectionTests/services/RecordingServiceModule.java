@@ -0,0 +1,33 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceModule;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class RecordingServiceModule implements ServiceModule {
+    private final Class<?>[] serviceTypes;
+    private final Consumer<ServiceCollection> registrations;
+    private final AtomicInteger configureCount = new AtomicInteger();
+
+    public RecordingServiceModule(Consumer<ServiceCollection> registrations, Class<?>... serviceTypes) {
+        this.serviceTypes = serviceTypes;
+        this.registrations = registrations;
+    }
+
+    @Override
+    public Class<?>[] getServiceTypes() {
+        return serviceTypes;
+    }
+
+    @Override
+    public void configure(ServiceCollection services) {
+        configureCount.incrementAndGet();
+        registrations.accept(services);
+    }
+
+    public int getConfigureCount() {
+        return configureCount.get();
+    }
+}
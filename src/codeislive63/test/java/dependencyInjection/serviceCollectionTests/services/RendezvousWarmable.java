@@ -0,0 +1,20 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.interfaces.Warmable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RendezvousWarmable implements Warmable {
+    public static volatile CountDownLatch arrivals = new CountDownLatch(0);
+
+    @Override
+    public void warmUp() throws InterruptedException {
+        CountDownLatch latch = arrivals;
+        latch.countDown();
+
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Прогрев выполняется последовательно");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+public class UpperCaseLoggingDecorator implements LoggingService {
+    private final LoggingService inner;
+
+    public UpperCaseLoggingDecorator(LoggingService inner) {
+        this.inner = inner;
+    }
+
+    public LoggingService getInner() {
+        return inner;
+    }
+
+    @Override
+    public void log(String message) {
+        inner.log(message.toUpperCase());
+    }
+}
@@ -0,0 +1,8 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.annotations.Cached;
+
+public interface VoidCachedService {
+    @Cached
+    void run();
+}
@@ -0,0 +1,26 @@
+package codeislive63.test.java.dependencyInjection.serviceCollectionTests.services;
+
+import codeislive63.dependencyInjection.interfaces.Warmable;
+
+import java.util.concurrent.CountDownLatch;
+
+public class WarmableDataService implements DataService, Warmable {
+    public static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private volatile boolean isWarmedUp;
+
+    @Override
+    public void warmUp() throws InterruptedException {
+        gate.await();
+        isWarmedUp = true;
+    }
+
+    @Override
+    public String getData() {
+        return "Warm data";
+    }
+
+    public boolean isWarmedUp() {
+        return isWarmedUp;
+    }
+}
@@ -0,0 +1,157 @@
+package codeislive63.test.java.dependencyInjection.serviceIndexTests;
+
+import codeislive63.dependencyInjection.implementations.ServiceCollectionBase;
+import codeislive63.dependencyInjection.index.ServiceIndex;
+import codeislive63.dependencyInjection.index.ServiceIndexProcessor;
+import codeislive63.dependencyInjection.interfaces.ServiceCollection;
+import codeislive63.dependencyInjection.interfaces.ServiceProvider;
+import codeislive63.test.java.dependencyInjection.serviceCollectionTests.services.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceIndexTest {
+
+    private static final Pattern CLASS_NAME = Pattern.compile("public class (\\w+)");
+
+    private ServiceCollection serviceCollection;
+
+    @BeforeEach
+    void setUp() {
+        serviceCollection = new ServiceCollectionBase();
+    }
+
+    @Test
+    void testAddIndexedServices() throws IOException {
+        ClassLoader classLoader = createIndexClassLoader(
+                "# сформировано ServiceIndexProcessor",
+                "SINGLETON " + LoggingService.class.getName() + " " + LoggingServiceImplementation.class.getName(),
+                "TRANSIENT " + DataService.class.getName() + " " + DataServiceImplementation.class.getName(),
+                "SCOPED " + ConstructorInjectedProcessor.class.getName() + " " + ConstructorInjectedProcessor.class.getName());
+
+        serviceCollection.addIndexedServices(classLoader);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            assertSame(serviceProvider.getService(LoggingService.class), serviceProvider.getService(LoggingService.class));
+            assertNotSame(serviceProvider.getService(DataService.class), serviceProvider.getService(DataService.class));
+            assertNotNull(serviceProvider.createScope().getServiceProvider().getService(ConstructorInjectedProcessor.class));
+        }
+    }
+
+    @Test
+    void testAddIndexedServicesRejectsIncompatibleImplementation() throws IOException {
+        ClassLoader classLoader = createIndexClassLoader(
+                "SINGLETON " + LoggingService.class.getName() + " " + DataServiceImplementation.class.getName());
+
+        assertThrows(IllegalStateException.class, () -> serviceCollection.addIndexedServices(classLoader));
+    }
+
+    @Test
+    void testProcessorGeneratesIndexForAnnotatedClasses() throws Exception {
+        Path output = Files.createTempDirectory("injectx-processor");
+        DiagnosticCollector<JavaFileObject> diagnostics = compileWithProcessor(output,
+                "package fixture;\n"
+                        + "@codeislive63.dependencyInjection.annotations.Singleton(" + LoggingService.class.getCanonicalName() + ".class)\n"
+                        + "public class IndexedLogger implements " + LoggingService.class.getCanonicalName() + " {\n"
+                        + "    public void log(String message) {}\n"
+                        + "}\n",
+                "package fixture;\n"
+                        + "@codeislive63.dependencyInjection.annotations.Transient\n"
+                        + "public class IndexedWorker {\n"
+                        + "    private final " + LoggingService.class.getCanonicalName() + " logger;\n"
+                        + "    public IndexedWorker(" + LoggingService.class.getCanonicalName() + " logger) { this.logger = logger; }\n"
+                        + "    public Object getLogger() { return logger; }\n"
+                        + "}\n");
+
+        assertTrue(diagnostics.getDiagnostics().isEmpty(), diagnostics.getDiagnostics().toString());
+        assertTrue(Files.exists(output.resolve(ServiceIndex.RESOURCE_NAME)));
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+        Class<?> workerType = classLoader.loadClass("fixture.IndexedWorker");
+        serviceCollection.addIndexedServices(classLoader);
+
+        try (ServiceProvider serviceProvider = serviceCollection.buildServiceProvider()) {
+            LoggingService logger = serviceProvider.getService(LoggingService.class);
+            Object worker = serviceProvider.getService(workerType);
+
+            assertEquals("fixture.IndexedLogger", logger.getClass().getName());
+            assertSame(logger, workerType.getMethod("getLogger").invoke(worker));
+            assertNotSame(worker, serviceProvider.getService(workerType));
+        }
+    }
+
+    @Test
+    void testProcessorRejectsClassNotImplementingServiceType() throws Exception {
+        Path output = Files.createTempDirectory("injectx-processor");
+        DiagnosticCollector<JavaFileObject> diagnostics = compileWithProcessor(output,
+                "package fixture;\n"
+                        + "@codeislive63.dependencyInjection.annotations.Singleton(" + LoggingService.class.getCanonicalName() + ".class)\n"
+                        + "public class MisplacedLogger {\n"
+                        + "}\n");
+
+        assertFalse(diagnostics.getDiagnostics().isEmpty());
+        assertFalse(Files.exists(output.resolve(ServiceIndex.RESOURCE_NAME)));
+    }
+
+    /**
+     * Компилирует исходные тексты с {@link ServiceIndexProcessor} в указанный каталог.
+     */
+    private DiagnosticCollector<JavaFileObject> compileWithProcessor(Path output, String... sources) throws IOException, URISyntaxException {
+        Path sourceRoot = Files.createTempDirectory("injectx-sources");
+        List<File> files = new ArrayList<>();
+
+        for (String source : sources) {
+            Matcher className = CLASS_NAME.matcher(source);
+            assertTrue(className.find());
+
+            Path file = sourceRoot.resolve("fixture").resolve(className.group(1) + ".java");
+            Files.createDirectories(file.getParent());
+            files.add(Files.writeString(file, source).toFile());
+        }
+
+        String classPath = Path.of(ServiceIndexProcessor.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator
+                + Path.of(LoggingService.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-d", output.toString(), "-classpath", classPath, "-implicit:none"),
+                    null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(List.of(new ServiceIndexProcessor()));
+            task.call();
+        }
+
+        return diagnostics;
+    }
+
+    private ClassLoader createIndexClassLoader(String... lines) throws IOException {
+        Path root = Files.createTempDirectory("injectx-index");
+        Path index = root.resolve(ServiceIndex.RESOURCE_NAME);
+        Files.createDirectories(index.getParent());
+        Files.write(index, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+
+        return new URLClassLoader(new URL[]{root.toUri().toURL()}, getClass().getClassLoader());
+    }
+}